@@ -58,6 +58,12 @@ intellijPlatform {
     }
 }
 
+// JMH benchmarks in src/jmh/java, they may access package-private members of the main sources
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += output + compileClasspath
+}
+
 dependencies {
     intellijPlatform {
         create(IntelliJPlatformType.IntellijIdeaCommunity, platformVersion)
@@ -85,6 +91,10 @@ dependencies {
     testImplementation(libs.mockito.core)
 
     testRuntimeOnly(libs.junit.jupiter.engine)
+
+    "jmhImplementation"(libs.jmh.core)
+    "jmhImplementation"(libs.mockito.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator.annprocess)
 }
 
 val platformTests by intellijPlatformTesting.testIde.registering {
@@ -111,6 +121,26 @@ tasks {
         useJUnitPlatform()
     }
 
+    // benchmarks are not run by the build, but they have to keep compiling against the main sources
+    check {
+        dependsOn(jmh.classesTaskName)
+    }
+
+    // ./gradlew jmh [-PjmhIncludes=<benchmark regex>]
+    register<JavaExec>("jmh") {
+        description = "Runs the JMH benchmarks."
+        group = "verification"
+        classpath = jmh.runtimeClasspath
+        mainClass = "org.openjdk.jmh.Main"
+        val results = layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+        args("-prof", "gc", "-rf", "json", "-rff", results.absolutePath)
+        providers.gradleProperty("jmhIncludes").orNull?.let { args(it) }
+        outputs.upToDateWhen { false }
+        doFirst {
+            results.parentFile.mkdirs()
+        }
+    }
+
     printProductsReleases {
         channels = listOf(ProductRelease.Channel.EAP)
         types = listOf(IntelliJPlatformType.IntellijIdeaCommunity)
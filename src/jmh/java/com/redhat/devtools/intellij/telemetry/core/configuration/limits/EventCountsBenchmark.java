@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import com.redhat.devtools.intellij.telemetry.core.service.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.redhat.devtools.intellij.telemetry.core.service.Event.Type.ACTION;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCountsBenchmark {
+
+    private static final int EVENTS = 64;
+
+    private EventCounts counts;
+    private Event[] events;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        Event next(Event[] events) {
+            return events[next++ & (EVENTS - 1)];
+        }
+    }
+
+    @Setup
+    public void setup() {
+        this.counts = LimitsFixtures.eventCounts();
+        this.events = new Event[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = new Event(ACTION, "action-" + i);
+            counts.put(events[i]);
+        }
+    }
+
+    @Benchmark
+    public void put(Cursor cursor) {
+        counts.put(cursor.next(events));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void put_contended(Cursor cursor) {
+        counts.put(cursor.next(events));
+    }
+
+    @Benchmark
+    public int getDailyTotal(Cursor cursor) {
+        return counts.getDailyTotal(cursor.next(events));
+    }
+}
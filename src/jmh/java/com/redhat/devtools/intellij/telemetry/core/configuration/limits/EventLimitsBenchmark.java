@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import com.redhat.devtools.intellij.telemetry.core.service.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.redhat.devtools.intellij.telemetry.core.service.Event.Type.ACTION;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventLimitsBenchmark {
+
+    private EventLimits limits;
+    private Event included;
+    private Event limited;
+    private Event excluded;
+
+    @Setup
+    public void setup() throws IOException {
+        this.limits = LimitsFixtures.eventLimits(LimitsFixtures.PLUGIN_ID);
+        this.included = new Event(ACTION, "open-project", properties("url", "https://github.com/redhat-developer"));
+        this.limited = new Event(ACTION, "build-project", properties("url", "https://github.com/redhat-developer"));
+        this.excluded = new Event(ACTION, "open-project", properties("url", "https://internal.redhat.com"));
+    }
+
+    @Benchmark
+    public boolean canSend_included() {
+        return limits.canSend(included);
+    }
+
+    @Benchmark
+    public boolean canSend_daily_limit() {
+        return limits.canSend(limited);
+    }
+
+    @Benchmark
+    public boolean canSend_excluded_by_property() {
+        return limits.canSend(excluded);
+    }
+
+    @Benchmark
+    public boolean tryReserve_daily_limit() {
+        return limits.tryReserve(limited);
+    }
+
+    private static Map<String, String> properties(String key, String value) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(key, value);
+        return properties;
+    }
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import java.io.IOException;
+
+/**
+ * Limits and counts for benchmarks that run without an IntelliJ application.
+ */
+public class LimitsFixtures {
+
+    public static final String PLUGIN_ID = "com.redhat.devtools.intellij.benchmark";
+
+    /**
+     * The embedded default limits plus limits for a plugin with name globs, property filters and daily limits.
+     */
+    public static final String CONFIG = "{\n" +
+            "  \"*\": {\n" +
+            "    \"enabled\": \"all\",\n" +
+            "    \"refresh\": \"12h\",\n" +
+            "    \"includes\": [\n" +
+            "      { \"name\": \"startup\", \"dailyLimit\": 1 },\n" +
+            "      { \"name\": \"*\" }\n" +
+            "    ],\n" +
+            "    \"excludes\": [\n" +
+            "      { \"name\": \"shutdown\", \"ratio\": \"1.0\" }\n" +
+            "    ]\n" +
+            "  },\n" +
+            "  \"" + PLUGIN_ID + "\": {\n" +
+            "    \"enabled\": \"all\",\n" +
+            "    \"refresh\": \"12h\",\n" +
+            "    \"ratio\": \"1.0\",\n" +
+            "    \"includes\": [\n" +
+            "      { \"name\": \"startup\", \"dailyLimit\": 1 },\n" +
+            "      { \"name\": \"{build,deploy}-*\", \"dailyLimit\": 2147483647 },\n" +
+            "      { \"name\": \"*\" }\n" +
+            "    ],\n" +
+            "    \"excludes\": [\n" +
+            "      { \"name\": \"shutdown\", \"ratio\": \"1.0\" },\n" +
+            "      { \"name\": \"*-debug\" },\n" +
+            "      { \"property\": \"url\", \"value\": \"*internal*\" }\n" +
+            "    ]\n" +
+            "  }\n" +
+            "}";
+
+    private LimitsFixtures() {
+    }
+
+    /**
+     * Returns limits for the given plugin that are created from {@link #CONFIG}.
+     * The limits are never refreshed and count events in memory.
+     *
+     * @param pluginId the id of the plugin whose events are limited
+     * @return the limits
+     * @throws IOException if {@link #CONFIG} cannot be parsed
+     */
+    public static EventLimits eventLimits(String pluginId) throws IOException {
+        return new EventLimits(pluginId,
+                PluginLimitsDeserialization.create(CONFIG),
+                PluginLimitsDeserialization::create,
+                new LimitsConfigurations(),
+                eventCounts());
+    }
+
+    /**
+     * Returns counts that are kept in memory only.
+     *
+     * @return the counts
+     */
+    public static EventCounts eventCounts() {
+        return new EventCounts();
+    }
+}
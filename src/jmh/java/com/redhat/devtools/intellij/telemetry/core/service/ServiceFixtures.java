@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service;
+
+import com.redhat.devtools.intellij.telemetry.core.configuration.IConfiguration;
+import com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration;
+import com.redhat.devtools.intellij.telemetry.core.configuration.limits.LimitsFixtures;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Environment and configuration for benchmarks that run without an IntelliJ application.
+ */
+public class ServiceFixtures {
+
+    private ServiceFixtures() {
+    }
+
+    public static Environment environment() {
+        return new Environment.Builder()
+                .ide(new IDE("IntelliJ IDEA", "2024.3")
+                        .setJavaVersion())
+                .locale("de_CH")
+                .timezone("Europe/Bern")
+                .country("Switzerland")
+                .platform(new Platform("Linux", "Fedora", "41"))
+                .plugin(new Plugin.Factory().create("Benchmark by Red Hat", "1.0.0", LimitsFixtures.PLUGIN_ID))
+                .build();
+    }
+
+    /**
+     * Returns a configuration with the given mode that doesn't read nor write any file.
+     *
+     * @param mode the telemetry mode
+     * @return the configuration
+     */
+    public static TelemetryConfiguration configuration(TelemetryConfiguration.Mode mode) {
+        IConfiguration modeOnly = new IConfiguration() {
+            @Override
+            public String get(String key) {
+                if (TelemetryConfiguration.KEY_MODE.equals(key)) {
+                    return mode.toString();
+                }
+                return null;
+            }
+
+            @Override
+            public void put(String key, String value) {
+                // read-only
+            }
+        };
+        return new TelemetryConfiguration() {
+            @Override
+            protected List<IConfiguration> getConfigurations() {
+                return Collections.singletonList(modeOnly);
+            }
+        };
+    }
+}
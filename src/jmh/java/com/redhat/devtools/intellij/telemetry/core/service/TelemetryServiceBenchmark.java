@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service;
+
+import com.intellij.util.messages.MessageBusConnection;
+import com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration;
+import com.redhat.devtools.intellij.telemetry.core.configuration.limits.LimitsFixtures;
+import com.redhat.devtools.intellij.telemetry.core.service.TelemetryMessageBuilder.FeedbackServiceFacade;
+import com.redhat.devtools.intellij.telemetry.core.service.TelemetryMessageBuilder.TelemetryServiceFacade;
+import com.redhat.devtools.intellij.telemetry.core.service.segment.SegmentFixtures;
+import com.redhat.devtools.intellij.telemetry.ui.TelemetryNotifications;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Sends an action message end-to-end: {@link TelemetryMessageBuilder}, {@link TelemetryService},
+ * limits, counts and {@link com.redhat.devtools.intellij.telemetry.core.service.segment.SegmentBroker}
+ * up to the point where segment would queue the message for upload.
+ * The ingest queue is consumed in the sending thread so that the whole path is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TelemetryServiceBenchmark {
+
+    private TelemetryService service;
+    private TelemetryMessageBuilder builder;
+
+    @Setup
+    public void setup() throws IOException {
+        MessageBusConnection connection = mock(MessageBusConnection.class);
+        this.service = new TelemetryService(
+                ServiceFixtures.configuration(TelemetryConfiguration.Mode.NORMAL),
+                LimitsFixtures.eventLimits(LimitsFixtures.PLUGIN_ID),
+                SegmentFixtures.broker(ServiceFixtures.environment()),
+                connection,
+                mock(TelemetryNotifications.class),
+                Runnable::run);
+        this.builder = new TelemetryMessageBuilder(
+                new TelemetryServiceFacade(() -> service, connection),
+                new FeedbackServiceFacade(() -> service));
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.dispose();
+    }
+
+    @Benchmark
+    public Event send_action() {
+        return builder.action("open-project")
+                .property("url", "https://github.com/redhat-developer")
+                .property("kind", "maven")
+                .send();
+    }
+}
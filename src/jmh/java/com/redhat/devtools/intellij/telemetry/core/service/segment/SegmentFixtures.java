@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.redhat.devtools.intellij.telemetry.core.service.Environment;
+import com.segment.analytics.Analytics;
+
+/**
+ * {@link SegmentBroker}s for benchmarks that never hit the network nor the file system.
+ */
+public class SegmentFixtures {
+
+    private static final String WRITE_KEY = "benchmark";
+    private static final String USER_ID = "42";
+
+    private SegmentFixtures() {
+    }
+
+    /**
+     * Returns a broker whose messages are built by a real {@link Analytics} instance and then dropped
+     * before they are queued for upload. Identify traits are kept in memory.
+     * {@link SegmentBroker#dispose()} shuts the analytics instance down.
+     *
+     * @param environment the environment that the broker reports
+     * @return the broker
+     */
+    public static SegmentBroker broker(Environment environment) {
+        return new SegmentBroker(
+                false,
+                USER_ID,
+                new InMemoryIdentifyTraitsPersistence(),
+                environment,
+                new ISegmentConfiguration() {
+                    @Override
+                    public String getNormalWriteKey() {
+                        return WRITE_KEY;
+                    }
+
+                    @Override
+                    public String getDebugWriteKey() {
+                        return WRITE_KEY;
+                    }
+                },
+                SegmentFixtures::noopAnalytics);
+    }
+
+    private static Analytics noopAnalytics(String writeKey) {
+        return Analytics.builder(writeKey)
+                .messageTransformer(builder -> {
+                    builder.build();
+                    return false;
+                })
+                .build();
+    }
+
+    private static class InMemoryIdentifyTraitsPersistence extends IdentifyTraitsPersistence {
+
+        private IdentifyTraits identifyTraits;
+
+        @Override
+        synchronized IdentifyTraits get() {
+            return identifyTraits;
+        }
+
+        @Override
+        synchronized void set(IdentifyTraits identifyTraits) {
+            this.identifyTraits = identifyTraits;
+        }
+    }
+}
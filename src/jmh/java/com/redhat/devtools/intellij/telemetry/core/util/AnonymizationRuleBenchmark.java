@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares anonymizing an error with a growing number of plugin rules applied one after the other
+ * to applying all of them in a single pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnonymizationRuleBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int rules;
+
+    private List<Pattern> literals;
+    private List<Pattern> patterns;
+    private Anonymizer anonymizer;
+    private String error;
+
+    @Setup
+    public void setup() {
+        this.literals = new ArrayList<>();
+        this.patterns = new ArrayList<>();
+        this.anonymizer = new Anonymizer();
+        for (int i = 0; i < rules; i++) {
+            String literal = "project-" + i;
+            literals.add(Pattern.compile(literal, Pattern.LITERAL));
+            anonymizer.register(AnonymizationRule.literal(literal, "<PROJECT>"));
+            if (i % 5 == 0) {
+                String regex = "cluster-" + i + "\\.[a-z]+\\.com";
+                patterns.add(Pattern.compile(regex));
+                anonymizer.register(AnonymizationRule.pattern(regex, "<CLUSTER>"));
+            }
+        }
+        StringBuilder builder = new StringBuilder("User " + AnonymizeUtils.USER_NAME
+                + " could not deploy project-0 to cluster-0.redhat.com from " + AnonymizeUtils.HOME_DIR
+                + " at 192.168.0.42");
+        for (int i = 0; i < 50; i++) {
+            builder.append("\n\tat com.redhat.devtools.intellij.kubernetes.model.Cluster.connect(Cluster.java:")
+                    .append(i)
+                    .append(')');
+        }
+        this.error = builder.toString();
+    }
+
+    @Benchmark
+    public String anonymize_chained() {
+        String anonymized = error;
+        for (Pattern literal : literals) {
+            anonymized = literal.matcher(anonymized).replaceAll("<PROJECT>");
+        }
+        for (Pattern pattern : patterns) {
+            anonymized = pattern.matcher(anonymized).replaceAll("<CLUSTER>");
+        }
+        return AnonymizeUtils.anonymize(anonymized);
+    }
+
+    @Benchmark
+    public String anonymize_singlePass() {
+        return anonymizer.anonymizeError(error);
+    }
+}
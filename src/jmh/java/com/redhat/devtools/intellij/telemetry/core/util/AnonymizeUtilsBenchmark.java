@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnonymizeUtilsBenchmark {
+
+    private String clean;
+    private String sensitive;
+    private String stackTrace;
+    private Scrubber scrubber;
+
+    @Setup
+    public void setup() {
+        this.clean = "Could not connect to cluster: connection refused (after 3 retries)";
+        this.sensitive = "User " + AnonymizeUtils.USER_NAME + " (jedi@redhat.com) could not read "
+                + AnonymizeUtils.HOME_DIR + "/.kube/config nor " + AnonymizeUtils.TMP_DIR + "/kubeconfig"
+                + " when connecting to 192.168.0.42";
+        StringBuilder builder = new StringBuilder(sensitive);
+        for (int i = 0; i < 100; i++) {
+            builder.append("\n\tat com.redhat.devtools.intellij.kubernetes.model.Cluster.connect(Cluster.java:")
+                    .append(i)
+                    .append(')');
+        }
+        this.stackTrace = builder.toString();
+        Scrubber.Builder scrubber = Scrubber.builder();
+        AnonymizeUtils.addBuiltInRules(scrubber);
+        this.scrubber = scrubber.build();
+    }
+
+    @Benchmark
+    public String anonymize_clean() {
+        return AnonymizeUtils.anonymize(clean);
+    }
+
+    @Benchmark
+    public String anonymize_sensitive() {
+        return AnonymizeUtils.anonymize(sensitive);
+    }
+
+    @Benchmark
+    public String anonymize_stackTrace() {
+        return AnonymizeUtils.anonymize(stackTrace);
+    }
+
+    /* anonymize is memoized, this measures scanning without the cache */
+    @Benchmark
+    public String scrub_sensitive() {
+        return scrubber.scrub(sensitive);
+    }
+}
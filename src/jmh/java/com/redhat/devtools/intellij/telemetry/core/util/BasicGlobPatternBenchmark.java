@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BasicGlobPatternBenchmark {
+
+    /* a literal, a prefix, a suffix, an infix and patterns that are matched by the automaton */
+    @Param({ "build-project", "build-*", "*-project", "*project*", "{build,deploy}-*", "b?ild-[a-z]*" })
+    public String glob;
+
+    private BasicGlobPattern pattern;
+
+    @Setup
+    public void setup() {
+        this.pattern = BasicGlobPattern.compile(glob);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return pattern.matches("build-project");
+    }
+
+    @Benchmark
+    public boolean matches_not() {
+        return pattern.matches("com.redhat.devtools.intellij.kubernetes/open-editor");
+    }
+
+    @Benchmark
+    public BasicGlobPattern compile() {
+        return BasicGlobPattern.compile(glob);
+    }
+}
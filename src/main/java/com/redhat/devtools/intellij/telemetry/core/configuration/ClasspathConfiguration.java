@@ -12,9 +12,23 @@ package com.redhat.devtools.intellij.telemetry.core.configuration;
 
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * A properties file on the classpath of a given class loader.
+ * A file is only loaded once per class loader, all configurations for the same file and class loader are initialized
+ * with its properties. Each configuration gets its own copy, the loaded properties are never handed out and thus
+ * never changed. Class loaders are weakly referenced so that plugins can be unloaded.
+ */
 public class ClasspathConfiguration extends FileConfiguration {
 
+	/* synchronized since WeakHashMap isn't thread-safe, the properties are copied when they are read */
+	private static final Map<ClassLoader, Map<Path, Properties>> LOADED = Collections.synchronizedMap(new WeakHashMap<>());
+
 	private final ClassLoader classloader;
 
 	public ClasspathConfiguration(Path file) {
@@ -26,6 +40,53 @@ public class ClasspathConfiguration extends FileConfiguration {
 		this.classloader = classLoader;
 	}
 
+	@Override
+	protected Properties loadProperties() {
+		if (path == null
+				|| classloader == null) {
+			return super.loadProperties();
+		}
+		Properties loaded = LOADED.computeIfAbsent(classloader, key -> new ConcurrentHashMap<>())
+				.computeIfAbsent(path, key -> super.loadProperties());
+		Properties properties = new Properties();
+		properties.putAll(loaded);
+		return properties;
+	}
+
+	/**
+	 * Discards the properties of this file for all configurations of the same class loader.
+	 * They are loaded again when they are accessed next.
+	 */
+	@Override
+	public void reload() {
+		invalidate(classloader, path);
+		super.reload();
+	}
+
+	/**
+	 * Discards all properties files that were loaded with the given class loader.
+	 * Configurations that accessed them already keep the properties that they loaded until they are reloaded.
+	 *
+	 * @param classLoader the class loader whose files should be loaded again
+	 */
+	public static void invalidate(ClassLoader classLoader) {
+		if (classLoader == null) {
+			return;
+		}
+		LOADED.remove(classLoader);
+	}
+
+	private static void invalidate(ClassLoader classLoader, Path path) {
+		if (classLoader == null
+				|| path == null) {
+			return;
+		}
+		Map<Path, Properties> loaded = LOADED.get(classLoader);
+		if (loaded != null) {
+			loaded.remove(path);
+		}
+	}
+
 	@Override
 	protected InputStream createInputStream(Path path) {
 		if (path == null) {
@@ -13,7 +13,6 @@ package com.redhat.devtools.intellij.telemetry.core.configuration;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-import java.util.Objects;
 
 public abstract class CompositeConfiguration implements IConfiguration {
 
@@ -25,11 +24,13 @@ public abstract class CompositeConfiguration implements IConfiguration {
                 || configurations.isEmpty()) {
             return null;
         }
-        return configurations.stream()
-                .map(configuration -> configuration.get(key))
-                .filter(Objects::nonNull)
-                .findFirst()
-                .orElse(null);
+        for (int i = 0; i < configurations.size(); i++) {
+            String value = configurations.get(i).get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
     }
 
     protected abstract List<IConfiguration> getConfigurations();
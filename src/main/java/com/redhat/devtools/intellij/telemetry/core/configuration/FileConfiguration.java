@@ -42,6 +42,13 @@ public class FileConfiguration extends AbstractConfiguration {
         return properties;
     }
 
+    /**
+     * Discards the properties in memory. They are loaded from file again when they are accessed next.
+     */
+    public void reload() {
+        properties.reset();
+    }
+
     protected InputStream createInputStream(Path path) throws IOException {
         if (path == null) {
             return null;
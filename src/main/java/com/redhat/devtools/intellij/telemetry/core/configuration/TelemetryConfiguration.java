@@ -11,23 +11,47 @@
 package com.redhat.devtools.intellij.telemetry.core.configuration;
 
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.util.messages.Topic;
 import com.redhat.devtools.intellij.telemetry.core.util.Directories;
+import com.redhat.devtools.intellij.telemetry.core.util.FileWatcher;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TelemetryConfiguration extends CompositeConfiguration {
 
     public static final String KEY_MODE = "com.redhat.devtools.intellij.telemetry.mode";
-
-    private static final SaveableFileConfiguration FILE = new SaveableFileConfiguration(
-            Directories.RED_HAT.resolve("com.redhat.devtools.intellij.telemetry"));
+    public static final String KEY_QUEUE_CAPACITY = "com.redhat.devtools.intellij.telemetry.queue.capacity";
+    public static final String KEY_QUEUE_OVERFLOW = "com.redhat.devtools.intellij.telemetry.queue.overflow";
+    public static final String KEY_QUEUE_TIMEOUT = "com.redhat.devtools.intellij.telemetry.queue.timeout";
+    public static final String KEY_FLUSH_MIN_SIZE = "com.redhat.devtools.intellij.telemetry.flush.size.min";
+    public static final String KEY_FLUSH_MAX_SIZE = "com.redhat.devtools.intellij.telemetry.flush.size.max";
+    public static final String KEY_FLUSH_MIN_INTERVAL = "com.redhat.devtools.intellij.telemetry.flush.interval.min";
+    public static final String KEY_FLUSH_MAX_INTERVAL = "com.redhat.devtools.intellij.telemetry.flush.interval.max";
+    public static final String KEY_FLUSH_MAX_BYTES = "com.redhat.devtools.intellij.telemetry.flush.bytes.max";
+    public static final String KEY_AGGREGATION_WINDOW = "com.redhat.devtools.intellij.telemetry.aggregation.window";
+
+    private static final Logger LOGGER = Logger.getInstance(TelemetryConfiguration.class);
+
+    private static final Path FILE_PATH = Directories.RED_HAT.resolve("com.redhat.devtools.intellij.telemetry");
+    private static final SaveableFileConfiguration FILE = new SaveableFileConfiguration(FILE_PATH);
+    private static final SystemProperties SYSTEM_PROPERTIES = new SystemProperties();
 
     private static final TelemetryConfiguration INSTANCE = new TelemetryConfiguration();
+    /* the file is watched once the instance is first requested, not when this class is loaded */
+    private static final AtomicBoolean WATCHING = new AtomicBoolean();
+
+    /* the resolved mode, null until it is first resolved */
+    private volatile Mode mode;
 
     public static TelemetryConfiguration getInstance() {
+        if (WATCHING.compareAndSet(false, true)) {
+            INSTANCE.watch(FileWatcher.INSTANCE, FILE_PATH);
+        }
         return INSTANCE;
     }
 
@@ -39,8 +63,24 @@ public class TelemetryConfiguration extends CompositeConfiguration {
         put(KEY_MODE, mode.toString());
     }
 
+    /**
+     * Returns the mode of this configuration. The mode is resolved once and then only when it is {@link #put(String, String)}
+     * or when the configuration file changes. Changes to system properties at runtime are thus not picked up.
+     *
+     * @return the mode
+     */
     public Mode getMode() {
-        return Mode.safeValueOf(get(KEY_MODE));
+        Mode mode = this.mode;
+        if (mode == null) {
+            mode = resolveMode();
+        }
+        return mode;
+    }
+
+    private synchronized Mode resolveMode() {
+        Mode mode = Mode.safeValueOf(get(KEY_MODE));
+        this.mode = mode;
+        return mode;
     }
 
     public boolean isEnabled() {
@@ -61,10 +101,41 @@ public class TelemetryConfiguration extends CompositeConfiguration {
 
     @Override
     public void put(String key, String value) {
-        getSaveableFile().put(key, value);
+        // a concurrent reload of the file must not resolve the mode in between
+        synchronized (this) {
+            getSaveableFile().put(key, value);
+            resolveMode();
+        }
         getNotifier().configurationChanged(key, value);
     }
 
+    /**
+     * Reloads the configuration file and resolves the mode again whenever the given file changes.
+     *
+     * @param watcher the watcher to use
+     * @param file the configuration file
+     */
+    void watch(FileWatcher watcher, Path file) {
+        try {
+            watcher.watch(file, this::onFileChanged);
+        } catch (IOException e) {
+            LOGGER.warn("Could not watch telemetry configuration " + file + " for changes.", e);
+        }
+    }
+
+    private void onFileChanged() {
+        Mode previous;
+        Mode current;
+        synchronized (this) {
+            getSaveableFile().reload();
+            previous = this.mode;
+            current = resolveMode();
+        }
+        if (previous != current) {
+            getNotifier().configurationChanged(KEY_MODE, current.toString());
+        }
+    }
+
     protected ConfigurationChangedListener getNotifier() {
         return ApplicationManager.getApplication().getMessageBus()
                 .syncPublisher(ConfigurationChangedListener.CONFIGURATION_CHANGED);
@@ -73,7 +144,7 @@ public class TelemetryConfiguration extends CompositeConfiguration {
     @Override
     protected List<IConfiguration> getConfigurations() {
         return Arrays.asList(
-                new SystemProperties(),
+                SYSTEM_PROPERTIES,
                 getSaveableFile());
     }
 
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntPredicate;
+
+/**
+ * A table of daily event counts. Event names are interned to int ids, the count of an event is held in a
+ * single {@code long} that packs the (local) epoch day of the last occurrence and the total of that day.
+ * Counts are updated with compare-and-set, without locking nor allocating. Only interning a new event
+ * name is synchronized.
+ * <p>
+ * The table is persisted in a compact binary file: a header (magic, version, number of entries)
+ * followed by the name and packed count of each event.
+ */
+class EventCountTable {
+
+    private static final Logger LOGGER = Logger.getInstance(EventCountTable.class);
+
+    static final long NONE = 0;
+
+    private static final int MAGIC = 0x52484543; // "RHEC"
+    private static final short VERSION = 1;
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final long TOTAL_MASK = 0xFFFFFFFFL;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    /* chunks are never moved, the array is replaced when growing */
+    private volatile AtomicLongArray[] chunks = { new AtomicLongArray(CHUNK_SIZE) };
+    private volatile boolean modified;
+
+    /**
+     * Returns the packed count for the given event name, {@link #NONE} if there is none.
+     */
+    long get(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            return NONE;
+        }
+        return chunk(id).get(offset(id));
+    }
+
+    /**
+     * Increments the count of the given event name for the given day.
+     * The count is reset if the last occurrence was on a previous day.
+     */
+    void increment(String name, long day) {
+        tryIncrement(name, day, total -> true);
+    }
+
+    /**
+     * Increments the count of the given event name for the given day if the given predicate accepts the
+     * current total of that day. Checking and incrementing is atomic, concurrent callers thus never exceed a limit
+     * that the predicate enforces.
+     *
+     * @param name the name of the event
+     * @param day the current day
+     * @param isWithinLimit the predicate that the total of the given day has to fulfill
+     * @return {@code true} if the count was incremented
+     */
+    boolean tryIncrement(String name, long day, IntPredicate isWithinLimit) {
+        int id = intern(name);
+        AtomicLongArray chunk = chunk(id);
+        int offset = offset(id);
+        long current;
+        long next;
+        do {
+            current = chunk.get(offset);
+            int total = getDay(current) == day ? getTotal(current) : 0;
+            if (!isWithinLimit.test(total)) {
+                return false;
+            }
+            next = pack(day, total + 1);
+        } while (!chunk.compareAndSet(offset, current, next));
+        this.modified = true;
+        return true;
+    }
+
+    /**
+     * Sets the given packed count for the given event name.
+     */
+    void set(String name, long count) {
+        int id = intern(name);
+        chunk(id).set(offset(id), count);
+        this.modified = true;
+    }
+
+    /**
+     * Sets the given packed count for the given event name if it is more recent than the existing one
+     * (or has a higher total for the same day).
+     */
+    void merge(String name, long count) {
+        int id = intern(name);
+        AtomicLongArray chunk = chunk(id);
+        int offset = offset(id);
+        long current;
+        do {
+            current = chunk.get(offset);
+            if (getDay(current) > getDay(count)
+                    || (getDay(current) == getDay(count) && getTotal(current) >= getTotal(count))) {
+                return;
+            }
+        } while (!chunk.compareAndSet(offset, current, count));
+        this.modified = true;
+    }
+
+    boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Writes this table to the given file. The file is replaced atomically.
+     */
+    void save(Path file) throws IOException {
+        this.modified = false;
+        // snapshot first, events may be interned while writing and the header has to match the entries
+        List<String> names = new ArrayList<>(ids.size());
+        List<Long> counts = new ArrayList<>(ids.size());
+        for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+            int id = entry.getValue();
+            names.add(entry.getKey());
+            counts.add(chunk(id).get(offset(id)));
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                out.writeUTF(names.get(i));
+                out.writeLong(counts.get(i));
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Merges the counts in the given file into this table. Does nothing if the file doesn't exist.
+     */
+    void load(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        boolean modified = this.modified;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC
+                    || in.readShort() != VERSION) {
+                LOGGER.warn("Could not load event counts, " + file + " has an unknown format.");
+                return;
+            }
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                merge(in.readUTF(), in.readLong());
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not load event counts from " + file + ".", e);
+        }
+        // loaded counts don't need to be saved
+        this.modified = modified;
+    }
+
+    private int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            return ids.computeIfAbsent(name, key -> {
+                int next = ids.size();
+                ensureCapacity(next);
+                return next;
+            });
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        AtomicLongArray[] chunks = this.chunks;
+        int chunk = id >>> CHUNK_SHIFT;
+        if (chunk < chunks.length) {
+            return;
+        }
+        AtomicLongArray[] grown = Arrays.copyOf(chunks, chunks.length * 2);
+        for (int i = chunks.length; i < grown.length; i++) {
+            grown[i] = new AtomicLongArray(CHUNK_SIZE);
+        }
+        this.chunks = grown;
+    }
+
+    private AtomicLongArray chunk(int id) {
+        return chunks[id >>> CHUNK_SHIFT];
+    }
+
+    private static int offset(int id) {
+        return id & (CHUNK_SIZE - 1);
+    }
+
+    static long pack(long day, int total) {
+        return (day << Integer.SIZE) | (total & TOTAL_MASK);
+    }
+
+    static long getDay(long count) {
+        return count >> Integer.SIZE;
+    }
+
+    static int getTotal(long count) {
+        return (int) (count & TOTAL_MASK);
+    }
+
+    /**
+     * The current local day as number of days since the epoch.
+     * The time zone is only looked up once the day that was computed last is over.
+     */
+    static final class Today {
+
+        private static volatile Today current = new Today(System.currentTimeMillis());
+
+        private final long day;
+        private final long start;
+        private final long end;
+
+        private Today(long millis) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone);
+            this.day = date.toEpochDay();
+            this.start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            this.end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+
+        static long get() {
+            long now = System.currentTimeMillis();
+            Today today = current;
+            if (now < today.start
+                    || now >= today.end) {
+                today = new Today(now);
+                current = today;
+            }
+            return today.day;
+        }
+    }
+}
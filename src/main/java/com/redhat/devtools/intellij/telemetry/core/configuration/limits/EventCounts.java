@@ -11,27 +11,33 @@
 package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
 
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.util.text.StringUtil;
-import com.intellij.util.xmlb.XmlSerializerUtil;
 import com.redhat.devtools.intellij.telemetry.core.service.Event;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-
-import static com.redhat.devtools.intellij.telemetry.core.util.TimeUtils.isToday;
+import java.util.function.IntPredicate;
 
 /**
  * A counter that stores daily occurrences of events.
- * The state is persisted and loaded by the IDEA platform
+ * The counts are held in an {@link EventCountTable} which is saved to a binary file whenever the IDEA platform
+ * saves its settings. Counts that were persisted by previous versions in {@code eventCounts.xml} are migrated
+ * when the state is loaded.
  *
  * @see PersistentStateComponent
  */
@@ -42,24 +48,41 @@ import static com.redhat.devtools.intellij.telemetry.core.util.TimeUtils.isToday
 )
 public final class EventCounts implements PersistentStateComponent<EventCounts> {
 
+    private static final Logger LOGGER = Logger.getInstance(EventCounts.class);
+
     public static EventCounts getInstance() {
         return ApplicationManager.getApplication().getService(EventCounts.class);
     }
 
+    static final String FILE_NAME = "eventCounts.bin";
     private static final String COUNT_VALUES_SEPARATOR = ",";
 
+    private final EventCountTable table = new EventCountTable();
+    private Path file;
+
     EventCounts() {}
 
+    /* for testing purposes */
+    EventCounts(Path file) {
+        this.file = file;
+        table.load(file);
+    }
+
+    /**
+     * The counts that were persisted in {@code eventCounts.xml} by previous versions, as "epochSeconds,total".
+     * They are migrated to the binary file when loaded and are empty otherwise.
+     */
     public final Map<String, String> counts = new HashMap<>();
 
     @Override
     public EventCounts getState() {
+        save();
         return this;
     }
 
     @Override
     public void loadState(@NotNull EventCounts state) {
-        XmlSerializerUtil.copyBean(state, this);
+        migrate(state.counts);
     }
 
     @Override
@@ -70,6 +93,10 @@ public final class EventCounts implements PersistentStateComponent<EventCounts>
     @Override
     public void initializeComponent() {
         PersistentStateComponent.super.initializeComponent();
+        if (file == null) {
+            this.file = Paths.get(PathManager.getOptionsPath(), FILE_NAME);
+            table.load(file);
+        }
     }
 
     @Nullable
@@ -77,33 +104,85 @@ public final class EventCounts implements PersistentStateComponent<EventCounts>
         if (event == null) {
             return null;
         }
-        String countString = counts.get(event.getName());
-        return toCount(countString);
+        long count = table.get(getName(event));
+        if (count == EventCountTable.NONE) {
+            return null;
+        }
+        return new Count(EventCountTable.getDay(count), EventCountTable.getTotal(count));
+    }
+
+    /**
+     * Returns the number of times that the given event occurred today.
+     *
+     * @param event the event to return the daily total for
+     * @return the number of occurrences today
+     */
+    public int getDailyTotal(Event event) {
+        if (event == null) {
+            return 0;
+        }
+        long count = table.get(getName(event));
+        if (EventCountTable.getDay(count) != EventCountTable.Today.get()) {
+            return 0;
+        }
+        return EventCountTable.getTotal(count);
     }
 
     public void put(Event event) {
-        Count count = createOrUpdateCount(event);
-        put(event, count);
+        if (event == null) {
+            return;
+        }
+        table.increment(getName(event), EventCountTable.Today.get());
+    }
+
+    /**
+     * Counts the given event if the given predicate accepts the number of times that it occurred today.
+     * Checking and counting is atomic.
+     *
+     * @param event the event to count
+     * @param isWithinDailyLimit the predicate that the daily total has to fulfill
+     * @return {@code true} if the event was counted
+     */
+    public boolean tryPut(Event event, IntPredicate isWithinDailyLimit) {
+        if (event == null) {
+            return false;
+        }
+        return table.tryIncrement(getName(event), EventCountTable.Today.get(), isWithinDailyLimit);
     }
 
     EventCounts put(Event event, Count count) {
         if (event == null) {
             return this;
         }
-        counts.put(event.getName(), toString(count));
+        table.set(getName(event), EventCountTable.pack(count.lastOccurrence.toEpochDay(), count.dailyTotal));
         return this;
     }
 
-    private Count createOrUpdateCount(Event event) {
-        Count count = get(event);
-        if (count != null) {
-            // update existing
-            count = count.newOccurrence();
-        } else {
-            // create new
-            count = new Count();
+    private static String getName(Event event) {
+        return StringUtil.notNullize(event.getName());
+    }
+
+    /* for testing purposes */
+    void save() {
+        if (file == null
+                || !table.isModified()) {
+            return;
+        }
+        try {
+            table.save(file);
+        } catch (IOException e) {
+            LOGGER.warn("Could not save event counts to " + file + ".", e);
         }
-        return count;
+    }
+
+    private void migrate(Map<String, String> legacy) {
+        for (Map.Entry<String, String> entry : legacy.entrySet()) {
+            Count count = toCount(entry.getValue());
+            if (count != null) {
+                table.merge(entry.getKey(), EventCountTable.pack(count.lastOccurrence.toEpochDay(), count.dailyTotal));
+            }
+        }
+        this.counts.clear();
     }
 
     private Count toCount(String string) {
@@ -111,7 +190,13 @@ public final class EventCounts implements PersistentStateComponent<EventCounts>
             return null;
         }
         String[] split = string.split(COUNT_VALUES_SEPARATOR);
+        if (split.length < 2) {
+            return null;
+        }
         LocalDateTime lastOccurrence = toLastOccurrence(split[0]);
+        if (lastOccurrence == null) {
+            return null;
+        }
         int total = toTotal(split[1]);
         return new Count(lastOccurrence, total);
     }
@@ -133,17 +218,25 @@ public final class EventCounts implements PersistentStateComponent<EventCounts>
         }
     }
 
-    String toString(@NotNull Count count) {
-        long epochSecond = count.lastOccurrence.toEpochSecond(ZonedDateTime.now().getOffset());
-        return epochSecond + COUNT_VALUES_SEPARATOR + count.dailyTotal;
-    }
-
     public static class Count {
-        private final LocalDateTime lastOccurrence;
+        private final LocalDate lastOccurrence;
         private final int dailyTotal;
 
         Count() {
-            this(LocalDateTime.now(), 1);
+            this(LocalDate.now(), 1);
+        }
+
+        Count(LocalDateTime lastOccurrence, int dailyTotal) {
+            this(lastOccurrence.toLocalDate(), dailyTotal);
+        }
+
+        private Count(long epochDay, int dailyTotal) {
+            this(LocalDate.ofEpochDay(epochDay), dailyTotal);
+        }
+
+        private Count(LocalDate lastOccurrence, int dailyTotal) {
+            this.lastOccurrence = lastOccurrence;
+            this.dailyTotal = dailyTotal;
         }
 
         @Override
@@ -159,17 +252,23 @@ public final class EventCounts implements PersistentStateComponent<EventCounts>
             return Objects.hash(lastOccurrence, dailyTotal);
         }
 
-        Count(LocalDateTime lastOccurrence, int dailyTotal) {
-            this.lastOccurrence = lastOccurrence;
-            this.dailyTotal = dailyTotal;
+        /**
+         * Returns the start of the day of the last occurrence. Counts are kept per day, the time of the
+         * occurrence is not known.
+         */
+        public LocalDateTime getLastOccurrence() {
+            return lastOccurrence.atStartOfDay();
         }
 
-        public LocalDateTime getLastOccurrence() {
+        /**
+         * Returns the day of the last occurrence.
+         */
+        public LocalDate getLastOccurrenceDate() {
             return lastOccurrence;
         }
 
         public int getDailyTotal() {
-            if (isToday(lastOccurrence)) {
+            if (lastOccurrence.toEpochDay() == EventCountTable.Today.get()) {
                 return dailyTotal;
             } else {
                 return 0;
@@ -177,7 +276,7 @@ public final class EventCounts implements PersistentStateComponent<EventCounts>
         }
 
         public Count newOccurrence() {
-            return new Count(LocalDateTime.now(), getDailyTotal() + 1);
+            return new Count(LocalDate.now(), getDailyTotal() + 1);
         }
     }
 }
@@ -11,170 +11,209 @@
 package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
 
 import com.intellij.openapi.diagnostic.Logger;
-import com.intellij.openapi.util.text.StringUtil;
 import com.redhat.devtools.intellij.telemetry.core.service.Event;
-import com.redhat.devtools.intellij.telemetry.core.util.TimeUtils;
-import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
+import com.redhat.devtools.intellij.telemetry.core.util.FileWatcher;
 
 import java.io.IOException;
-import java.nio.file.attribute.FileTime;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
-import static com.redhat.devtools.intellij.telemetry.core.configuration.limits.EventCounts.Count;
-
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The limits that apply to the events of a plugin.
+ * The limits are held in a snapshot that is swapped atomically. The snapshot is refreshed in the background,
+ * once the refresh period of the configuration elapsed and whenever the local configuration file is changed.
+ * The snapshot and its refresh are shared by the limits of all plugins (see {@link LimitsRefresher}).
+ * Checking an event thus never touches the file system nor the network.
+ */
 public class EventLimits implements IEventLimits {
 
     private static final Logger LOGGER = Logger.getInstance(EventLimits.class);
 
-    static final Duration DEFAULT_REFRESH_PERIOD = Duration.ofHours(6);
     private final String pluginId;
-    private final PluginLimitsFactory factory;
-    private final LimitsConfigurations configuration;
     private final EventCounts counts;
-    private List<PluginLimits> limits;
+    private final LimitsRefresher refresher;
+    private final AtomicBoolean disposed = new AtomicBoolean();
 
     interface PluginLimitsFactory {
         List<PluginLimits> create(String json) throws IOException;
     }
 
     public EventLimits(String pluginId) {
-        this(pluginId, null, PluginLimitsDeserialization::create, new LimitsConfigurations(), EventCounts.getInstance());
+        this(pluginId, EventCounts.getInstance(), LimitsRefresher.acquireShared());
     }
 
+    /* for testing purposes: no background refresh */
     EventLimits(String pluginId,
                 List<PluginLimits> limits,
                 PluginLimitsFactory factory,
                 LimitsConfigurations configuration,
                 EventCounts counts) {
+        this(pluginId, limits, factory, configuration, counts, null, null);
+    }
+
+    /* for testing purposes */
+    EventLimits(String pluginId,
+                List<PluginLimits> limits,
+                PluginLimitsFactory factory,
+                LimitsConfigurations configuration,
+                EventCounts counts,
+                ScheduledExecutorService scheduler,
+                FileWatcher watcher) {
+        this(pluginId, counts, new LimitsRefresher(limits, factory, configuration, scheduler, watcher));
+        refresher.acquire();
+    }
+
+    EventLimits(String pluginId, EventCounts counts, LimitsRefresher refresher) {
         this.pluginId = pluginId;
-        this.limits = limits;
-        this.factory = factory;
-        this.configuration = configuration;
         this.counts = counts;
+        this.refresher = refresher;
     }
 
     public boolean canSend(Event event) {
-        List<PluginLimits> all = getAllLimits();
-        PluginLimits pluginLimits = getPluginLimits(pluginId, all);
-        int total = getApplicableTotal(counts.get(event));
-        if (pluginLimits != null) {
-            return pluginLimits.canSend(event, total);
-        } else {
-            PluginLimits defaultLimits = getDefaultLimits(all);
-            if (defaultLimits == null) {
-                return true;
-            }
-            return defaultLimits.canSend(event, total);
+        PluginLimits pluginLimits = refresher.get(pluginId);
+        if (pluginLimits == null) {
+            return true;
         }
+        return pluginLimits.canSend(event, counts.getDailyTotal(event));
     }
 
     public void wasSent(Event event) {
         counts.put(event);
     }
 
-    private int getApplicableTotal(Count count) {
-        if (occurredToday(count)) {
-            return count.getDailyTotal();
-        } else {
-            return 0;
-        }
+    /**
+     * Reserves the given event. The rate at which it was sampled is not attached to it,
+     * {@link #tryReserveAll(List)} returns copies of the sampled events that have it.
+     */
+    @Override
+    public boolean tryReserve(Event event) {
+        return tryReserve(event, refresher.get(pluginId)) > 0;
     }
 
-    private static boolean occurredToday(Count count) {
-        return count != null
-                && count.getLastOccurrence() != null
-                && TimeUtils.isToday(count.getLastOccurrence());
+    /**
+     * Reserves the given events looking up the limits of this plugin once for the whole batch.
+     * Events that were sampled are returned as copies with the rate that they were sampled at
+     * (see {@link Sampler#PROP_SAMPLE_RATE}), the given events are not changed.
+     *
+     * @param events the events to send
+     * @return the events that may be sent, in the given order
+     */
+    @Override
+    public List<Event> tryReserveAll(List<Event> events) {
+        PluginLimits pluginLimits = refresher.get(pluginId);
+        List<Event> reserved = new ArrayList<>(events.size());
+        for (Event event : events) {
+            float sampleRate = tryReserve(event, pluginLimits);
+            if (sampleRate > 0) {
+                reserved.add(withSampleRate(event, sampleRate));
+            }
+        }
+        return reserved;
     }
 
-
-    /* for testing purposes */
-    List<PluginLimits> getAllLimits() {
-        PluginLimits defaults = getDefaultLimits(limits);
-        Duration refreshAfter = getRefreshAfter(defaults);
-        FileTime lastModified = configuration.getLocalLastModified();
-        if (needsRefresh(refreshAfter, lastModified)) {
-            this.limits = downloadRemote(configuration, factory);
-        } else if (limits == null) {
-            this.limits = readLocal(configuration, factory);
+    private float tryReserve(Event event, PluginLimits pluginLimits) {
+        if (pluginLimits == null) {
+            counts.put(event);
+            return 1;
         }
-        return limits;
+        return pluginLimits.tryReserve(event, isWithinDailyLimit -> counts.tryPut(event, isWithinDailyLimit));
     }
 
-    private boolean needsRefresh(Duration refreshAfter, FileTime modified) {
-        if (modified == null) {
-            return true;
+    private static Event withSampleRate(Event event, float sampleRate) {
+        if (sampleRate >= 1) {
+            return event;
         }
-        LocalDateTime modificationLocalTime = LocalDateTime.ofInstant(modified.toInstant(), ZoneId.systemDefault());
-        LocalDateTime refreshAt = modificationLocalTime.plus(refreshAfter);
-        return refreshAt.isBefore(LocalDateTime.now());
+        Map<String, String> properties = event.getProperties() == null
+                ? new HashMap<>()
+                : new HashMap<>(event.getProperties());
+        properties.put(Sampler.PROP_SAMPLE_RATE, String.valueOf(sampleRate));
+        return new Event(event.getType(), event.getName(), properties);
     }
 
-    @Nullable
-    private PluginLimits getDefaultLimits(List<PluginLimits> limits) {
-        if (limits == null) {
-            return null;
+    /**
+     * Releases the shared refresh of the limits. It stops once the limits of all plugins were disposed.
+     */
+    @Override
+    public void dispose() {
+        if (disposed.compareAndSet(false, true)) {
+            refresher.release();
         }
-        return limits.stream()
-                .filter(PluginLimits::isDefault)
-                .findAny()
-                .orElse(null);
     }
 
-    @Nullable
-    private PluginLimits getPluginLimits(String pluginId, List<PluginLimits> allLimits) {
-        if (allLimits == null
-                || StringUtil.isEmptyOrSpaces(pluginId)) {
-            return null;
-        }
-        return allLimits.stream()
-                .filter(limits -> pluginId.equals(limits.getPluginId()))
-                .findAny()
-                .orElse(null);
+    public RefreshMetrics getMetrics() {
+        return refresher.getMetrics();
     }
 
-    @NotNull
-    private Duration getRefreshAfter(PluginLimits defaults) {
-        if (defaults == null
-                || defaults.getRefresh() == -1) {
-            return DEFAULT_REFRESH_PERIOD;
-        }
-        return Duration.ofHours(defaults.getRefresh());
+    /* for testing purposes */
+    void refresh() {
+        refresher.refresh();
     }
 
-    private List<PluginLimits> readLocal(LimitsConfigurations configuration, PluginLimitsFactory factory) {
-        try {
-            String config = configuration.readLocal();
-            if (StringUtil.isEmptyOrSpaces(config)) {
-                return downloadRemote(configuration, factory);
-            }
-            return factory.create(config);
-        } catch (Exception e) {
-            return downloadRemote(configuration, factory);
-        }
+    /* for testing purposes */
+    void reloadLocal() {
+        refresher.reloadLocal();
     }
 
-    @Nullable
-    private List<PluginLimits> downloadRemote(LimitsConfigurations configuration, PluginLimitsFactory factory) {
-        try {
-            String config = configuration.downloadRemote();
-            if (StringUtil.isEmptyOrSpaces(config)) {
-                return createEmbeddedLimits(configuration, factory);
-            }
-            return factory.create(config);
-        } catch (Exception e) {
-            return createEmbeddedLimits(configuration, factory);
-        }
+    /* for testing purposes */
+    List<PluginLimits> getAllLimits() {
+        return refresher.getAllLimits();
     }
 
-    private List<PluginLimits> createEmbeddedLimits(LimitsConfigurations configuration, PluginLimitsFactory factory) {
-        try {
-            return factory.create(configuration.readEmbedded());
-        } catch (IOException e) {
-            return null;
+
+    /**
+     * Metrics of the refreshes of the limits.
+     */
+    public static class RefreshMetrics {
+
+        private final LongAdder refreshes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicLong lastLatency = new AtomicLong();
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        void refreshed(long latencyNanos) {
+            refreshes.increment();
+            lastLatency.set(latencyNanos);
+            maxLatency.accumulateAndGet(latencyNanos, Math::max);
+            LOGGER.debug("Refreshed telemetry limits in " + TimeUnit.NANOSECONDS.toMillis(latencyNanos) + " ms.");
+        }
+
+        void failed() {
+            failures.increment();
+        }
+
+        /**
+         * Returns the number of refreshes of the limits.
+         */
+        public long getRefreshes() {
+            return refreshes.sum();
+        }
+
+        /**
+         * Returns the number of times that the limits could not be downloaded, read or parsed.
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Returns the latency of the last refresh in ms.
+         */
+        public long getLastLatency() {
+            return TimeUnit.NANOSECONDS.toMillis(lastLatency.get());
+        }
+
+        /**
+         * Returns the latency of the slowest refresh in ms.
+         */
+        public long getMaxLatency() {
+            return TimeUnit.NANOSECONDS.toMillis(maxLatency.get());
         }
     }
 }
@@ -23,6 +23,17 @@ public interface Filter {
 
     boolean isWithinDailyLimit(int total);
 
+    /**
+     * Returns the rate at which the given occurrence of an event was sampled or {@code 0} if it was dropped.
+     * Keeps all occurrences by default.
+     *
+     * @param event the occurrence to sample
+     * @return the sample rate, 0 if the occurrence was dropped
+     */
+    default float sample(Event event) {
+        return 1;
+    }
+
     class EventPropertyFilter implements Filter {
         private final String name;
         private final BasicGlobPattern glob;
@@ -58,14 +69,26 @@ public interface Filter {
 
         static final int DAILY_LIMIT_UNSPECIFIED = -1;
 
+        private final String pattern;
         private final BasicGlobPattern name;
         private final float ratio;
         private final int dailyLimit;
+        private final Sampler sampler;
 
         EventNameFilter(String name, float ratio, int dailyLimit) {
+            this(name, ratio, dailyLimit, Sampler.NONE);
+        }
+
+        EventNameFilter(String name, float ratio, int dailyLimit, Sampler sampler) {
+            this.pattern = name;
             this.name = BasicGlobPattern.compile(name);
             this.ratio = ratio;
             this.dailyLimit = dailyLimit;
+            this.sampler = sampler == null ? Sampler.NONE : sampler;
+        }
+
+        String getPattern() {
+            return pattern;
         }
 
         public float getRatio() {
@@ -76,9 +99,17 @@ public interface Filter {
             return dailyLimit;
         }
 
+        Sampler getSampler() {
+            return sampler;
+        }
+
         @Override
         public boolean isMatching(Event event) {
-            return name.matches(event.getName());
+            return isMatching(event.getName());
+        }
+
+        boolean isMatching(String eventName) {
+            return name.matches(eventName);
         }
 
         @Override
@@ -100,5 +131,10 @@ public interface Filter {
                 return total < dailyLimit; // at least 1 more to go
             }
         }
+
+        @Override
+        public float sample(Event event) {
+            return sampler.sample(event);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import com.redhat.devtools.intellij.telemetry.core.configuration.limits.Filter.EventNameFilter;
+import com.redhat.devtools.intellij.telemetry.core.service.Event;
+import com.redhat.devtools.intellij.telemetry.core.util.BasicGlobPatternSet;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of include- or exclude-{@link Filter}s that looks up the first filter (in configuration order)
+ * that matches a given event.
+ * <ul>
+ *     <li>event name filters with a literal name are looked up in a hash map</li>
+ *     <li>event name filters with a literal prefix followed by a wildcard ({@code prefix*}, {@code prefix**})
+ *     are looked up in a prefix trie</li>
+ *     <li>all other event name filters are matched in a single pass by a {@link BasicGlobPatternSet}</li>
+ * </ul>
+ * The filter that matches an event name only depends on the name, it is thus memoized per event name.
+ * Filters that need the whole event (ex. event property filters) are matched one after another.
+ */
+class FilterIndex {
+
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+    static final int MAX_MEMOIZED_NAMES = 1024;
+
+    private static final String GLOB_META_CHARS = "\\*?[{";
+
+    private final List<Filter> filters;
+    private final Map<String, Integer> literals = new HashMap<>();
+    private final PrefixNode prefixes = new PrefixNode();
+    private final int[] globs;
+    private final BasicGlobPatternSet globPatterns;
+    private final int[] eventFilters;
+    private final int nameFilters;
+    private final Map<String, Integer> memoized = new ConcurrentHashMap<>();
+
+    FilterIndex(List<Filter> filters) {
+        this.filters = filters == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(filters));
+        List<Integer> globs = new ArrayList<>();
+        List<String> globPatterns = new ArrayList<>();
+        List<Integer> eventFilters = new ArrayList<>();
+        for (int i = 0; i < this.filters.size(); i++) {
+            Filter filter = this.filters.get(i);
+            String pattern = getNamePattern(filter);
+            if (pattern == null) {
+                eventFilters.add(i);
+            } else if (!index(pattern, i)) {
+                globs.add(i);
+                globPatterns.add(pattern);
+            }
+        }
+        this.globs = toArray(globs);
+        this.globPatterns = BasicGlobPatternSet.compile(globPatterns);
+        this.eventFilters = toArray(eventFilters);
+        this.nameFilters = this.filters.size() - eventFilters.size();
+    }
+
+    /**
+     * Returns the first filter that matches the given event, {@code null} if none matches.
+     *
+     * @param event the event to match
+     * @return the first filter that matches
+     */
+    @Nullable
+    Filter getMatching(Event event) {
+        if (filters.isEmpty()) {
+            return null;
+        }
+        int nameMatch = getNameMatch(event.getName());
+        for (int index : eventFilters) {
+            if (index > nameMatch) {
+                break;
+            }
+            Filter filter = filters.get(index);
+            if (filter.isMatching(event)) {
+                return filter;
+            }
+        }
+        if (nameMatch == NO_MATCH) {
+            return null;
+        }
+        return filters.get(nameMatch);
+    }
+
+    List<Filter> getFilters() {
+        return filters;
+    }
+
+    private int getNameMatch(String name) {
+        if (nameFilters == 0
+                || name == null
+                || name.isEmpty()) {
+            // glob patterns never match empty names
+            return NO_MATCH;
+        }
+        Integer match = memoized.get(name);
+        if (match == null) {
+            match = computeNameMatch(name);
+            if (memoized.size() >= MAX_MEMOIZED_NAMES) {
+                memoized.clear();
+            }
+            memoized.put(name, match);
+        }
+        return match;
+    }
+
+    private int computeNameMatch(String name) {
+        int match = Math.min(
+                literals.getOrDefault(name, NO_MATCH),
+                prefixes.find(name));
+        if (globs.length == 0
+                || globs[0] > match) {
+            return match;
+        }
+        int glob = globPatterns.getFirstMatch(name);
+        if (glob == BasicGlobPatternSet.NO_MATCH) {
+            return match;
+        }
+        return Math.min(match, globs[glob]);
+    }
+
+    /**
+     * Adds the given pattern to the literals or prefixes.
+     * Returns {@code false} if the pattern is neither a literal nor a literal prefix followed by a wildcard.
+     */
+    private boolean index(String pattern, int index) {
+        if (isLiteral(pattern, pattern.length())) {
+            literals.putIfAbsent(pattern, index);
+            return true;
+        }
+        if (pattern.endsWith("**")
+                && isLiteral(pattern, pattern.length() - 2)) {
+            prefixes.add(pattern, pattern.length() - 2, index, true);
+            return true;
+        }
+        if (pattern.endsWith("*")
+                && isLiteral(pattern, pattern.length() - 1)) {
+            prefixes.add(pattern, pattern.length() - 1, index, false);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isLiteral(String pattern, int length) {
+        for (int i = 0; i < length; i++) {
+            if (GLOB_META_CHARS.indexOf(pattern.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the pattern of the given filter if it only matches event names, {@code null} otherwise.
+     */
+    private static String getNamePattern(Filter filter) {
+        if (filter == null
+                // subclasses may match differently
+                || filter.getClass() != EventNameFilter.class) {
+            return null;
+        }
+        return ((EventNameFilter) filter).getPattern();
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * A node in a trie of literal prefixes. A node holds the (lowest) index of the filter whose prefix ends at it.
+     * Single wildcards ({@code *}) don't cross name separators ({@code /}), double wildcards ({@code **}) do.
+     */
+    private static class PrefixNode {
+        private final Map<Character, PrefixNode> children = new HashMap<>();
+        private int wildcard = NO_MATCH;
+        private int doubleWildcard = NO_MATCH;
+
+        private void add(String pattern, int length, int index, boolean crossesSeparators) {
+            PrefixNode node = this;
+            for (int i = 0; i < length; i++) {
+                node = node.children.computeIfAbsent(pattern.charAt(i), key -> new PrefixNode());
+            }
+            if (crossesSeparators) {
+                node.doubleWildcard = Math.min(node.doubleWildcard, index);
+            } else {
+                node.wildcard = Math.min(node.wildcard, index);
+            }
+        }
+
+        private int find(String name) {
+            int lastSeparator = name.lastIndexOf('/');
+            int match = NO_MATCH;
+            PrefixNode node = this;
+            for (int depth = 0; node != null; depth++) {
+                match = Math.min(match, node.doubleWildcard);
+                if (depth > lastSeparator) {
+                    // remainder of the name has no separator
+                    match = Math.min(match, node.wildcard);
+                }
+                if (depth == name.length()) {
+                    break;
+                }
+                node = node.children.get(name.charAt(depth));
+            }
+            return match;
+        }
+    }
+}
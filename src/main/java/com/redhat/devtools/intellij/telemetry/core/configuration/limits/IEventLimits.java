@@ -12,9 +12,54 @@ package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
 
 import com.redhat.devtools.intellij.telemetry.core.service.Event;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface IEventLimits {
 
     boolean canSend(Event event);
     void wasSent(Event event);
 
+    /**
+     * Returns {@code true} and counts the given event as sent if the limits allow sending it.
+     * Unlike {@link #canSend(Event)} followed by {@link #wasSent(Event)}, checking the daily limit and counting the
+     * event is atomic, concurrent senders thus never exceed the daily limit.
+     * The default implementation checks and counts the event non-atomically with {@link #canSend(Event)}
+     * and {@link #wasSent(Event)}.
+     *
+     * @param event the event to send
+     * @return true if the event may be sent
+     */
+    default boolean tryReserve(Event event) {
+        if (!canSend(event)) {
+            return false;
+        }
+        wasSent(event);
+        return true;
+    }
+
+    /**
+     * Reserves each of the given events as in {@link #tryReserve(Event)} and returns the ones that the limits allow sending.
+     * Implementations may look up the limits once for the whole batch.
+     *
+     * @param events the events to send
+     * @return the events that may be sent, in the given order
+     */
+    default List<Event> tryReserveAll(List<Event> events) {
+        List<Event> reserved = new ArrayList<>(events.size());
+        for (Event event : events) {
+            if (tryReserve(event)) {
+                reserved.add(event);
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * Releases the resources of these limits, ex. stops refreshing them. Does nothing by default.
+     */
+    default void dispose() {
+        // nothing to release
+    }
+
 }
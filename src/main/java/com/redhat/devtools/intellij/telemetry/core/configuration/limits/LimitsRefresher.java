@@ -0,0 +1,411 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.redhat.devtools.intellij.telemetry.core.configuration.limits.EventLimits.PluginLimitsFactory;
+import com.redhat.devtools.intellij.telemetry.core.configuration.limits.EventLimits.RefreshMetrics;
+import com.redhat.devtools.intellij.telemetry.core.util.FileWatcher;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The limits of all plugins, held in a snapshot that is swapped atomically. The snapshot is refreshed in the
+ * background, once the refresh period of the configuration elapsed and whenever the local configuration file is changed.
+ * The {@link EventLimits} of all plugins share a single instance so that the configuration is downloaded and watched
+ * only once. Refreshing stops once all of them were disposed.
+ */
+class LimitsRefresher {
+
+    private static final Logger LOGGER = Logger.getInstance(LimitsRefresher.class);
+
+    static final Duration DEFAULT_REFRESH_PERIOD = Duration.ofHours(6);
+    /* delay before retrying if the configuration could not be downloaded or is still outdated */
+    static final Duration RETRY_PERIOD = Duration.ofMinutes(15);
+    private static final Duration MIN_REFRESH_DELAY = Duration.ofMinutes(1);
+
+    private static final Object SHARED_LOCK = new Object();
+    private static LimitsRefresher shared;
+
+    private final PluginLimitsFactory factory;
+    private final LimitsConfigurations configuration;
+    private final ScheduledExecutorService scheduler;
+    private final FileWatcher watcher;
+    private final RefreshMetrics metrics = new RefreshMetrics();
+    private final Object refreshLock = new Object();
+    private volatile LimitsIndex snapshot;
+    private volatile FileTime loadedModified;
+    private ScheduledFuture<?> refresh;
+    private FileWatcher.Watch watch;
+    private int users;
+    private volatile boolean disposed;
+
+    /**
+     * Returns the refresher that all plugins share and registers the caller as one of its users.
+     * A new one is created if the previous one was released by all its users.
+     *
+     * @return the shared refresher
+     */
+    static LimitsRefresher acquireShared() {
+        synchronized (SHARED_LOCK) {
+            if (shared == null
+                    || !shared.acquire()) {
+                shared = new LimitsRefresher(
+                        null,
+                        PluginLimitsDeserialization::create,
+                        new LimitsConfigurations(),
+                        AppExecutorUtil.getAppScheduledExecutorService(),
+                        FileWatcher.INSTANCE);
+                shared.acquire();
+            }
+            return shared;
+        }
+    }
+
+    LimitsRefresher(List<PluginLimits> limits,
+                    PluginLimitsFactory factory,
+                    LimitsConfigurations configuration,
+                    ScheduledExecutorService scheduler,
+                    FileWatcher watcher) {
+        this.factory = factory;
+        this.configuration = configuration;
+        this.scheduler = scheduler;
+        this.watcher = watcher;
+        if (limits != null) {
+            this.snapshot = new LimitsIndex(limits);
+        }
+    }
+
+    /**
+     * Registers a user of this refresher.
+     *
+     * @return {@code false} if this refresher was released by all its users already
+     */
+    boolean acquire() {
+        synchronized (refreshLock) {
+            if (disposed) {
+                return false;
+            }
+            users++;
+            return true;
+        }
+    }
+
+    /**
+     * Unregisters a user of this refresher. Stops refreshing the limits once there are no users left.
+     */
+    void release() {
+        synchronized (refreshLock) {
+            if (disposed
+                    || --users > 0) {
+                return;
+            }
+            this.disposed = true;
+            if (refresh != null) {
+                refresh.cancel(false);
+            }
+            if (watch != null) {
+                watch.cancel();
+            }
+        }
+    }
+
+    /**
+     * Returns the limits of the given plugin, the default limits if there are none for it.
+     * Loads the limits if they were not loaded yet.
+     *
+     * @param pluginId the id of the plugin
+     * @return the limits of the given plugin
+     */
+    @Nullable
+    PluginLimits get(String pluginId) {
+        return getSnapshot().get(pluginId);
+    }
+
+    RefreshMetrics getMetrics() {
+        return metrics;
+    }
+
+    private LimitsIndex getSnapshot() {
+        LimitsIndex snapshot = this.snapshot;
+        if (snapshot == null) {
+            snapshot = initialize();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Loads the local (or embedded) limits in the calling thread and starts refreshing them in the background.
+     * Downloading the remote limits is left to the background refresh.
+     */
+    private LimitsIndex initialize() {
+        synchronized (refreshLock) {
+            if (snapshot == null) {
+                this.loadedModified = configuration.getLocalLastModified();
+                this.snapshot = new LimitsIndex(readLocalOrEmbedded(configuration, factory));
+                start();
+            }
+            return snapshot;
+        }
+    }
+
+    private void start() {
+        if (scheduler == null) {
+            return;
+        }
+        if (watcher != null) {
+            try {
+                this.watch = watcher.watch(LimitsConfigurations.LOCAL, () -> scheduler.execute(this::reloadLocal));
+            } catch (IOException e) {
+                LOGGER.warn("Could not watch limits configuration " + LimitsConfigurations.LOCAL + " for changes.", e);
+            }
+        }
+        schedule(Duration.ZERO);
+    }
+
+    /**
+     * Downloads the remote configuration if the local one is outdated and schedules the next refresh.
+     * The download happens outside of the lock, only swapping the snapshot and scheduling are locked.
+     */
+    /* for testing purposes */
+    void refresh() {
+        if (disposed) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            getAllLimits();
+            metrics.refreshed(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            metrics.failed();
+            LOGGER.warn("Could not refresh telemetry limits.", e);
+        }
+        Duration delay = getRefreshDelay();
+        synchronized (refreshLock) {
+            schedule(delay);
+        }
+    }
+
+    /**
+     * Reloads the local configuration file if it changed since it was loaded.
+     */
+    /* for testing purposes */
+    void reloadLocal() {
+        FileTime modified = configuration.getLocalLastModified();
+        if (disposed
+                || modified == null // deleted, will be downloaded by the next refresh
+                || modified.equals(loadedModified)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            String config = configuration.readLocal();
+            if (StringUtil.isEmptyOrSpaces(config)) {
+                // file is being written
+                return;
+            }
+            swap(factory.create(config), modified);
+            metrics.refreshed(System.nanoTime() - start);
+        } catch (Exception e) {
+            metrics.failed();
+            LOGGER.warn("Could not reload telemetry limits from " + LimitsConfigurations.LOCAL + ".", e);
+        }
+    }
+
+    private void schedule(Duration delay) {
+        if (disposed
+                || scheduler == null) {
+            return;
+        }
+        this.refresh = scheduler.schedule(this::refresh, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the delay until the local configuration is outdated. Returns the retry period if there's no local
+     * configuration or if it is outdated already, which is the case if the download failed or didn't change it.
+     */
+    private Duration getRefreshDelay() {
+        FileTime modified = configuration.getLocalLastModified();
+        if (modified == null) {
+            return RETRY_PERIOD;
+        }
+        LimitsIndex snapshot = this.snapshot;
+        Duration refreshAfter = getRefreshAfter(snapshot == null ? null : snapshot.defaults);
+        Duration delay = Duration.ofMillis(modified.toMillis() + refreshAfter.toMillis() - System.currentTimeMillis());
+        if (delay.isNegative()
+                || delay.isZero()) {
+            return RETRY_PERIOD;
+        }
+        if (delay.compareTo(MIN_REFRESH_DELAY) < 0) {
+            return MIN_REFRESH_DELAY;
+        }
+        return delay;
+    }
+
+    /**
+     * Downloads the remote configuration if the local one is outdated, reads the local one if no configuration
+     * was loaded yet. Swaps the snapshot with the configuration that was loaded.
+     */
+    /* for testing purposes */
+    List<PluginLimits> getAllLimits() {
+        LimitsIndex current = this.snapshot;
+        List<PluginLimits> limits = current == null ? null : current.limits;
+        PluginLimits defaults = getDefaultLimits(limits);
+        Duration refreshAfter = getRefreshAfter(defaults);
+        FileTime lastModified = configuration.getLocalLastModified();
+        if (needsRefresh(refreshAfter, lastModified)) {
+            limits = downloadRemote(configuration, factory);
+            swap(limits, configuration.getLocalLastModified());
+        } else if (limits == null) {
+            limits = readLocal(configuration, factory);
+            swap(limits, lastModified);
+        }
+        return limits;
+    }
+
+    private void swap(List<PluginLimits> limits, FileTime modified) {
+        synchronized (refreshLock) {
+            this.snapshot = new LimitsIndex(limits);
+            this.loadedModified = modified;
+        }
+    }
+
+    private boolean needsRefresh(Duration refreshAfter, FileTime modified) {
+        if (modified == null) {
+            return true;
+        }
+        LocalDateTime modificationLocalTime = LocalDateTime.ofInstant(modified.toInstant(), ZoneId.systemDefault());
+        LocalDateTime refreshAt = modificationLocalTime.plus(refreshAfter);
+        return refreshAt.isBefore(LocalDateTime.now());
+    }
+
+    @Nullable
+    private PluginLimits getDefaultLimits(List<PluginLimits> limits) {
+        if (limits == null) {
+            return null;
+        }
+        return limits.stream()
+                .filter(PluginLimits::isDefault)
+                .findAny()
+                .orElse(null);
+    }
+
+    @NotNull
+    private Duration getRefreshAfter(PluginLimits defaults) {
+        if (defaults == null
+                || defaults.getRefresh() == -1) {
+            return DEFAULT_REFRESH_PERIOD;
+        }
+        return Duration.ofHours(defaults.getRefresh());
+    }
+
+    private List<PluginLimits> readLocalOrEmbedded(LimitsConfigurations configuration, PluginLimitsFactory factory) {
+        try {
+            String config = configuration.readLocal();
+            if (!StringUtil.isEmptyOrSpaces(config)) {
+                return factory.create(config);
+            }
+        } catch (Exception e) {
+            metrics.failed();
+            LOGGER.warn("Could not read telemetry limits from " + LimitsConfigurations.LOCAL + ".", e);
+        }
+        return createEmbeddedLimits(configuration, factory);
+    }
+
+    private List<PluginLimits> readLocal(LimitsConfigurations configuration, PluginLimitsFactory factory) {
+        try {
+            String config = configuration.readLocal();
+            if (StringUtil.isEmptyOrSpaces(config)) {
+                return downloadRemote(configuration, factory);
+            }
+            return factory.create(config);
+        } catch (Exception e) {
+            metrics.failed();
+            return downloadRemote(configuration, factory);
+        }
+    }
+
+    @Nullable
+    private List<PluginLimits> downloadRemote(LimitsConfigurations configuration, PluginLimitsFactory factory) {
+        try {
+            String config = configuration.downloadRemote();
+            if (StringUtil.isEmptyOrSpaces(config)) {
+                metrics.failed();
+                return createEmbeddedLimits(configuration, factory);
+            }
+            return factory.create(config);
+        } catch (Exception e) {
+            metrics.failed();
+            return createEmbeddedLimits(configuration, factory);
+        }
+    }
+
+    private List<PluginLimits> createEmbeddedLimits(LimitsConfigurations configuration, PluginLimitsFactory factory) {
+        try {
+            return factory.create(configuration.readEmbedded());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The plugin limits of a configuration indexed by plugin id.
+     */
+    private static final class LimitsIndex {
+
+        private final List<PluginLimits> limits;
+        private final Map<String, PluginLimits> byPluginId = new HashMap<>();
+        private final PluginLimits defaults;
+
+        private LimitsIndex(List<PluginLimits> limits) {
+            this.limits = limits;
+            PluginLimits defaults = null;
+            if (limits != null) {
+                for (PluginLimits pluginLimits : limits) {
+                    if (pluginLimits.isDefault()) {
+                        if (defaults == null) {
+                            defaults = pluginLimits;
+                        }
+                    } else if (pluginLimits.getPluginId() != null) {
+                        byPluginId.putIfAbsent(pluginLimits.getPluginId(), pluginLimits);
+                    }
+                }
+            }
+            this.defaults = defaults;
+        }
+
+        @Nullable
+        private PluginLimits get(String pluginId) {
+            PluginLimits pluginLimits = null;
+            if (!StringUtil.isEmptyOrSpaces(pluginId)) {
+                pluginLimits = byPluginId.get(pluginId);
+            }
+            if (pluginLimits == null) {
+                return defaults;
+            }
+            return pluginLimits;
+        }
+    }
+}
@@ -14,14 +14,15 @@ import com.redhat.devtools.intellij.telemetry.core.service.Event;
 import com.redhat.devtools.intellij.telemetry.core.service.UserId;
 
 import java.util.List;
+import java.util.function.IntPredicate;
 
 public class PluginLimits {
     private final String pluginId;
     private final Enabled enabled;
     private final int refresh;
     private final float ratio;
-    private final List<Filter> includes;
-    private final List<Filter> excludes;
+    private final FilterIndex includes;
+    private final FilterIndex excludes;
     private final UserId userId;
 
     PluginLimits(String pluginId, Enabled enabled, int refresh, float ratio, List<Filter> includes, List<Filter> excludes) {
@@ -33,8 +34,8 @@ public class PluginLimits {
         this.enabled = enabled;
         this.refresh = refresh;
         this.ratio = ratio;
-        this.includes = includes;
-        this.excludes = excludes;
+        this.includes = new FilterIndex(includes);
+        this.excludes = new FilterIndex(excludes);
         this.userId = userId;
     }
 
@@ -58,7 +59,53 @@ public class PluginLimits {
         return ratio;
     }
 
+    /**
+     * Returns {@code true} if the limits allow the given event given the current daily total of it.
+     * The event is not sampled, checking it has no side effects.
+     *
+     * @param event the event to check
+     * @param currentTotal the number of times the event was sent today
+     * @return true if the event can be sent
+     */
     public boolean canSend(Event event, int currentTotal) {
+        if (!isAllowed(event)) {
+            return false;
+        }
+        Filter matching = includes.getMatching(event);
+        return matching == null
+                || matching.isWithinDailyLimit(currentTotal);
+    }
+
+    /**
+     * Returns the rate at which the given event was sampled if it can be sent and the given reservation succeeded,
+     * {@code 0} otherwise. The reservation is only attempted once all other limits allow the event and is given the
+     * daily limit of the include filter that matches the event. The event is sampled by the include filter
+     * that matches it. The event is not changed, attaching the rate is left to the caller.
+     *
+     * @param event the event to check
+     * @param reservation the reservation that checks the daily limit and counts the event
+     * @return the sample rate, 0 if the event cannot be sent
+     */
+    float tryReserve(Event event, Reservation reservation) {
+        if (!isAllowed(event)) {
+            return 0;
+        }
+        Filter matching = includes.getMatching(event);
+        if (matching == null) {
+            return reservation.reserve(total -> true) ? 1 : 0;
+        }
+        float sampleRate = matching.sample(event);
+        if (sampleRate <= 0
+                || !reservation.reserve(matching::isWithinDailyLimit)) {
+            return 0;
+        }
+        return sampleRate;
+    }
+
+    /**
+     * Returns {@code true} if all the limits but the daily limit and sampling allow the given event.
+     */
+    private boolean isAllowed(Event event) {
         if (event == null) {
             return false;
         }
@@ -71,8 +118,12 @@ public class PluginLimits {
             return false;
         }
 
-        return isIncluded(event, currentTotal)
-                && !isExcluded(event);
+        Filter matching = includes.getMatching(event);
+        if (matching != null
+                && !matching.isIncludedByRatio(userId.getPercentile())) {
+            return false;
+        }
+        return !isExcluded(event);
     }
 
     private boolean isInRatio() {
@@ -96,30 +147,31 @@ public class PluginLimits {
     }
 
     List<Filter> getIncludes() {
-        return includes;
+        return includes.getFilters();
     }
 
     boolean isIncluded(Event event, int currentTotal) {
-        Filter matching = includes.stream()
-                .filter(filter -> filter.isMatching(event))
-                .findAny()
-                .orElse(null);
+        Filter matching = includes.getMatching(event);
         return matching == null ||
                 (matching.isIncludedByRatio(userId.getPercentile())
                         && matching.isWithinDailyLimit(currentTotal));
     }
 
     boolean isExcluded(Event event) {
-        Filter matching = excludes.stream()
-                .filter(filter -> filter.isMatching(event))
-                .findAny()
-                .orElse(null);
+        Filter matching = excludes.getMatching(event);
         return matching != null
                 && matching.isExcludedByRatio(userId.getPercentile());
     }
 
     List<Filter> getExcludes() {
-        return excludes;
+        return excludes.getFilters();
+    }
+
+    /**
+     * Reserves an event if its daily total is within the daily limit.
+     */
+    interface Reservation {
+        boolean reserve(IntPredicate isWithinDailyLimit);
     }
 
 }
\ No newline at end of file
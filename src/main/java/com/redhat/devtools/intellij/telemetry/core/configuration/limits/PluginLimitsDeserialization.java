@@ -46,6 +46,8 @@ class PluginLimitsDeserialization extends StdDeserializer<List<PluginLimits>> {
     public static final String FIELDNAME_VALUE = "value";
     public static final String FIELDNAME_DAILY_LIMIT = "dailyLimit";
     public static final String FIELDNAME_NAME = "name";
+    public static final String FIELDNAME_SAMPLE_RATE = "sampleRate";
+    public static final String FIELDNAME_RESERVOIR = "reservoir";
 
     public static final int DEFAULT_NUMERIC_VALUE = -1;
 
@@ -134,7 +136,23 @@ class PluginLimitsDeserialization extends StdDeserializer<List<PluginLimits>> {
         String name = getStringValue(FIELDNAME_NAME, node);
         float ratio = getRatio(node.get(FIELDNAME_RATIO));
         int dailyLimit = getIntValue(FIELDNAME_DAILY_LIMIT, node);
-        return new EventNameFilter(name, ratio, dailyLimit);
+        Sampler sampler = getSampler(node);
+        return new EventNameFilter(name, ratio, dailyLimit, sampler);
+    }
+
+    /**
+     * Returns the sampler for the given filter: a reservoir if a reservoir size is given,
+     * probabilistic if a sample rate is given, none otherwise.
+     */
+    private static Sampler getSampler(JsonNode node) {
+        int reservoir = getIntValue(FIELDNAME_RESERVOIR, node);
+        if (reservoir > 0) {
+            return Sampler.reservoir(reservoir);
+        }
+        if (node.has(FIELDNAME_SAMPLE_RATE)) {
+            return Sampler.probabilistic(getRatio(node.get(FIELDNAME_SAMPLE_RATE)));
+        }
+        return Sampler.NONE;
     }
 
     private EventPropertyFilter createEventPropertyFilter(JsonNode node) {
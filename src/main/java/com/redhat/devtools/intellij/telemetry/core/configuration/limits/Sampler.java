@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import com.redhat.devtools.intellij.telemetry.core.service.Event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples the occurrences of an event. Unlike the ratio of a {@link Filter}, which includes or excludes all
+ * events of a user, a sampler decides for each occurrence. The decisions are random,
+ * taken with the {@link ThreadLocalRandom} of the calling thread.
+ * <p>
+ * The rate at which an occurrence was sampled is attached to it (see {@link #PROP_SAMPLE_RATE})
+ * so that the backend can weigh it accordingly.
+ */
+abstract class Sampler {
+
+    static final String PROP_SAMPLE_RATE = "sample_rate";
+
+    /** keeps all occurrences */
+    static final Sampler NONE = new Sampler() {
+        @Override
+        float sample(Event event) {
+            return 1;
+        }
+    };
+
+    /**
+     * Returns a sampler that keeps each occurrence with the given probability.
+     *
+     * @param rate the probability to keep an occurrence, in (0, 1]
+     * @return the sampler
+     */
+    static Sampler probabilistic(float rate) {
+        if (rate >= 1) {
+            return NONE;
+        }
+        return new Probabilistic(rate);
+    }
+
+    /**
+     * Returns a sampler that keeps a sample of the given size of the occurrences of each event name
+     * (see {@link Reservoir}).
+     *
+     * @param size the size of the reservoir
+     * @return the sampler
+     */
+    static Sampler reservoir(int size) {
+        if (size <= 0) {
+            return NONE;
+        }
+        return new Reservoir(size);
+    }
+
+    /**
+     * Returns the rate at which the given occurrence was sampled or {@code 0} if it was dropped.
+     *
+     * @param event the occurrence to sample
+     * @return the sample rate, 0 if the occurrence was dropped
+     */
+    abstract float sample(Event event);
+
+    private static class Probabilistic extends Sampler {
+
+        private final float rate;
+
+        private Probabilistic(float rate) {
+            this.rate = Math.max(0, rate);
+        }
+
+        @Override
+        float sample(Event event) {
+            if (ThreadLocalRandom.current().nextFloat() < rate) {
+                return rate;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Samples the occurrences of each event name as reservoir sampling (algorithm R) would: the first occurrences
+     * up to the size of the reservoir are kept, the n-th occurrence after that is kept with a probability
+     * of size / n. Occurrences can't be taken back once they were sent, the kept ones are thus not replaced
+     * as they would be in a true reservoir, but sent right away. The number of kept occurrences thus only grows
+     * logarithmically with the number of occurrences.
+     * <p>
+     * The occurrences are counted per session, the counts start over whenever the limits are loaded.
+     */
+    private static class Reservoir extends Sampler {
+
+        private final int size;
+        private final Map<String, AtomicLong> occurrences = new ConcurrentHashMap<>();
+
+        private Reservoir(int size) {
+            this.size = size;
+        }
+
+        @Override
+        float sample(Event event) {
+            String name = String.valueOf(event.getName());
+            long occurrence = occurrences.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+            if (occurrence <= size) {
+                return 1;
+            }
+            float rate = (float) size / occurrence;
+            if (ThreadLocalRandom.current().nextFloat() < rate) {
+                return rate;
+            }
+            return 0;
+        }
+    }
+}
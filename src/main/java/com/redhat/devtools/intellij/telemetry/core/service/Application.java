@@ -22,6 +22,7 @@ public class Application {
     private final String name;
     private final String version;
     private final Map<String, String> properties = new HashMap<>();
+    private volatile int modifications;
 
     Application(String name, String version) {
         this.name = name;
@@ -38,9 +39,18 @@ public class Application {
 
     public Application property(String key, String value) {
         this.properties.put(key, value);
+        this.modifications++;
         return this;
     }
 
+    /**
+     * Returns the number of times that a property was set.
+     * Allows to detect changes of the properties without comparing them.
+     */
+    public int getModificationCount() {
+        return modifications;
+    }
+
     public Collection<AbstractMap.SimpleEntry<String, Object>> getProperties() {
         return properties.entrySet().stream()
                 .map(entry -> new AbstractMap.SimpleEntry<String, Object>(entry.getKey(), entry.getValue()))
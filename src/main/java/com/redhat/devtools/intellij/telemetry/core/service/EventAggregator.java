@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.redhat.devtools.intellij.telemetry.core.service.Event.Type;
+import com.redhat.devtools.intellij.telemetry.core.service.TelemetryMessageBuilder.ActionMessage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Folds the repeats of identical error events that occur within a time window into a single event.
+ * Events are identical if they have the same type, name and properties, the duration aside. The error
+ * is part of the properties and was anonymized already. The first occurrence of an error is sent right away and
+ * starts a window, the repeats within it are folded. Once the window is over, the repeats are handed to the given
+ * consumer, with the number of repeats and the time of the first and last one if it repeated more than once.
+ * Nothing is handed over if the error didn't repeat.
+ * <p>
+ * Events without an error are passed through, so are errors once the maximum number of pending
+ * errors is reached. A {@link Type#SHUTDOWN} event flushes all pending repeats ahead of it.
+ */
+class EventAggregator {
+
+    private static final Logger LOGGER = Logger.getInstance(EventAggregator.class);
+
+    static final long DEFAULT_WINDOW = 10_000; // ms
+    static final int DEFAULT_MAX_PENDING = 100;
+
+    static final String PROP_COUNT = "count";
+    static final String PROP_FIRST_OCCURRENCE = "first_occurrence";
+    static final String PROP_LAST_OCCURRENCE = "last_occurrence";
+
+    private final long window;
+    private final int maxPending;
+    private final Supplier<ScheduledExecutorService> scheduler;
+    private final LongSupplier clock;
+    private final Consumer<List<Event>> expired;
+    /* in the order of the first occurrences, thus in the order in which the windows end */
+    private final Map<Key, Aggregate> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> timer;
+    private boolean disposed;
+
+    /**
+     * Creates an aggregator that folds errors within the given window.
+     * Aggregation is disabled if the window is 0 or negative.
+     *
+     * @param window the time window in ms
+     * @param maxPending the maximum number of distinct errors that are aggregated at a time
+     * @param scheduler the scheduler that ends the windows, only requested once there's an error
+     * @param clock the clock that returns the current time in ms
+     * @param expired the consumer of the events whose window is over
+     */
+    EventAggregator(long window, int maxPending, Supplier<ScheduledExecutorService> scheduler, LongSupplier clock, Consumer<List<Event>> expired) {
+        this.window = window;
+        this.maxPending = Math.max(1, maxPending);
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.expired = expired;
+    }
+
+    /**
+     * Folds the repeated errors among the given events into the pending ones and returns the events that should be
+     * sent right away, in the given order.
+     *
+     * @param events the events to fold
+     * @return the events to send
+     */
+    List<Event> fold(List<Event> events) {
+        if (window <= 0) {
+            return events;
+        }
+        List<Event> toSend = new ArrayList<>(events.size());
+        synchronized (this) {
+            long now = clock.getAsLong();
+            for (Event event : events) {
+                if (event.getType() == Type.SHUTDOWN) {
+                    drainTo(toSend);
+                    toSend.add(event);
+                } else if (disposed
+                        || !event.hasError()
+                        || !add(event, now, toSend)) {
+                    toSend.add(event);
+                }
+            }
+        }
+        return toSend;
+    }
+
+    /**
+     * Returns the repeats of all pending errors, whether their window is over or not.
+     *
+     * @return the repeated errors
+     */
+    synchronized List<Event> drain() {
+        List<Event> events = new ArrayList<>(pending.size());
+        drainTo(events);
+        return events;
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Stops ending windows. Pending repeats are discarded, they should be drained beforehand.
+     */
+    synchronized void dispose() {
+        this.disposed = true;
+        pending.clear();
+        cancelTimer();
+    }
+
+    private boolean add(Event event, long now, List<Event> toSend) {
+        Key key = new Key(event);
+        Aggregate aggregate = pending.get(key);
+        if (aggregate != null) {
+            aggregate.add(event, now);
+            return true;
+        }
+        if (pending.size() >= maxPending) {
+            return false;
+        }
+        pending.put(key, new Aggregate(now));
+        if (timer == null) {
+            schedule(window);
+        }
+        // the first occurrence is not held
+        toSend.add(event);
+        return true;
+    }
+
+    private void drainTo(List<Event> events) {
+        pending.values().forEach(aggregate -> aggregate.drainTo(events));
+        pending.clear();
+        cancelTimer();
+    }
+
+    private void onWindowEnd() {
+        List<Event> events = new ArrayList<>();
+        synchronized (this) {
+            this.timer = null;
+            if (disposed) {
+                return;
+            }
+            long now = clock.getAsLong();
+            Iterator<Aggregate> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                Aggregate aggregate = iterator.next();
+                long remaining = aggregate.first + window - now;
+                if (remaining > 0) {
+                    schedule(remaining);
+                    break;
+                }
+                aggregate.drainTo(events);
+                iterator.remove();
+            }
+        }
+        if (!events.isEmpty()) {
+            expired.accept(events);
+        }
+    }
+
+    private void schedule(long delay) {
+        try {
+            this.timer = scheduler.get().schedule(this::onWindowEnd, delay, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not schedule the end of the error aggregation window.", e);
+        }
+    }
+
+    private void cancelTimer() {
+        if (timer != null) {
+            timer.cancel(false);
+            this.timer = null;
+        }
+    }
+
+    /**
+     * The identity of an error: the type, the name and the properties of the event, the duration aside.
+     */
+    private static class Key {
+
+        private final Type type;
+        private final String name;
+        private final Map<String, String> properties;
+        private final int hashCode;
+
+        private Key(Event event) {
+            this.type = event.getType();
+            this.name = event.getName();
+            this.properties = new HashMap<>(event.getProperties());
+            properties.remove(ActionMessage.PROP_DURATION);
+            this.hashCode = Objects.hash(type, name, properties);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type
+                    && Objects.equals(name, other.name)
+                    && properties.equals(other.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * The repeats of an error that was sent already.
+     */
+    private static class Aggregate {
+
+        /* the start of the window, the time of the first occurrence */
+        private final long first;
+        private Event repeat;
+        private long firstRepeat;
+        private long lastRepeat;
+        private int count = 0;
+
+        private Aggregate(long first) {
+            this.first = first;
+        }
+
+        private void add(Event event, long occurrence) {
+            if (repeat == null) {
+                this.repeat = event;
+                this.firstRepeat = occurrence;
+            }
+            this.lastRepeat = occurrence;
+            count++;
+        }
+
+        /**
+         * Adds nothing if the error didn't repeat, the repeat as is if it repeated once and the first repeat
+         * with the number of repeats and the time of the first and last one otherwise.
+         */
+        private void drainTo(List<Event> events) {
+            if (count == 0) {
+                return;
+            }
+            if (count == 1) {
+                events.add(repeat);
+                return;
+            }
+            Map<String, String> properties = new HashMap<>(repeat.getProperties());
+            properties.put(PROP_COUNT, String.valueOf(count));
+            properties.put(PROP_FIRST_OCCURRENCE, Instant.ofEpochMilli(firstRepeat).toString());
+            properties.put(PROP_LAST_OCCURRENCE, Instant.ofEpochMilli(lastRepeat).toString());
+            events.add(new Event(repeat.getType(), repeat.getName(), properties));
+        }
+    }
+}
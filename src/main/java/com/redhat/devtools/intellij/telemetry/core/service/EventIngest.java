@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A bounded multi-producer/single-consumer ingest stage for {@link Event}s.
+ * Producers only enqueue and return immediately, a single consumer that is run by the given {@link Executor}
+ * hands the queued events to the given processor, in batches of at most the given size.
+ * Events that don't fit into the queue are handled according to the {@link Overflow} policy.
+ */
+class EventIngest {
+
+    private static final Logger LOGGER = Logger.getInstance(EventIngest.class);
+
+    static final int DEFAULT_CAPACITY = 1000;
+    static final Overflow DEFAULT_OVERFLOW = Overflow.DROP_NEWEST;
+    static final long DEFAULT_BLOCK_TIMEOUT = 100; // ms
+    static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    public enum Overflow {
+        /** discards the event that is offered */
+        DROP_NEWEST,
+        /** discards the oldest event in the queue to make room for the event that is offered */
+        DROP_OLDEST,
+        /** waits for the consumer to make room, discards the event that is offered once the timeout is reached */
+        BLOCK;
+
+        public static Overflow safeValueOf(String value) {
+            try {
+                if (value == null) {
+                    return DEFAULT_OVERFLOW;
+                }
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return DEFAULT_OVERFLOW;
+            }
+        }
+    }
+
+    private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Object consumerLock = new Object();
+    private final LongAdder dropped = new LongAdder();
+    private final int capacity;
+    private final Overflow overflow;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final Executor executor;
+    private final Consumer<List<Event>> processor;
+
+    /**
+     * Creates an ingest stage that hands the events to the given processor one at a time.
+     */
+    EventIngest(int capacity, Overflow overflow, long blockTimeout, Executor executor, Consumer<Event> processor) {
+        this(capacity, overflow, blockTimeout, 1, executor, events -> events.forEach(processor));
+    }
+
+    EventIngest(int capacity, Overflow overflow, long blockTimeout, int batchSize, Executor executor, Consumer<List<Event>> processor) {
+        this.capacity = capacity < 1 ? DEFAULT_CAPACITY : capacity;
+        this.overflow = overflow == null ? DEFAULT_OVERFLOW : overflow;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeout < 0 ? DEFAULT_BLOCK_TIMEOUT : blockTimeout);
+        this.batchSize = batchSize < 1 ? DEFAULT_BATCH_SIZE : batchSize;
+        this.executor = executor;
+        this.processor = processor;
+    }
+
+    /**
+     * Enqueues the given event and schedules the consumer. Never blocks unless the overflow policy is {@link Overflow#BLOCK}.
+     *
+     * @param event the event to enqueue
+     * @return true if the event was enqueued, false if it was dropped
+     */
+    public boolean offer(Event event) {
+        if (event == null) {
+            return false;
+        }
+        if (!reserve()
+                && !makeRoom()) {
+            onDropped(event);
+            return false;
+        }
+        queue.offer(event);
+        schedule();
+        return true;
+    }
+
+    /**
+     * Processes all queued events in the calling thread, in batches.
+     * Waits for a consumer that is running concurrently to finish.
+     */
+    public void drain() {
+        synchronized (consumerLock) {
+            List<Event> batch;
+            while (!(batch = pollBatch()).isEmpty()) {
+                process(batch);
+            }
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of events that were dropped because the queue was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private boolean reserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean makeRoom() {
+        switch (overflow) {
+            case DROP_OLDEST:
+                return dropOldest();
+            case BLOCK:
+                return waitForRoom();
+            case DROP_NEWEST:
+            default:
+                return false;
+        }
+    }
+
+    private boolean dropOldest() {
+        while (true) {
+            Event oldest = queue.poll();
+            if (oldest != null) {
+                // slot of the oldest is taken over by the new event, size stays the same
+                onDropped(oldest);
+                return true;
+            }
+            if (reserve()) {
+                // consumer emptied the queue concurrently
+                return true;
+            }
+        }
+    }
+
+    private boolean waitForRoom() {
+        if (Thread.holdsLock(consumerLock)) {
+            // consumer is sending (ex. flushing events on hold), waiting for itself would only time out
+            return false;
+        }
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (reserve()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void onDropped(Event event) {
+        dropped.increment();
+        LOGGER.debug("Dropped " + event.getType() + " event '" + event.getName() + "': ingest queue is full ("
+                + capacity + " events, " + getDropped() + " dropped so far).");
+    }
+
+    private List<Event> pollBatch() {
+        List<Event> batch = new ArrayList<>(Math.min(batchSize, Math.max(1, size.get())));
+        Event event;
+        while (batch.size() < batchSize
+                && (event = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::consume);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+                LOGGER.warn("Could not schedule consumer for telemetry events.", e);
+            }
+        }
+    }
+
+    private void consume() {
+        do {
+            drain();
+            scheduled.set(false);
+            // re-check: a producer may have enqueued while the flag was still set
+        } while (!queue.isEmpty()
+                && scheduled.compareAndSet(false, true));
+    }
+
+    private void process(List<Event> events) {
+        try {
+            processor.accept(events);
+        } catch (RuntimeException e) {
+            if (events.size() == 1) {
+                Event event = events.get(0);
+                LOGGER.warn("Could not process " + event.getType() + " event '" + event.getName() + "'.", e);
+            } else {
+                LOGGER.warn("Could not process batch of " + events.size() + " events.", e);
+            }
+        }
+    }
+}
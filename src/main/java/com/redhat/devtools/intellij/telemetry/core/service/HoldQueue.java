@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.redhat.devtools.intellij.telemetry.core.service.Event.Type;
+import com.redhat.devtools.intellij.telemetry.core.util.Directories;
+import com.redhat.devtools.intellij.telemetry.core.util.RecordSpool;
+import com.redhat.devtools.intellij.telemetry.core.util.RingBuffer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Holds the events that are sent before the user was asked for consent.
+ * The events are appended to a {@link RecordSpool} in a compact binary encoding so that they survive restarts.
+ * The queue is bounded by the maximum size and age of the spool, the oldest files are discarded once these are exceeded.
+ * It falls back to a small in-memory buffer if the spool cannot be opened,
+ * ex. because it is used by another IDE that's running concurrently.
+ */
+class HoldQueue {
+
+    private static final Logger LOGGER = Logger.getInstance(HoldQueue.class);
+
+    private static final Path DIRECTORY = Directories.RED_HAT.resolve("telemetry-hold");
+
+    private static final long MAX_FILE_SIZE = 64 * 1024; // 64 kB
+    private static final long MAX_TOTAL_SIZE = 1024 * 1024; // 1 MB
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(30);
+    private static final int MEMORY_CAPACITY = 32;
+
+    /* version 1 wrote strings in modified UTF-8, which is limited to 64 kB */
+    private static final byte VERSION_1 = 1;
+    private static final byte VERSION = 2;
+
+    @Nullable
+    private final RecordSpool spool;
+    @Nullable
+    private final RingBuffer<Event> memory;
+    /* the events of the spool file that is being drained */
+    private final Queue<Event> draining = new ArrayDeque<>();
+    private Path drainingPath;
+    /* the spool files whose events were all drained but not acknowledged yet */
+    private final Set<Path> drained = new HashSet<>();
+    /* the number of drained batches that hold events of a spool file and were not acknowledged yet */
+    private final Map<Path, Integer> unacked = new HashMap<>();
+    private volatile boolean pending;
+
+    /**
+     * Opens the hold queue for the given plugin. Returns an in-memory queue if the spool cannot be opened.
+     *
+     * @param pluginId the id of the plugin whose events are held
+     * @return the hold queue for the given plugin
+     */
+    static HoldQueue open(String pluginId) {
+        Path directory = DIRECTORY.resolve(Integer.toHexString(pluginId.hashCode()));
+        try {
+            return new HoldQueue(RecordSpool.open(directory, MAX_FILE_SIZE, MAX_AGE, MAX_TOTAL_SIZE, MAX_AGE));
+        } catch (IOException e) {
+            LOGGER.warn("Could not open telemetry hold queue in " + directory + ". Held events will not be kept.", e);
+            return new HoldQueue();
+        }
+    }
+
+    HoldQueue() {
+        this.spool = null;
+        this.memory = new RingBuffer<>(MEMORY_CAPACITY);
+    }
+
+    /* for testing purposes */
+    HoldQueue(RecordSpool spool) {
+        this.spool = spool;
+        this.memory = null;
+        this.pending = !spool.getSealed().isEmpty();
+    }
+
+    /**
+     * Adds the given event to this queue. Events that cannot be held are dropped.
+     *
+     * @param event the event to hold
+     */
+    synchronized void offer(Event event) {
+        if (spool == null) {
+            memory.offer(event);
+            return;
+        }
+        try {
+            spool.append(encode(event));
+            this.pending = true;
+        } catch (IOException e) {
+            LOGGER.warn("Could not hold event " + event.getName() + ".", e);
+        }
+    }
+
+    /**
+     * Removes at most the given number of events, oldest first, and hands them to the given consumer.
+     * A spool file is kept until all its events were handed over and all the batches that hold them were
+     * {@link #ack(Drained) acknowledged}. Files that were not acknowledged are replayed in the next session.
+     *
+     * @param consumer the consumer to hand the events to
+     * @param maxEvents the maximum number of events to remove
+     * @return the batch of events that were removed, to be acknowledged once they were handed over
+     */
+    synchronized Drained drainTo(Consumer<Event> consumer, int maxEvents) {
+        if (spool == null) {
+            return new Drained(memory.drainTo(consumer, maxEvents), Collections.emptySet());
+        }
+        int count = 0;
+        Set<Path> paths = new LinkedHashSet<>();
+        while (count < maxEvents
+                && fill()) {
+            paths.add(drainingPath);
+            consumer.accept(next());
+            count++;
+        }
+        paths.forEach(path -> unacked.merge(path, 1, Integer::sum));
+        return new Drained(count, paths);
+    }
+
+    /**
+     * Loads the next spool file if the events of the current one were all drained.
+     *
+     * @return {@code false} if there are no events left
+     */
+    private boolean fill() {
+        while (draining.isEmpty()) {
+            if (!load()) {
+                this.pending = false;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Event next() {
+        Event event = draining.poll();
+        if (draining.isEmpty()) {
+            drained.add(drainingPath);
+            this.drainingPath = null;
+        }
+        return event;
+    }
+
+    /**
+     * Acknowledges the given batch of drained events, ex. once they were handed to the broker.
+     * The spool files whose events were all drained and whose batches were all acknowledged are deleted.
+     * Batches that other callers drained meanwhile are not affected.
+     *
+     * @param batch the batch that was drained
+     */
+    synchronized void ack(Drained batch) {
+        if (spool == null) {
+            return;
+        }
+        for (Path path : batch.paths) {
+            Integer remaining = unacked.computeIfPresent(path, (key, count) -> count > 1 ? count - 1 : null);
+            if (remaining == null
+                    && drained.remove(path)) {
+                spool.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Loads the events of the oldest spool file that was not drained yet.
+     *
+     * @return {@code false} if there are no spool files left
+     */
+    private boolean load() {
+        spool.rotate();
+        Path path = spool.getSealed().stream()
+                .filter(sealed -> !drained.contains(sealed))
+                .findFirst()
+                .orElse(null);
+        if (path == null) {
+            return false;
+        }
+        try {
+            for (byte[] record : RecordSpool.read(path)) {
+                Event event = decode(record);
+                if (event != null) {
+                    draining.add(event);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not read held events from " + path + ".", e);
+        }
+        if (draining.isEmpty()) {
+            spool.delete(path);
+        } else {
+            this.drainingPath = path;
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        if (spool == null) {
+            return memory.isEmpty();
+        }
+        return !pending;
+    }
+
+    /**
+     * Discards all the events in this queue.
+     */
+    synchronized void clear() {
+        draining.clear();
+        this.drainingPath = null;
+        drained.clear();
+        unacked.clear();
+        this.pending = false;
+        if (spool == null) {
+            memory.clear();
+        } else {
+            spool.clear();
+        }
+    }
+
+    /**
+     * Closes this queue. Events that were not drained are kept for the next session.
+     */
+    synchronized void close() {
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    /**
+     * A batch of events that were drained from the queue.
+     */
+    static final class Drained {
+
+        private final int size;
+        /* the spool files that the events were read from */
+        private final Set<Path> paths;
+
+        private Drained(int size, Set<Path> paths) {
+            this.size = size;
+            this.paths = paths;
+        }
+
+        /**
+         * Returns the number of events in this batch.
+         *
+         * @return the number of events
+         */
+        int size() {
+            return size;
+        }
+    }
+
+    static byte[] encode(Event event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(event.getType() == null ? null : event.getType().name(), out);
+            writeString(event.getName(), out);
+            Map<String, String> properties = event.getProperties();
+            out.writeInt(properties == null ? 0 : properties.size());
+            if (properties != null) {
+                for (Map.Entry<String, String> entry : properties.entrySet()) {
+                    writeString(entry.getKey(), out);
+                    writeString(entry.getValue(), out);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Nullable
+    static Event decode(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte version = in.readByte();
+            if (version != VERSION
+                    && version != VERSION_1) {
+                return null;
+            }
+            String type = readString(version, in);
+            String name = readString(version, in);
+            int size = in.readInt();
+            Map<String, String> properties = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                properties.put(readString(version, in), readString(version, in));
+            }
+            return new Event(type == null ? null : Type.valueOf(type), name, properties);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Could not read held event.", e);
+            return null;
+        }
+    }
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(byte version, DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        if (version == VERSION_1) {
+            return in.readUTF();
+        }
+        int length = in.readInt();
+        if (length < 0
+                || length > in.available()) {
+            throw new EOFException("Invalid string length " + length + ".");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
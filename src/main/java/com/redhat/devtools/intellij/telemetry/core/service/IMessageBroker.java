@@ -12,8 +12,20 @@ package com.redhat.devtools.intellij.telemetry.core.service;
 
 import com.intellij.openapi.extensions.PluginDescriptor;
 
+import java.util.Collection;
+
 public interface IMessageBroker {
     void send(Event event);
+
+    /**
+     * Sends the given events as one batch.
+     *
+     * @param events the events to send
+     */
+    default void sendAll(Collection<Event> events) {
+        events.forEach(this::send);
+    }
+
     void dispose();
 
     interface IMessageBrokerFactory {
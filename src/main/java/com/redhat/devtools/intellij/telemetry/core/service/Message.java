@@ -11,12 +11,12 @@
 package com.redhat.devtools.intellij.telemetry.core.service;
 
 import com.intellij.openapi.diagnostic.Logger;
+import com.redhat.devtools.intellij.telemetry.core.util.AnonymizeUtils;
+import com.redhat.devtools.intellij.telemetry.core.util.Anonymizer;
 
 import java.util.HashMap;
 import java.util.Map;
 
-import static com.redhat.devtools.intellij.telemetry.core.util.AnonymizeUtils.anonymize;
-
 abstract class Message<T extends Message<?>> {
 
     private static final Logger LOGGER = Logger.getInstance(Message.class);
@@ -33,11 +33,17 @@ abstract class Message<T extends Message<?>> {
     private final Map<String, String> properties = new HashMap<>();
     private final String name;
     private final IService service;
+    private final Anonymizer anonymizer;
 
     protected Message(Event.Type type, String name, IService service) {
+        this(type, name, service, null);
+    }
+
+    protected Message(Event.Type type, String name, IService service, Anonymizer anonymizer) {
         this.name = name;
         this.type = type;
         this.service = service;
+        this.anonymizer = anonymizer;
     }
 
     String getName() {
@@ -59,8 +65,16 @@ abstract class Message<T extends Message<?>> {
         return error(exception.getMessage());
     }
 
+    /**
+     * Sets the given error. It is anonymized with the built-in rules and the rules that the plugin registered.
+     *
+     * @param message the error
+     * @return this message
+     */
     public T error(String message) {
-        property(PROP_ERROR, anonymize(message));
+        put(PROP_ERROR, anonymizer != null ?
+                anonymizer.anonymizeError(message)
+                : AnonymizeUtils.anonymize(message));
         return clearResult();
     }
 
@@ -91,7 +105,20 @@ abstract class Message<T extends Message<?>> {
         return (T) this;
     }
 
+    /**
+     * Sets the given property. The value is anonymized with the rules that the plugin registered.
+     *
+     * @param key the key of the property
+     * @param value the value of the property
+     * @return this message
+     */
     public T property(String key, String value) {
+        return put(key, anonymizer != null ?
+                anonymizer.anonymizeProperty(value)
+                : value);
+    }
+
+    private T put(String key, String value) {
         if (key == null
                 || value == null) {
             LOGGER.warn("Ignored property with key: " + key + " value: " + value);
@@ -20,6 +20,8 @@ import com.redhat.devtools.intellij.telemetry.core.configuration.limits.EventLim
 import com.redhat.devtools.intellij.telemetry.core.configuration.limits.IEventLimits;
 import com.redhat.devtools.intellij.telemetry.core.service.Event.Type;
 import com.redhat.devtools.intellij.telemetry.core.service.segment.SegmentBrokerFactory;
+import com.redhat.devtools.intellij.telemetry.core.util.AnonymizationRule;
+import com.redhat.devtools.intellij.telemetry.core.util.Anonymizer;
 import com.redhat.devtools.intellij.telemetry.core.util.Lazy;
 import com.redhat.devtools.intellij.telemetry.core.util.TimeUtils;
 
@@ -36,6 +38,7 @@ public class TelemetryMessageBuilder {
 
     private final IService telemetryFacade;
     private final IService feedbackFacade;
+    private final Anonymizer anonymizer = new Anonymizer();
 
     @Deprecated(forRemoval = true)
     public TelemetryMessageBuilder(ClassLoader classLoader) {
@@ -56,7 +59,7 @@ public class TelemetryMessageBuilder {
 
     TelemetryMessageBuilder(String pluginId, IMessageBroker messageBroker) {
         this(
-            new TelemetryServiceFacade(TelemetryConfiguration.getInstance(), new EventLimits(pluginId), messageBroker),
+            new TelemetryServiceFacade(pluginId, TelemetryConfiguration.getInstance(), new EventLimits(pluginId), messageBroker),
             new FeedbackServiceFacade(messageBroker)
         );
     }
@@ -67,11 +70,24 @@ public class TelemetryMessageBuilder {
     }
 
     public ActionMessage action(String name) {
-        return new ActionMessage(name, telemetryFacade);
+        return new ActionMessage(name, telemetryFacade, anonymizer);
     }
 
     public FeedbackMessage feedback(String name) {
-        return new FeedbackMessage(name, feedbackFacade);
+        return new FeedbackMessage(name, feedbackFacade, anonymizer);
+    }
+
+    /**
+     * Registers rules that anonymize the properties and errors of the messages that this builder creates.
+     * The rules are combined with the built-in ones and applied in a single pass. They should be registered
+     * once, ex. at startup.
+     *
+     * @param rules the rules to register
+     * @return this builder
+     */
+    public TelemetryMessageBuilder anonymize(AnonymizationRule... rules) {
+        anonymizer.register(rules);
+        return this;
     }
 
     static class StartupMessage extends TelemetryMessage<StartupMessage> {
@@ -117,8 +133,8 @@ public class TelemetryMessageBuilder {
 
         private LocalDateTime started;
 
-        private ActionMessage(String name, IService service) {
-            super(ACTION, name, service);
+        private ActionMessage(String name, IService service, Anonymizer anonymizer) {
+            super(ACTION, name, service, anonymizer);
             started();
         }
 
@@ -174,14 +190,19 @@ public class TelemetryMessageBuilder {
         protected TelemetryMessage(Type type, String name, IService service) {
             super(type, name, service);
         }
+
+        protected TelemetryMessage(Type type, String name, IService service, Anonymizer anonymizer) {
+            super(type, name, service, anonymizer);
+        }
     }
 
     static class TelemetryServiceFacade extends Lazy<IService> implements IService {
 
         private final MessageBusConnection messageBusConnection;
 
-        protected TelemetryServiceFacade(final TelemetryConfiguration configuration, IEventLimits limits, IMessageBroker broker) {
+        protected TelemetryServiceFacade(final String pluginId, final TelemetryConfiguration configuration, IEventLimits limits, IMessageBroker broker) {
             this(() -> ApplicationManager.getApplication().getService(TelemetryServiceFactory.class).create(
+                            pluginId,
                             configuration,
                             limits,
                             broker),
@@ -240,8 +261,8 @@ public class TelemetryMessageBuilder {
 
     public static class FeedbackMessage extends Message<FeedbackMessage>{
 
-        FeedbackMessage(String name, IService service) {
-            super(ACTION, name, service);
+        FeedbackMessage(String name, IService service, Anonymizer anonymizer) {
+            super(ACTION, name, service, anonymizer);
         }
     }
 
@@ -12,41 +12,61 @@ package com.redhat.devtools.intellij.telemetry.core.service;
 
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.messages.MessageBusConnection;
 import com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration;
 import com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.ConfigurationChangedListener;
 import com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.Mode;
 import com.redhat.devtools.intellij.telemetry.core.configuration.limits.IEventLimits;
 import com.redhat.devtools.intellij.telemetry.core.service.Event.Type;
-import com.redhat.devtools.intellij.telemetry.core.util.CircularBuffer;
+import com.redhat.devtools.intellij.telemetry.core.service.EventIngest.Overflow;
 import com.redhat.devtools.intellij.telemetry.ui.TelemetryNotifications;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_AGGREGATION_WINDOW;
 import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_MODE;
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_QUEUE_CAPACITY;
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_QUEUE_OVERFLOW;
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_QUEUE_TIMEOUT;
+import static com.redhat.devtools.intellij.telemetry.core.util.NumberUtils.toLong;
 
 class TelemetryService implements IService {
 
     private static final Logger LOGGER = Logger.getInstance(TelemetryService.class);
 
-    private static final int BUFFER_SIZE = 35;
+    private static final int HOLD_BATCH_SIZE = 100;
 
     private final TelemetryNotifications notifications;
     private final TelemetryConfiguration configuration;
     private final IEventLimits limits;
     protected final IMessageBroker broker;
     private final AtomicBoolean userQueried = new AtomicBoolean(false);
-    private final CircularBuffer<Event> onHold = new CircularBuffer<>(BUFFER_SIZE);
+    private final AtomicBoolean userInfoSent = new AtomicBoolean(false);
+    private final AtomicBoolean userInfoDelivered = new AtomicBoolean(false);
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private final HoldQueue onHold;
+    private final Executor executor;
+    private final EventIngest ingest;
+    private final EventAggregator aggregator;
 
     public TelemetryService(
             final TelemetryConfiguration configuration,
             final IEventLimits limits,
-            final IMessageBroker broker) {
+            final IMessageBroker broker,
+            final HoldQueue onHold) {
         this(configuration,
                 limits,
                 broker,
+                onHold,
                 ApplicationManager.getApplication().getMessageBus().connect(),
-                new TelemetryNotifications()
+                new TelemetryNotifications(),
+                AppExecutorUtil.createBoundedApplicationPoolExecutor("Red Hat Telemetry", 1)
         );
     }
 
@@ -55,34 +75,119 @@ class TelemetryService implements IService {
             final IEventLimits limits,
             final IMessageBroker broker,
             final MessageBusConnection connection,
-            final TelemetryNotifications notifications) {
+            final TelemetryNotifications notifications,
+            final Executor executor) {
+        this(configuration, limits, broker, new HoldQueue(), connection, notifications, executor);
+    }
+
+    TelemetryService(
+            final TelemetryConfiguration configuration,
+            final IEventLimits limits,
+            final IMessageBroker broker,
+            final HoldQueue onHold,
+            final MessageBusConnection connection,
+            final TelemetryNotifications notifications,
+            final Executor executor) {
+        this(configuration, limits, broker, onHold, connection, notifications, executor,
+                AppExecutorUtil::getAppScheduledExecutorService);
+    }
+
+    TelemetryService(
+            final TelemetryConfiguration configuration,
+            final IEventLimits limits,
+            final IMessageBroker broker,
+            final HoldQueue onHold,
+            final MessageBusConnection connection,
+            final TelemetryNotifications notifications,
+            final Executor executor,
+            final Supplier<ScheduledExecutorService> scheduler) {
         this.configuration = configuration;
         this.limits = limits;
         this.broker = broker;
+        this.onHold = onHold;
         this.notifications = notifications;
+        this.executor = executor;
+        this.ingest = createIngest(configuration, executor);
+        this.aggregator = createAggregator(configuration, scheduler);
         onConfigurationChanged(connection);
+        if (isEnabled()) {
+            flushOnHold();
+        } else if (isConfigured()) {
+            discardOnHold();
+        }
+    }
+
+    private EventIngest createIngest(TelemetryConfiguration configuration, Executor executor) {
+        int capacity = EventIngest.DEFAULT_CAPACITY;
+        Overflow overflow = EventIngest.DEFAULT_OVERFLOW;
+        long timeout = EventIngest.DEFAULT_BLOCK_TIMEOUT;
+        if (configuration != null) {
+            capacity = (int) toLong(configuration.get(KEY_QUEUE_CAPACITY), capacity);
+            overflow = Overflow.safeValueOf(configuration.get(KEY_QUEUE_OVERFLOW));
+            timeout = toLong(configuration.get(KEY_QUEUE_TIMEOUT), timeout);
+        }
+        return new EventIngest(capacity, overflow, timeout, EventIngest.DEFAULT_BATCH_SIZE, executor, this::process);
+    }
+
+    private EventAggregator createAggregator(TelemetryConfiguration configuration, Supplier<ScheduledExecutorService> scheduler) {
+        long window = EventAggregator.DEFAULT_WINDOW;
+        if (configuration != null) {
+            window = toLong(configuration.get(KEY_AGGREGATION_WINDOW), window);
+        }
+        return new EventAggregator(window, EventAggregator.DEFAULT_MAX_PENDING, scheduler, System::currentTimeMillis,
+                events -> executor.execute(() -> sendAggregated(events)));
     }
 
     private void onConfigurationChanged(MessageBusConnection connection) {
         connection.subscribe(ConfigurationChangedListener.CONFIGURATION_CHANGED, (String key, String value) -> {
-            if (KEY_MODE.equals(key)
-                    && Mode.safeValueOf(value).isEnabled()) {
+            if (!KEY_MODE.equals(key)) {
+                return;
+            }
+            Mode mode = Mode.safeValueOf(value);
+            if (mode.isEnabled()) {
                 flushOnHold();
+            } else if (mode.isConfigured()) {
+                discardOnHold();
             }
         });
     }
 
+    /**
+     * Enqueues the given event and returns immediately.
+     * Limits evaluation, counting and handing the event to the broker happen in the consumer of the ingest queue.
+     * {@link Type#SHUTDOWN} events are processed right away given that the application is about to exit.
+     *
+     * @param event the event to send
+     */
     @Override
     public void send(Event event) {
+        ingest.offer(event);
+        if (event != null
+                && event.getType() == Type.SHUTDOWN) {
+            ingest.drain();
+        }
+    }
+
+    private void process(List<Event> events) {
         sendUserInfo();
-        doSend(event);
+        doSend(events);
         queryUserConsent();
     }
 
+    /**
+     * Sends the user info once per session. It is sent again if it was dropped because telemetry is disabled.
+     */
     private void sendUserInfo() {
-        doSend(new Event(
+        if (userInfoSent.get()
+                || !userInfoSent.compareAndSet(false, true)) {
+            return;
+        }
+        boolean accepted = doSend(List.of(new Event(
                 Type.USER,
-                "Anonymous ID: " + UserId.INSTANCE.get()));
+                "Anonymous ID: " + UserId.INSTANCE.get())));
+        if (!accepted) {
+            userInfoSent.set(false);
+        }
     }
 
     private void queryUserConsent() {
@@ -92,16 +197,53 @@ class TelemetryService implements IService {
         }
     }
 
-    private void doSend(Event event) {
+    /**
+     * Sends the given events as a batch if telemetry is enabled, holds them back if the user wasn't asked for consent yet.
+     * Each event is counted in the limits. The first occurrence of an error is sent right away, its repeats are
+     * folded into a single event that is sent once the aggregation window is over.
+     *
+     * @param events the events to send
+     * @return {@code false} if the events were dropped because telemetry is disabled
+     */
+    private boolean doSend(List<Event> events) {
         if (isEnabled()) {
             flushOnHold();
-            if (limits.canSend(event)) {
-                broker.send(event);
-                limits.wasSent(event);
+            List<Event> reserved = limits.tryReserveAll(events);
+            if (!reserved.isEmpty()) {
+                if (containsUserInfo(reserved)) {
+                    userInfoDelivered.set(true);
+                }
+                List<Event> folded = aggregator.fold(reserved);
+                if (!folded.isEmpty()) {
+                    broker.sendAll(folded);
+                }
             }
+            return true;
         } else if (!isConfigured()) {
-            onHold.offer(event);
+            events.forEach(onHold::offer);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sends the given repeated errors whose aggregation window is over. They were counted in the limits already.
+     *
+     * @param events the aggregated repeats
+     */
+    private void sendAggregated(List<Event> events) {
+        if (isEnabled()) {
+            broker.sendAll(events);
+        }
+    }
+
+    private static boolean containsUserInfo(List<Event> events) {
+        for (Event event : events) {
+            if (event.getType() == Type.USER) {
+                return true;
+            }
         }
+        return false;
     }
 
     private boolean isEnabled() {
@@ -114,13 +256,76 @@ class TelemetryService implements IService {
                 && configuration.isConfigured();
     }
 
+    /**
+     * Sends the held events in the background, in batches so that the events that are sent meanwhile are not held up.
+     */
     private void flushOnHold() {
-        onHold.pollAll().forEach(this::send);
+        if (onHold.isEmpty()
+                || !flushing.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(this::flushOnHoldBatch);
+    }
+
+    private void flushOnHoldBatch() {
+        if (sendHeldBatch() == HOLD_BATCH_SIZE) {
+            executor.execute(this::flushOnHoldBatch);
+            return;
+        }
+        flushing.set(false);
+        if (!onHold.isEmpty()) {
+            flushOnHold();
+        }
+    }
+
+    /**
+     * Drains a batch of held events, evaluates the limits for the whole batch and hands the events that
+     * the limits allow to the broker as a batch. The held events are acknowledged once they were handed over.
+     * The user info is delivered at most once: the first held user info that the limits allow is delivered,
+     * the other held user info events of previous sessions or of this session are dropped.
+     *
+     * @return the number of events that were drained
+     */
+    private int sendHeldBatch() {
+        List<Event> batch = new ArrayList<>(HOLD_BATCH_SIZE);
+        HoldQueue.Drained drained = onHold.drainTo(batch::add, HOLD_BATCH_SIZE);
+        if (userInfoDelivered.get()) {
+            batch.removeIf(event -> event.getType() == Type.USER);
+        }
+        if (!batch.isEmpty()) {
+            List<Event> reserved = new ArrayList<>(limits.tryReserveAll(batch));
+            // the first user info that the limits allow is delivered, the others are dropped
+            reserved.removeIf(event -> event.getType() == Type.USER
+                    && !userInfoDelivered.compareAndSet(false, true));
+            if (!reserved.isEmpty()) {
+                broker.sendAll(reserved);
+            }
+        }
+        onHold.ack(drained);
+        return drained.size();
+    }
+
+    /**
+     * Discards the held events in the background given that the user denied consent.
+     */
+    private void discardOnHold() {
+        executor.execute(onHold::clear);
     }
 
     public void dispose() {
-        flushOnHold();
-        onHold.clear();
+        ingest.drain();
+        List<Event> aggregated = aggregator.drain();
+        aggregator.dispose();
+        if (!aggregated.isEmpty()) {
+            sendAggregated(aggregated);
+        }
+        if (isEnabled()) {
+            while (sendHeldBatch() == HOLD_BATCH_SIZE) {
+                // send remaining batches
+            }
+        }
+        onHold.close();
+        limits.dispose();
         broker.dispose();
     }
 }
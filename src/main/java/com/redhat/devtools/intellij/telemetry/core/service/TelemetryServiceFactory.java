@@ -18,7 +18,7 @@ import com.redhat.devtools.intellij.telemetry.core.configuration.limits.IEventLi
 @Service
 final class TelemetryServiceFactory implements DumbAware {
 
-    public TelemetryService create(TelemetryConfiguration configuration, IEventLimits limits, IMessageBroker broker) {
-        return new TelemetryService(configuration, limits, broker);
+    public TelemetryService create(String pluginId, TelemetryConfiguration configuration, IEventLimits limits, IMessageBroker broker) {
+        return new TelemetryService(configuration, limits, broker, HoldQueue.open(pluginId));
     }
 }
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.segment.analytics.Analytics;
+import okhttp3.OkHttpClient;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A registry of {@link Analytics} instances that are shared by all plugins that send to the same segment write key.
+ * All plugins are thus multiplexed onto a single Segment client with a single batching queue, flush thread and
+ * http client. The instances are reference counted: they're created when they're acquired for the first time and
+ * flushed and shut down once they were released by all the plugins that acquired them.
+ * Each instance spools its messages to disk (see {@link SegmentSpool}) so that messages that could not be
+ * delivered are replayed once the instance is created in the next session.
+ * The flushes of each instance are driven by a {@link FlushController} that adapts the batch size and
+ * the flush interval to the load. The batches are uploaded gzip-compressed (see {@link GzipRequestInterceptor}).
+ */
+public class AnalyticsRegistry implements IAnalyticsProvider {
+
+    private static final Logger LOGGER = Logger.getInstance(AnalyticsRegistry.class);
+
+    public static final AnalyticsRegistry INSTANCE = new AnalyticsRegistry(SegmentSpool::open, FlushController::create, new SegmentAnalyticsFactory());
+
+    private final Function<String, SegmentSpool> spoolFactory;
+    private final Supplier<FlushController> controllerFactory;
+    private final AnalyticsFactory factory;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /* for testing purposes */
+    AnalyticsRegistry(Function<String, Analytics> factory) {
+        this(writeKey -> null, (writeKey, spool) -> factory.apply(writeKey));
+    }
+
+    AnalyticsRegistry(Function<String, SegmentSpool> spoolFactory, BiFunction<String, SegmentSpool, Analytics> factory) {
+        this(spoolFactory, () -> null, (writeKey, spool, controller) -> factory.apply(writeKey, spool));
+    }
+
+    AnalyticsRegistry(Function<String, SegmentSpool> spoolFactory, Supplier<FlushController> controllerFactory, AnalyticsFactory factory) {
+        this.spoolFactory = spoolFactory;
+        this.controllerFactory = controllerFactory;
+        this.factory = factory;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Analytics acquire(String writeKey) {
+        if (writeKey == null) {
+            LOGGER.warn("Could not create Segment Analytics instance, missing writeKey.");
+            return null;
+        }
+        Entry entry = entries.get(writeKey);
+        if (entry == null) {
+            entry = create(writeKey);
+            if (entry == null) {
+                return null;
+            }
+            entries.put(writeKey, entry);
+        }
+        entry.references++;
+        return entry.analytics;
+    }
+
+    private Entry create(String writeKey) {
+        SegmentSpool spool = spoolFactory.apply(writeKey);
+        FlushController controller = controllerFactory.get();
+        Analytics analytics = factory.create(writeKey, spool, controller);
+        if (analytics == null) {
+            if (spool != null) {
+                spool.close();
+            }
+            return null;
+        }
+        if (controller != null) {
+            controller.start(analytics);
+        }
+        if (spool != null) {
+            spool.replay(analytics);
+        }
+        return new Entry(analytics, spool, controller);
+    }
+
+    @Override
+    public void release(Analytics analytics) {
+        if (analytics == null) {
+            return;
+        }
+        Entry entry = removeReference(analytics);
+        if (entry != null) {
+            if (entry.controller != null) {
+                entry.controller.stop();
+            }
+            analytics.flush();
+            analytics.shutdown();
+            if (entry.spool != null) {
+                entry.spool.close();
+            }
+        }
+    }
+
+    /**
+     * Flushes the given analytics instance right away and accounts for it in the metrics of its flush controller.
+     *
+     * @param analytics the analytics instance to flush
+     */
+    @Override
+    public void flush(Analytics analytics) {
+        if (analytics == null) {
+            return;
+        }
+        FlushController controller = getController(analytics);
+        if (controller != null) {
+            controller.flush();
+        } else {
+            analytics.flush();
+        }
+    }
+
+    private synchronized FlushController getController(Analytics analytics) {
+        for (Entry entry : entries.values()) {
+            if (entry.analytics == analytics) {
+                return entry.controller;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the flush metrics of the analytics instance for the given write key.
+     * Returns {@code null} if there's no such instance or if its flushes are not controlled.
+     *
+     * @param writeKey the segment write key
+     * @return the flush metrics
+     */
+    @Nullable
+    public synchronized FlushController.FlushMetrics getFlushMetrics(String writeKey) {
+        Entry entry = entries.get(writeKey);
+        if (entry == null
+                || entry.controller == null) {
+            return null;
+        }
+        return entry.controller.getMetrics();
+    }
+
+    /**
+     * Removes a reference to the given analytics instance.
+     * Returns the entry if it was the last reference and the entry was removed from this registry,
+     * {@code null} otherwise.
+     */
+    private synchronized Entry removeReference(Analytics analytics) {
+        for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            Entry entry = iterator.next();
+            if (entry.analytics == analytics) {
+                if (--entry.references <= 0) {
+                    iterator.remove();
+                    return entry;
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /* for testing purposes */
+    synchronized int getReferences(String writeKey) {
+        Entry entry = entries.get(writeKey);
+        if (entry == null) {
+            return 0;
+        }
+        return entry.references;
+    }
+
+    private static class Entry {
+        private final Analytics analytics;
+        private final SegmentSpool spool;
+        private final FlushController controller;
+        private int references = 0;
+
+        private Entry(Analytics analytics, SegmentSpool spool, FlushController controller) {
+            this.analytics = analytics;
+            this.spool = spool;
+            this.controller = controller;
+        }
+    }
+
+    @FunctionalInterface
+    interface AnalyticsFactory {
+        Analytics create(String writeKey, @Nullable SegmentSpool spool, @Nullable FlushController controller);
+    }
+
+    static class SegmentAnalyticsFactory implements AnalyticsFactory {
+
+        private static final int FLUSH_INTERVAL = 10000;
+        private static final int FLUSH_QUEUE_SIZE = 10;
+        /* the timeouts of the client that segment creates if none is given */
+        private static final long CONNECT_TIMEOUT = 15; // s
+        private static final long READ_TIMEOUT = 20; // s
+        private static final long WRITE_TIMEOUT = 20; // s
+
+        private final String endpoint;
+
+        SegmentAnalyticsFactory() {
+            this(null);
+        }
+
+        /* for testing purposes */
+        SegmentAnalyticsFactory(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public Analytics create(String writeKey, SegmentSpool spool, FlushController controller) {
+            LOGGER.debug("Creating Segment Analytics instance using " + writeKey + " writeKey.");
+            Analytics.Builder builder = Analytics.builder(writeKey)
+                    .client(new OkHttpClient.Builder()
+                            .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
+                            .readTimeout(READ_TIMEOUT, TimeUnit.SECONDS)
+                            .writeTimeout(WRITE_TIMEOUT, TimeUnit.SECONDS)
+                            .addInterceptor(new GzipRequestInterceptor())
+                            .build());
+            if (endpoint != null) {
+                builder.endpoint(endpoint);
+            }
+            if (controller != null) {
+                // the controller triggers the flushes, the thresholds of the client are the upper bounds
+                builder.flushQueueSize(controller.getMaxSize())
+                        .flushInterval(controller.getMaxInterval(), TimeUnit.MILLISECONDS);
+                if (spool == null) {
+                    builder.messageInterceptor(controller);
+                }
+            } else {
+                builder.flushQueueSize(FLUSH_QUEUE_SIZE)
+                        .flushInterval(FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+            }
+            if (spool != null) {
+                // the spool serializes the messages, the controller counts them with the size of their record
+                builder.messageInterceptor(controller == null ? spool : spool.countingIn(controller))
+                        .callback(spool);
+            }
+            return builder.build();
+        }
+    }
+}
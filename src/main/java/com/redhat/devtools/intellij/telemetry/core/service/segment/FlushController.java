@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.google.gson.JsonIOException;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.redhat.devtools.intellij.telemetry.core.configuration.IConfiguration;
+import com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration;
+import com.segment.analytics.Analytics;
+import com.segment.analytics.MessageInterceptor;
+import com.segment.analytics.messages.Message;
+
+import java.io.Writer;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_FLUSH_MAX_BYTES;
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_FLUSH_MAX_INTERVAL;
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_FLUSH_MAX_SIZE;
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_FLUSH_MIN_INTERVAL;
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_FLUSH_MIN_SIZE;
+import static com.redhat.devtools.intellij.telemetry.core.service.segment.SegmentGson.GSON;
+import static com.redhat.devtools.intellij.telemetry.core.util.NumberUtils.toLong;
+
+/**
+ * Decides when the messages that are queued in an {@link Analytics} instance are flushed to segment.
+ * The instance is built with the maximum batch size and the maximum interval so that it rarely flushes on its own.
+ * This controller counts the messages that are enqueued and their serialized size and flushes once the current
+ * batch size or the maximum number of bytes is reached or the current interval expires:
+ * <ul>
+ *     <li>the batch size doubles, up to the maximum, whenever it is reached within the minimum interval (burst)
+ *     and is halved, down to the minimum, whenever the interval expires with no message queued.</li>
+ *     <li>the interval doubles, up to the maximum, whenever it expires with no message queued (idle)
+ *     and is reset to the minimum once a message is queued again.</li>
+ * </ul>
+ * Segment itself splits batches that would exceed its payload limit of 500kb, the maximum number of bytes
+ * allows smaller uploads, ex. for users on slow or metered connections.
+ */
+public class FlushController implements MessageInterceptor {
+
+    private static final Logger LOGGER = Logger.getInstance(FlushController.class);
+
+    static final int DEFAULT_MIN_SIZE = 10;
+    static final int DEFAULT_MAX_SIZE = 250;
+    static final long DEFAULT_MIN_INTERVAL = 10_000; // ms
+    static final long DEFAULT_MAX_INTERVAL = 300_000; // ms
+    static final long DEFAULT_MAX_BYTES = 128 * 1024;
+    /* segment doesn't accept shorter flush intervals */
+    private static final long LOWEST_INTERVAL = 1000; // ms
+    /* segment drops messages that exceed 32kb */
+    private static final long LOWEST_MAX_BYTES = 32 * 1024;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long minInterval;
+    private final long maxInterval;
+    private final long maxBytes;
+    private final ScheduledExecutorService scheduler;
+    private final FlushMetrics metrics = new FlushMetrics();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicBoolean sizeFlushScheduled = new AtomicBoolean();
+    /* read without locking when counting messages, only changed while holding the lock of this controller */
+    private volatile int size;
+    private volatile long interval;
+    private volatile long lastFlush;
+    private Analytics analytics;
+    private ScheduledFuture<?> timer;
+
+    /**
+     * Creates a controller with the thresholds that are configured in the {@link TelemetryConfiguration}.
+     *
+     * @return the controller
+     */
+    static FlushController create() {
+        IConfiguration configuration = TelemetryConfiguration.getInstance();
+        return new FlushController(
+                (int) toLong(configuration.get(KEY_FLUSH_MIN_SIZE), DEFAULT_MIN_SIZE),
+                (int) toLong(configuration.get(KEY_FLUSH_MAX_SIZE), DEFAULT_MAX_SIZE),
+                toLong(configuration.get(KEY_FLUSH_MIN_INTERVAL), DEFAULT_MIN_INTERVAL),
+                toLong(configuration.get(KEY_FLUSH_MAX_INTERVAL), DEFAULT_MAX_INTERVAL),
+                toLong(configuration.get(KEY_FLUSH_MAX_BYTES), DEFAULT_MAX_BYTES),
+                AppExecutorUtil.getAppScheduledExecutorService());
+    }
+
+    FlushController(int minSize, int maxSize, long minInterval, long maxInterval, long maxBytes, ScheduledExecutorService scheduler) {
+        this.minSize = Math.max(1, minSize);
+        this.maxSize = Math.max(this.minSize, maxSize);
+        this.minInterval = Math.max(LOWEST_INTERVAL, minInterval);
+        this.maxInterval = Math.max(this.minInterval, maxInterval);
+        this.maxBytes = Math.max(LOWEST_MAX_BYTES, maxBytes);
+        this.scheduler = scheduler;
+        this.size = this.minSize;
+        this.interval = this.minInterval;
+    }
+
+    /**
+     * Returns the largest batch size. It should be used as flush queue size of the analytics instance.
+     *
+     * @return the largest batch size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the longest interval in ms. It should be used as flush interval of the analytics instance.
+     *
+     * @return the longest interval
+     */
+    public long getMaxInterval() {
+        return maxInterval;
+    }
+
+    /**
+     * Returns the maximum number of serialized bytes in a batch.
+     *
+     * @return the maximum number of bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public FlushMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts controlling the flushes of the given analytics instance.
+     *
+     * @param analytics the analytics instance to flush
+     */
+    synchronized void start(Analytics analytics) {
+        this.analytics = analytics;
+        this.lastFlush = System.nanoTime();
+        schedule(interval);
+    }
+
+    /**
+     * Stops controlling the flushes of the analytics instance that this controller was started with.
+     */
+    synchronized void stop() {
+        if (timer != null) {
+            timer.cancel(false);
+            this.timer = null;
+        }
+        this.analytics = null;
+    }
+
+    @Override
+    public Message intercept(Message message) {
+        enqueued(sizeOf(message));
+        return message;
+    }
+
+    /**
+     * Counts a message of the given serialized size that is being enqueued.
+     * Spares serializing the message a second time if its size is known already, ex. because it was spooled
+     * (see {@link SegmentSpool#countingIn(FlushController)}).
+     *
+     * @param messageBytes the number of bytes of the serialized message
+     */
+    void enqueued(long messageBytes) {
+        int pending = this.pending.incrementAndGet();
+        long bytes = pendingBytes.addAndGet(messageBytes);
+        if (pending == 1
+                && interval > minInterval) {
+            // first message after being idle, don't wait for the backed off interval
+            resetInterval();
+        }
+        if ((pending >= size || bytes >= maxBytes)
+                && sizeFlushScheduled.compareAndSet(false, true)) {
+            // interceptors are called before the message is queued, flush once it was queued
+            scheduler.execute(this::flushBySize);
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the given message once it is serialized to json.
+     * The json is counted while it is written, it is never held in memory.
+     */
+    static long sizeOf(Message message) {
+        if (message == null) {
+            return 0;
+        }
+        ByteCountingWriter writer = new ByteCountingWriter();
+        try {
+            GSON.toJson(message, writer);
+        } catch (JsonIOException e) {
+            LOGGER.debug("Could not determine size of message " + message.messageId() + ".", e);
+        }
+        return writer.bytes;
+    }
+
+    /**
+     * Flushes the queued messages right away, ex. because the IDE is shutting down.
+     */
+    void flush() {
+        if (doFlush()) {
+            metrics.immediateFlushes.increment();
+        }
+    }
+
+    private void flushBySize() {
+        sizeFlushScheduled.set(false);
+        synchronized (this) {
+            if (System.nanoTime() - lastFlush < TimeUnit.MILLISECONDS.toNanos(minInterval)) {
+                // burst: size was reached before the minimum interval expired
+                this.size = Math.min(size * 2, maxSize);
+            }
+            if (doFlush()) {
+                metrics.sizeFlushes.increment();
+            }
+        }
+    }
+
+    private synchronized void onInterval() {
+        if (analytics == null) {
+            return;
+        }
+        if (pending.get() == 0) {
+            this.interval = Math.min(interval * 2, maxInterval);
+            this.size = Math.max(size / 2, minSize);
+            metrics.idleIntervals.increment();
+        } else {
+            this.interval = minInterval;
+            doFlush();
+            metrics.intervalFlushes.increment();
+        }
+        schedule(interval);
+    }
+
+    private synchronized void resetInterval() {
+        if (analytics == null) {
+            return;
+        }
+        this.interval = minInterval;
+        schedule(interval);
+    }
+
+    private synchronized void schedule(long delay) {
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        this.timer = scheduler.schedule(this::onInterval, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized boolean doFlush() {
+        if (analytics == null) {
+            return false;
+        }
+        LOGGER.debug("Flushing " + pending.get() + " messages to segment (batch size " + size + ", interval " + interval + " ms).");
+        pending.set(0);
+        pendingBytes.set(0);
+        this.lastFlush = System.nanoTime();
+        analytics.flush();
+        return true;
+    }
+
+    /**
+     * A writer that discards what it's written and counts the bytes that it would take in UTF-8.
+     */
+    private static class ByteCountingWriter extends Writer {
+
+        private long bytes = 0;
+
+        @Override
+        public void write(int c) {
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800
+                    || Character.isSurrogate((char) c)) {
+                // a surrogate pair takes 4 bytes
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(chars[i]);
+            }
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(string.charAt(i));
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * The flushes and the current thresholds of a {@link FlushController}.
+     */
+    public class FlushMetrics {
+
+        private final LongAdder sizeFlushes = new LongAdder();
+        private final LongAdder intervalFlushes = new LongAdder();
+        private final LongAdder immediateFlushes = new LongAdder();
+        private final LongAdder idleIntervals = new LongAdder();
+
+        /**
+         * Returns the number of flushes because the batch size or the maximum number of bytes was reached.
+         */
+        public long getSizeFlushes() {
+            return sizeFlushes.sum();
+        }
+
+        /**
+         * Returns the number of flushes because the interval expired.
+         */
+        public long getIntervalFlushes() {
+            return intervalFlushes.sum();
+        }
+
+        /**
+         * Returns the number of flushes that were requested explicitly, ex. when the IDE is shutting down.
+         */
+        public long getImmediateFlushes() {
+            return immediateFlushes.sum();
+        }
+
+        /**
+         * Returns the number of intervals that expired with no message queued.
+         */
+        public long getIdleIntervals() {
+            return idleIntervals.sum();
+        }
+
+        /**
+         * Returns the current batch size.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the current interval in ms.
+         */
+        public long getInterval() {
+            return interval;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Gzip-compresses the body of the requests that are posted to segment.
+ * The body is streamed through the compressor straight into the connection, the compressed payload is never
+ * held in memory as a whole. The content length is thus unknown and the body is sent chunked.
+ * Requests without a body or with an encoding already are left untouched.
+ */
+class GzipRequestInterceptor implements Interceptor {
+
+    static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    static final String GZIP = "gzip";
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (body == null
+                || request.header(HEADER_CONTENT_ENCODING) != null) {
+            return chain.proceed(request);
+        }
+        Request compressed = request.newBuilder()
+                .header(HEADER_CONTENT_ENCODING, GZIP)
+                .method(request.method(), new GzipRequestBody(body))
+                .build();
+        return chain.proceed(compressed);
+    }
+
+    private static class GzipRequestBody extends RequestBody {
+
+        private final RequestBody body;
+
+        private GzipRequestBody(RequestBody body) {
+            this.body = body;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return -1; // unknown until compressed
+        }
+
+        @Override
+        public void writeTo(@NotNull BufferedSink sink) throws IOException {
+            try (BufferedSink gzip = Okio.buffer(new GzipSink(sink))) {
+                body.writeTo(gzip);
+            }
+        }
+    }
+}
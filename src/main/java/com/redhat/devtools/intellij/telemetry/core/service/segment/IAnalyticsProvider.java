@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.segment.analytics.Analytics;
+
+/**
+ * Provides the {@link Analytics} instance that a {@link SegmentBroker} is sending its messages to.
+ */
+public interface IAnalyticsProvider {
+
+    /**
+     * Returns the analytics instance for the given write key.
+     * Returns {@code null} if it cannot be created.
+     *
+     * @param writeKey the segment write key
+     * @return the analytics instance for the given key
+     */
+    Analytics acquire(String writeKey);
+
+    /**
+     * Signals that the given analytics instance that was acquired beforehand is not used anymore.
+     *
+     * @param analytics the analytics instance that's not used anymore
+     */
+    void release(Analytics analytics);
+
+    /**
+     * Flushes the messages that are queued in the given analytics instance right away.
+     *
+     * @param analytics the analytics instance to flush
+     */
+    default void flush(Analytics analytics) {
+        if (analytics != null) {
+            analytics.flush();
+        }
+    }
+}
@@ -22,11 +22,14 @@ import com.segment.analytics.messages.IdentifyMessage;
 import com.segment.analytics.messages.MessageBuilder;
 import com.segment.analytics.messages.PageMessage;
 import com.segment.analytics.messages.TrackMessage;
-import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 public class SegmentBroker implements IMessageBroker {
@@ -92,10 +95,17 @@ public class SegmentBroker implements IMessageBroker {
     private final String userId;
     private final IdentifyTraitsPersistence identifyTraitsPersistence;
     private final Environment environment;
+    private final IAnalyticsProvider analyticsProvider;
     private final Lazy<Analytics> analytics;
+    private final Lazy<IdentifyTraits> identifyTraits;
+    /* the broker is shared by the telemetry and the feedback service, both dispose it */
+    private final AtomicBoolean released = new AtomicBoolean();
+    private volatile EnvironmentMaps environmentMaps;
+    /* the traits that were identified already, checked without locking */
+    private volatile IdentifyTraits identifiedTraits;
 
     SegmentBroker(boolean isDebug, String userId, Environment environment, ISegmentConfiguration configuration) {
-        this(isDebug, userId, IdentifyTraitsPersistence.INSTANCE, environment, configuration, new AnalyticsFactory());
+        this(isDebug, userId, IdentifyTraitsPersistence.INSTANCE, environment, configuration, AnalyticsRegistry.INSTANCE);
     }
 
     /* for testing purposes */
@@ -106,31 +116,99 @@ public class SegmentBroker implements IMessageBroker {
             Environment environment,
             ISegmentConfiguration configuration,
             Function<String, Analytics> analyticsFactory
+    ) {
+        this(isDebug, userId, identifyTraitsPersistence, environment, configuration, new AnalyticsFactoryProvider(analyticsFactory));
+    }
+
+    protected SegmentBroker(
+            boolean isDebug,
+            String userId,
+            IdentifyTraitsPersistence identifyTraitsPersistence,
+            Environment environment,
+            ISegmentConfiguration configuration,
+            IAnalyticsProvider analyticsProvider
     ) {
         this.userId = userId;
         this.identifyTraitsPersistence = identifyTraitsPersistence;
         this.environment = environment;
-        this.analytics = new Lazy<>(() -> analyticsFactory.apply(configuration.getWriteKey(isDebug)));
+        this.analyticsProvider = analyticsProvider;
+        this.analytics = Lazy.ofNullable(() -> analyticsProvider.acquire(configuration.getWriteKey(isDebug)));
+        this.identifyTraits = new Lazy<>(() -> createIdentifyTraits(environment));
     }
 
     @Override
     public void send(Event event) {
-        try {
-            if (analytics.get() == null) {
-                LOGGER.warn("Could not send " + event.getType() + " event '" + event.getName() + "': no analytics instance present.");
-                return;
+        Analytics analytics = this.analytics.get();
+        if (analytics == null) {
+            LOGGER.warn("Could not send " + event.getType() + " event '" + event.getName() + "': no analytics instance present.");
+            return;
+        }
+        enqueue(event, getEnvironmentMaps().context, analytics);
+        if (event.getType() == Event.Type.SHUTDOWN) {
+            // the application is about to exit, don't wait for the next flush
+            analyticsProvider.flush(analytics);
+        }
+    }
+
+    /**
+     * Sends the given events looking up the analytics instance and the context once for the whole batch.
+     * The messages are all built before they're enqueued so that they are handed to segment back to back.
+     *
+     * @param events the events to send
+     */
+    @Override
+    public void sendAll(Collection<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Analytics analytics = this.analytics.get();
+        if (analytics == null) {
+            LOGGER.warn("Could not send " + events.size() + " events: no analytics instance present.");
+            return;
+        }
+        Map<String, Object> context = getEnvironmentMaps().context;
+        List<MessageBuilder> builders = new ArrayList<>(events.size());
+        for (Event event : events) {
+            MessageBuilder builder = toMessage(event, context);
+            if (builder != null) {
+                builders.add(builder);
+            }
+        }
+        LOGGER.debug("Sending " + builders.size() + " messages to segment.");
+        builders.forEach(analytics::enqueue);
+        if (containsShutdown(events)) {
+            analyticsProvider.flush(analytics);
+        }
+    }
+
+    private static boolean containsShutdown(Collection<Event> events) {
+        for (Event event : events) {
+            if (event.getType() == Event.Type.SHUTDOWN) {
+                return true;
             }
-            Map<String, Object> context = createContext(environment);
+        }
+        return false;
+    }
+
+    private void enqueue(Event event, Map<String, Object> context, Analytics analytics) {
+        MessageBuilder builder = toMessage(event, context);
+        if (builder != null) {
+            LOGGER.debug("Sending message " + builder.type() + " to segment.");
+            analytics.enqueue(builder);
+        }
+    }
+
+    private MessageBuilder toMessage(Event event, Map<String, Object> context) {
+        try {
             SegmentType segmentType = SegmentType.valueOf(event.getType());
             MessageBuilder builder = segmentType.toMessage(event, context, this);
             if (builder == null) {
                 LOGGER.debug("No message to be sent.");
-            } else {
-                LOGGER.debug("Sending message " + builder.type() + " to segment.");
-                analytics.get().enqueue(builder);
             }
+            return builder;
         } catch (IllegalArgumentException e) {
             LOGGER.warn("Could not send " + event.getName() + " event: unknown type '" + event.getType() + "'.");
+            return null;
         }
     }
 
@@ -146,13 +224,9 @@ public class SegmentBroker implements IMessageBroker {
 
     private boolean addTraits(IdentifyMessage.Builder builder, Event event) {
         if (environment != null) {
-            IdentifyTraits identifyTraits = new IdentifyTraits(
-                    environment.getLocale(),
-                    environment.getTimezone(),
-                    environment.getPlatform().getName(),
-                    environment.getPlatform().getVersion(),
-                    environment.getPlatform().getDistribution());
-            if (!haveChanged(identifyTraits, identifyTraitsPersistence)) {
+            IdentifyTraits identifyTraits = this.identifyTraits.get();
+            if (identifyTraits.equals(identifiedTraits)
+                    || !haveChanged(identifyTraits, identifyTraitsPersistence)) {
                 LOGGER.debug("Skipping identify message: already sent." + identifyTraits);
                 return false;
             }
@@ -161,21 +235,33 @@ public class SegmentBroker implements IMessageBroker {
         return true;
     }
 
+    private static IdentifyTraits createIdentifyTraits(Environment environment) {
+        return new IdentifyTraits(
+                environment.getLocale(),
+                environment.getTimezone(),
+                environment.getPlatform().getName(),
+                environment.getPlatform().getVersion(),
+                environment.getPlatform().getDistribution());
+    }
+
     /**
      * Saves the given identify traits to persistence if persistence exists.
+     * Remembers the given traits as identified so that they are not checked against persistence again.
      *
      * @param identifyTraits the traits to save
      * @return true if saving occurred or no persistence was present.
      */
     private synchronized boolean haveChanged(IdentifyTraits identifyTraits, IdentifyTraitsPersistence persistence) {
+        boolean changed = true;
         if (identifyTraitsPersistence != null) {
             if (identifyTraits.equals(persistence.get())) {
-                return false;
+                changed = false;
             } else {
                 persistence.set(identifyTraits);
             }
         }
-        return true;
+        this.identifiedTraits = identifyTraits;
+        return changed;
     }
 
     private Map<String, ?> addIdentifyTraits(final IdentifyTraits identifyTraits, final Map<String, String> properties) {
@@ -195,14 +281,8 @@ public class SegmentBroker implements IMessageBroker {
     }
 
     private Map<String, ?> addTrackProperties(final Map<String, String> properties) {
-        if (environment != null) {
-            Application application = environment.getIde();
-            putIfNotNull(PROP_APP_NAME, application.getName(), properties);
-            putIfNotNull(PROP_APP_VERSION, application.getVersion(), properties);
-            application.getProperties().forEach(
-                    appProperty -> putIfNotNull(appProperty.getKey(), String.valueOf(appProperty.getValue()), properties));
-            putIfNotNull(PROP_EXTENSION_NAME, environment.getPlugin().getName(), properties);
-            putIfNotNull(PROP_EXTENSION_VERSION, environment.getPlugin().getVersion(), properties);
+        if (properties != null) {
+            properties.putAll(getEnvironmentMaps().trackProperties);
         }
         return properties;
     }
@@ -214,6 +294,36 @@ public class SegmentBroker implements IMessageBroker {
                 .context(context);
     }
 
+    /**
+     * Returns the context and track properties for the environment of this broker.
+     * They are only created again if the properties of the application changed.
+     */
+    private EnvironmentMaps getEnvironmentMaps() {
+        EnvironmentMaps maps = this.environmentMaps;
+        if (maps == null
+                || !maps.isUpToDate(environment)) {
+            // read modifications before creating the maps so that concurrent modifications are not missed
+            int modifications = EnvironmentMaps.getApplicationModifications(environment);
+            maps = new EnvironmentMaps(environment, modifications, createContext(environment), createTrackProperties(environment));
+            this.environmentMaps = maps;
+        }
+        return maps;
+    }
+
+    private Map<String, String> createTrackProperties(Environment environment) {
+        Map<String, String> properties = new HashMap<>();
+        if (environment != null) {
+            Application application = environment.getIde();
+            putIfNotNull(PROP_APP_NAME, application.getName(), properties);
+            putIfNotNull(PROP_APP_VERSION, application.getVersion(), properties);
+            application.getProperties().forEach(
+                    appProperty -> putIfNotNull(appProperty.getKey(), String.valueOf(appProperty.getValue()), properties));
+            putIfNotNull(PROP_EXTENSION_NAME, environment.getPlugin().getName(), properties);
+            putIfNotNull(PROP_EXTENSION_VERSION, environment.getPlugin().getVersion(), properties);
+        }
+        return Collections.unmodifiableMap(properties);
+    }
+
     private void putIfNotNull(String key, String value, Map<String, String> properties) {
         if (key == null
                 || value == null
@@ -227,7 +337,7 @@ public class SegmentBroker implements IMessageBroker {
         if (environment == null) {
             return Collections.emptyMap();
         }
-        return new MapBuilder()
+        return toUnmodifiable(new MapBuilder()
                 .mapPair(PROP_APP)
                     .pair(PROP_NAME, environment.getIde().getName())
                     .pair(PROP_VERSION, environment.getIde().getVersion())
@@ -243,32 +353,86 @@ public class SegmentBroker implements IMessageBroker {
                     .pair(PROP_VERSION, environment.getPlatform().getVersion())
                     .build()
                 .pair(PROP_TIMEZONE, environment.getTimezone())
-                .build();
+                .build());
     }
 
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toUnmodifiable(Map<String, Object> map) {
+        map.replaceAll((key, value) -> value instanceof Map ?
+                Collections.unmodifiableMap((Map<String, Object>) value)
+                : value);
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Releases the analytics instance that this broker is sending to.
+     * The instance is flushed and shut down once all brokers that share it released it.
+     * Nothing is released if this broker never sent anything, the instance is not created for it.
+     * The instance is released once only, even if this broker is disposed several times.
+     */
     @Override
     public void dispose() {
-        analytics.get().flush();
-        analytics.get().shutdown();
+        Analytics analytics = this.analytics.getIfCreated();
+        if (analytics != null
+                && released.compareAndSet(false, true)) {
+            analyticsProvider.release(analytics);
+        }
+    }
+
+    /**
+     * The context and track properties for an environment.
+     */
+    private static class EnvironmentMaps {
+
+        private final Environment environment;
+        private final int applicationModifications;
+        private final Map<String, Object> context;
+        private final Map<String, String> trackProperties;
+
+        private EnvironmentMaps(Environment environment, int applicationModifications, Map<String, Object> context, Map<String, String> trackProperties) {
+            this.environment = environment;
+            this.applicationModifications = applicationModifications;
+            this.context = context;
+            this.trackProperties = trackProperties;
+        }
+
+        private boolean isUpToDate(Environment environment) {
+            return this.environment == environment
+                    && applicationModifications == getApplicationModifications(environment);
+        }
+
+        private static int getApplicationModifications(Environment environment) {
+            if (environment == null
+                    || environment.getIde() == null) {
+                return 0;
+            }
+            return environment.getIde().getModificationCount();
+        }
     }
 
-    private static class AnalyticsFactory implements Function<String, Analytics> {
+    /**
+     * A provider that creates an {@link Analytics} instance that's not shared with other brokers.
+     */
+    private static class AnalyticsFactoryProvider implements IAnalyticsProvider {
 
-        private static final int FLUSH_INTERVAL = 10000;
-        private static final int FLUSH_QUEUE_SIZE = 10;
+        private final Function<String, Analytics> factory;
+
+        private AnalyticsFactoryProvider(Function<String, Analytics> factory) {
+            this.factory = factory;
+        }
 
-        @Nullable
         @Override
-        public Analytics apply(String writeKey) {
-            if (writeKey == null) {
-                LOGGER.warn("Could not create Segment Analytics instance, missing writeKey.");
-                return null;
+        public Analytics acquire(String writeKey) {
+            return factory.apply(writeKey);
+        }
+
+        @Override
+        public void release(Analytics analytics) {
+            if (analytics == null) {
+                return;
             }
-            LOGGER.debug("Creating Segment Analytics instance using " + writeKey + " writeKey.");
-            return Analytics.builder(writeKey)
-                    .flushQueueSize(FLUSH_QUEUE_SIZE)
-                    .flushInterval(FLUSH_INTERVAL, TimeUnit.MILLISECONDS)
-                    .build();
+            analytics.flush();
+            analytics.shutdown();
         }
     }
 }
@@ -27,7 +27,13 @@ public class SegmentConfiguration extends CompositeConfiguration implements ISeg
     private static final String SEGMENT_PROPERTIES = "segment.properties";
     private static final String SEGMENT_DEFAULTS_PROPERTIES = "segment-defaults.properties";
 
+    private static final SystemProperties SYSTEM_PROPERTIES = new SystemProperties();
+    // segment-defaults.properties in this plugin
+    private static final ClasspathConfiguration DEFAULTS =
+            new ClasspathConfiguration(Paths.get(SEGMENT_DEFAULTS_PROPERTIES), SegmentConfiguration.class.getClassLoader());
+
     private final ClasspathConfiguration consumerClasspathConfiguration;
+    private final List<IConfiguration> configurations;
 
     SegmentConfiguration(ClassLoader classLoader) {
         this(new ClasspathConfiguration(Paths.get(SEGMENT_PROPERTIES), classLoader));
@@ -35,6 +41,11 @@ public class SegmentConfiguration extends CompositeConfiguration implements ISeg
 
     SegmentConfiguration(ClasspathConfiguration consumerClasspathConfiguration) {
         this.consumerClasspathConfiguration = consumerClasspathConfiguration;
+        this.configurations = Arrays.asList(
+                SYSTEM_PROPERTIES,
+                // segment.properties in consuming plugin
+                consumerClasspathConfiguration,
+                DEFAULTS);
     }
 
     @Override
@@ -44,12 +55,15 @@ public class SegmentConfiguration extends CompositeConfiguration implements ISeg
 
     @Override
     public List<IConfiguration> getConfigurations() {
-        return Arrays.asList(
-                new SystemProperties(),
-                // segment.properties in consuming plugin
-                consumerClasspathConfiguration,
-                // segment-defaults.properties in this plugin
-                new ClasspathConfiguration(Paths.get(SEGMENT_DEFAULTS_PROPERTIES), getClass().getClassLoader()));
+        return configurations;
+    }
+
+    /**
+     * Loads the properties files of the consuming plugin and of this plugin again when they are accessed next.
+     */
+    public void reload() {
+        consumerClasspathConfiguration.reload();
+        DEFAULTS.reload();
     }
 
     @Override
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.segment.analytics.gson.AutoValueAdapterFactory;
+import com.segment.analytics.gson.ISO8601DateAdapter;
+
+import java.util.Date;
+
+/**
+ * The {@link Gson} instance that serializes segment messages the same way as the segment client does.
+ */
+class SegmentGson {
+
+    static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new AutoValueAdapterFactory())
+            .registerTypeAdapter(Date.class, new ISO8601DateAdapter())
+            .create();
+
+    private SegmentGson() {}
+}
@@ -0,0 +1,337 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.redhat.devtools.intellij.telemetry.core.util.Directories;
+import com.redhat.devtools.intellij.telemetry.core.util.RecordSpool;
+import com.segment.analytics.Analytics;
+import com.segment.analytics.Callback;
+import com.segment.analytics.MessageInterceptor;
+import com.segment.analytics.messages.IdentifyMessage;
+import com.segment.analytics.messages.Message;
+import com.segment.analytics.messages.MessageBuilder;
+import com.segment.analytics.messages.PageMessage;
+import com.segment.analytics.messages.TrackMessage;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.redhat.devtools.intellij.telemetry.core.service.segment.SegmentGson.GSON;
+
+/**
+ * A write-ahead spool for the messages that are enqueued to an {@link Analytics} instance.
+ * Each message is appended to a {@link RecordSpool} when it's enqueued and acknowledged once segment
+ * confirmed its delivery. Messages whose delivery failed are enqueued again in the same session, with a delay
+ * that doubles with each attempt, and are left for the next session once they failed {@link #MAX_RETRIES} times.
+ * Messages that were not delivered when the IDE was shut down are replayed by the next session.
+ * Replayed and retried messages keep their message id so that segment can deduplicate messages that were
+ * delivered but not acknowledged.
+ * <p>
+ * Messages that were not acknowledged are bounded by the maximum size and age of the spool,
+ * the oldest files are discarded once these are exceeded.
+ */
+class SegmentSpool implements MessageInterceptor, Callback {
+
+    private static final Logger LOGGER = Logger.getInstance(SegmentSpool.class);
+
+    private static final Path DIRECTORY = Directories.RED_HAT.resolve("telemetry-spool");
+
+    private static final long MAX_FILE_SIZE = 1024 * 1024; // 1 MB
+    private static final long MAX_FILE_AGE = TimeUnit.HOURS.toMillis(1);
+    private static final long MAX_TOTAL_SIZE = 10 * 1024 * 1024; // 10 MB
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(7);
+    private static final long COMMIT_INTERVAL = 1000; // ms
+    /* segment drops messages that exceed 32kb */
+    private static final int MAX_MESSAGE_SIZE = 32 * 1024;
+    static final long RETRY_DELAY = TimeUnit.MINUTES.toMillis(1);
+    static final int MAX_RETRIES = 5;
+
+    private final RecordSpool spool;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final ScheduledFuture<?> commit;
+    /* file ids of the messages that were not acknowledged yet, by message id */
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    /* the messages whose delivery failed and that wait to be retried, by message id */
+    private final Map<String, Failed> failed = new ConcurrentHashMap<>();
+    /* file ids of the retried messages that are enqueued again, they are not spooled a second time */
+    private final Map<String, Long> retrying = new ConcurrentHashMap<>();
+    /* the number of failed deliveries, by message id */
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    private volatile Analytics analytics;
+    private ScheduledFuture<?> retry;
+    private boolean closed;
+
+    /**
+     * Opens the spool for the given write key. Returns {@code null} if it cannot be opened,
+     * ex. because it is used by another IDE that's running concurrently.
+     *
+     * @param writeKey the segment write key
+     * @return the spool for the given write key
+     */
+    @Nullable
+    static SegmentSpool open(String writeKey) {
+        Path directory = DIRECTORY.resolve(Integer.toHexString(writeKey.hashCode()));
+        try {
+            RecordSpool spool = RecordSpool.open(directory, MAX_FILE_SIZE, MAX_FILE_AGE, MAX_TOTAL_SIZE, MAX_AGE);
+            return new SegmentSpool(spool,
+                    AppExecutorUtil.getAppScheduledExecutorService(),
+                    AppExecutorUtil.getAppExecutorService());
+        } catch (IOException e) {
+            LOGGER.warn("Could not open telemetry spool in " + directory + ". Unsent messages will not be kept.", e);
+            return null;
+        }
+    }
+
+    /* for testing purposes */
+    SegmentSpool(RecordSpool spool, ScheduledExecutorService scheduler, Executor executor) {
+        this.spool = spool;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.commit = scheduler.scheduleWithFixedDelay(this::commit, COMMIT_INTERVAL, COMMIT_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Message intercept(Message message) {
+        append(message);
+        return message;
+    }
+
+    /**
+     * Returns an interceptor that spools the messages and counts them in the given controller with the size
+     * of their record. Each message is thus serialized once only, for both the spool and the controller.
+     *
+     * @param controller the controller to count the messages in
+     * @return the interceptor
+     */
+    MessageInterceptor countingIn(FlushController controller) {
+        return message -> {
+            controller.enqueued(append(message));
+            return message;
+        };
+    }
+
+    /**
+     * Appends the given message to the spool unless it exceeds the size that segment accepts.
+     *
+     * @param message the message to spool
+     * @return the number of bytes of the serialized message
+     */
+    private long append(Message message) {
+        if (message == null) {
+            return 0;
+        }
+        byte[] record = GSON.toJson(message).getBytes(StandardCharsets.UTF_8);
+        if (record.length > MAX_MESSAGE_SIZE) {
+            return record.length;
+        }
+        Long retried = retrying.remove(message.messageId());
+        if (retried != null) {
+            // spooled already
+            pending.put(message.messageId(), retried);
+            return record.length;
+        }
+        try {
+            long fileId = spool.append(record);
+            pending.put(message.messageId(), fileId);
+        } catch (IOException e) {
+            LOGGER.warn("Could not spool message " + message.messageId() + ".", e);
+        }
+        return record.length;
+    }
+
+    @Override
+    public void success(Message message) {
+        failures.remove(message.messageId());
+        Long fileId = pending.remove(message.messageId());
+        if (fileId != null) {
+            spool.ack(fileId);
+        }
+    }
+
+    @Override
+    public void failure(Message message, Throwable throwable) {
+        Long fileId = pending.remove(message.messageId());
+        if (fileId == null) {
+            return;
+        }
+        int failures = this.failures.merge(message.messageId(), 1, Integer::sum);
+        if (failures > MAX_RETRIES) {
+            // keep it in the spool, it is replayed by the next session
+            this.failures.remove(message.messageId());
+            LOGGER.debug("Could not deliver message " + message.messageId() + ", keeping it for the next session.", throwable);
+            return;
+        }
+        LOGGER.debug("Could not deliver message " + message.messageId() + ", retrying it.", throwable);
+        failed.put(message.messageId(), new Failed(message, fileId));
+        scheduleRetry(RETRY_DELAY << (failures - 1));
+    }
+
+    private synchronized void scheduleRetry(long delay) {
+        if (closed
+                || analytics == null
+                || retry != null) {
+            return;
+        }
+        this.retry = scheduler.schedule(this::retry, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enqueues the messages whose delivery failed again. They are still in the spool and are not appended again.
+     */
+    private void retry() {
+        synchronized (this) {
+            this.retry = null;
+            if (closed) {
+                return;
+            }
+        }
+        for (Failed message : failed.values()) {
+            failed.remove(message.message.messageId());
+            MessageBuilder<?, ?> builder = toBuilder(GSON.toJson(message.message).getBytes(StandardCharsets.UTF_8));
+            if (builder == null) {
+                continue;
+            }
+            retrying.put(message.message.messageId(), message.fileId);
+            try {
+                analytics.enqueue(builder);
+            } catch (RuntimeException e) {
+                retrying.remove(message.message.messageId());
+                failures.remove(message.message.messageId());
+                LOGGER.debug("Could not retry message " + message.message.messageId() + ", keeping it for the next session.", e);
+            }
+        }
+    }
+
+    /**
+     * Replays the messages that were left over by a previous session to the given analytics instance
+     * and retries the messages whose delivery fails in this session.
+     * Replaying happens in the background, one spool file at a time.
+     * Replayed messages are spooled again so that they're not lost if they cannot be delivered in this session either.
+     *
+     * @param analytics the analytics instance to replay the messages to
+     */
+    void replay(Analytics analytics) {
+        this.analytics = analytics;
+        executor.execute(() -> {
+            for (Path path : spool.getRecovered()) {
+                replay(path, analytics);
+            }
+        });
+    }
+
+    private void replay(Path path, Analytics analytics) {
+        try {
+            List<byte[]> records = RecordSpool.read(path);
+            LOGGER.debug("Replaying " + records.size() + " messages from spool file " + path + ".");
+            for (byte[] record : records) {
+                MessageBuilder<?, ?> builder = toBuilder(record);
+                if (builder != null) {
+                    analytics.enqueue(builder);
+                }
+            }
+            // replayed messages must be durable before their previous copy is removed
+            spool.commit();
+            spool.delete(path);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not replay messages from spool file " + path + ".", e);
+        }
+    }
+
+    private void commit() {
+        try {
+            spool.commit();
+        } catch (IOException e) {
+            LOGGER.warn("Could not commit telemetry spool.", e);
+        }
+    }
+
+    /**
+     * Forces the spooled messages to disk and closes the spool.
+     * Messages that were not acknowledged yet are kept for the next session, so are the ones that wait to be retried.
+     */
+    void close() {
+        synchronized (this) {
+            this.closed = true;
+            if (retry != null) {
+                retry.cancel(false);
+            }
+        }
+        commit.cancel(false);
+        spool.close();
+    }
+
+    @Nullable
+    static MessageBuilder<?, ?> toBuilder(byte[] record) {
+        try {
+            JsonObject json = JsonParser.parseString(new String(record, StandardCharsets.UTF_8)).getAsJsonObject();
+            JsonElement type = json.get("type");
+            if (type == null) {
+                return null;
+            }
+            Message.Type messageType = Message.Type.valueOf(type.getAsString());
+            switch (messageType) {
+                case track:
+                    TrackMessage track = GSON.fromJson(json, TrackMessage.class);
+                    return restore(track.toBuilder(), track);
+                case identify:
+                    IdentifyMessage identify = GSON.fromJson(json, IdentifyMessage.class);
+                    return restore(identify.toBuilder(), identify);
+                case page:
+                    PageMessage page = GSON.fromJson(json, PageMessage.class);
+                    return restore(page.toBuilder(), page);
+                default:
+                    return null;
+            }
+        } catch (JsonParseException | IllegalStateException | IllegalArgumentException e) {
+            LOGGER.warn("Could not read spooled message.", e);
+            return null;
+        }
+    }
+
+    /**
+     * A message whose delivery failed and the id of the spool file that holds it.
+     */
+    private static class Failed {
+
+        private final Message message;
+        private final long fileId;
+
+        private Failed(Message message, long fileId) {
+            this.message = message;
+            this.fileId = fileId;
+        }
+    }
+
+    /**
+     * Restores the message id and timestamp which are not copied by {@code Message#toBuilder()}.
+     */
+    private static MessageBuilder<?, ?> restore(MessageBuilder<?, ?> builder, Message message) {
+        builder.messageId(message.messageId());
+        builder.timestamp(message.timestamp());
+        return builder;
+    }
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Memoizes the results of an anonymization so that repeated strings, ex. the same error reported over and
+ * over by a background job, cost a lookup instead of a scan.
+ * <p>
+ * The cache is bounded by the number of entries and by their weight, which is the number of characters of
+ * the raw and, if it changed, the anonymized string. The least recently used entries are evicted first.
+ * Strings that weigh more than a fraction of the maximum weight are anonymized without being cached.
+ * <p>
+ * A cache is bound to the anonymization that it memoizes. A new cache is thus created whenever the rules
+ * of the anonymization change.
+ */
+final class AnonymizationCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 512;
+    static final int DEFAULT_MAX_WEIGHT = 256 * 1024;
+    /* strings heavier than max weight / this are not cached */
+    private static final int MAX_ENTRY_WEIGHT_FRACTION = 16;
+    /* the value of strings that the anonymization didn't change, the given instance is returned for those */
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String UNCHANGED = new String("");
+
+    private final UnaryOperator<String> anonymization;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long maxEntryWeight;
+    /* in access order, the eldest entry is the least recently used one */
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    AnonymizationCache(UnaryOperator<String> anonymization) {
+        this(anonymization, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT);
+    }
+
+    AnonymizationCache(UnaryOperator<String> anonymization, int maxEntries, long maxWeight) {
+        this.anonymization = anonymization;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxWeight = Math.max(1, maxWeight);
+        this.maxEntryWeight = Math.max(1, maxWeight / MAX_ENTRY_WEIGHT_FRACTION);
+    }
+
+    /**
+     * Returns the anonymized given string. It is looked up in the cache and anonymized if it's not in there.
+     *
+     * @param string the string to anonymize
+     * @return the anonymized string
+     */
+    String anonymize(String string) {
+        if (string == null
+                || string.isEmpty()) {
+            return string;
+        }
+        synchronized (this) {
+            String anonymized = entries.get(string);
+            if (anonymized != null) {
+                hits++;
+                return anonymized == UNCHANGED ? string : anonymized;
+            }
+            misses++;
+        }
+        String anonymized = anonymization.apply(string);
+        String value = anonymized == string ? UNCHANGED : anonymized;
+        long weight = weightOf(string, value);
+        if (weight <= maxEntryWeight) {
+            put(string, value, weight);
+        }
+        return anonymized;
+    }
+
+    private synchronized void put(String string, String value, long weight) {
+        String previous = entries.put(string, value);
+        if (previous != null) {
+            // anonymized concurrently
+            this.weight -= weightOf(string, previous);
+        }
+        this.weight += weight;
+        Iterator<Map.Entry<String, String>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries
+                || this.weight > maxWeight)
+                && iterator.hasNext()) {
+            Map.Entry<String, String> eldest = iterator.next();
+            this.weight -= weightOf(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns the weight of an entry. The value of an unchanged string doesn't weigh anything.
+     */
+    private static long weightOf(String string, String value) {
+        return string.length() + value.length();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getWeight() {
+        return weight;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+}
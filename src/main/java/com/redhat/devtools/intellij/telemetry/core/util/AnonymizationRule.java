@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * A rule that tells what to replace when anonymizing a string. Rules are registered with an {@link Anonymizer}
+ * which compiles all of them into a single matcher that's applied in one pass.
+ * <ul>
+ *     <li>{@link #literal(String, String)} replaces a given string, ex. a project name</li>
+ *     <li>{@link #prefix(String, String)} replaces a given prefix and the rest of the token up to the next
+ *     whitespace or quote, ex. a cluster url or a bearer token</li>
+ *     <li>{@link #pattern(Pattern, String)} replaces the matches of a regular expression, ex. windows paths</li>
+ *     <li>{@link #matcher(Matcher, String)} replaces what a custom {@link Matcher} matches</li>
+ * </ul>
+ * Of overlapping matches the one that starts first wins, the longest one if they start at the same position.
+ */
+public final class AnonymizationRule {
+
+    /**
+     * Matches a string at a given position.
+     */
+    @FunctionalInterface
+    public interface Matcher {
+
+        /**
+         * Returns the (exclusive) end of the match that starts at the given position or {@code -1} if there's none.
+         * It is called for each position of the string and should thus return quickly if there's no match.
+         *
+         * @param string the string to match
+         * @param start the position that the match has to start at
+         * @return the end of the match or -1
+         */
+        int end(CharSequence string, int start);
+    }
+
+    private enum Kind {
+        LITERAL, PREFIX, PATTERN, MATCHER
+    }
+
+    private final Kind kind;
+    private final String literal;
+    private final Pattern pattern;
+    private final Matcher matcher;
+    private final String replacement;
+
+    private AnonymizationRule(Kind kind, String literal, Pattern pattern, Matcher matcher, String replacement) {
+        this.kind = kind;
+        this.literal = literal;
+        this.pattern = pattern;
+        this.matcher = matcher;
+        this.replacement = Objects.requireNonNull(replacement);
+    }
+
+    public static AnonymizationRule literal(String literal, String replacement) {
+        return new AnonymizationRule(Kind.LITERAL, Objects.requireNonNull(literal), null, null, replacement);
+    }
+
+    public static AnonymizationRule prefix(String prefix, String replacement) {
+        return new AnonymizationRule(Kind.PREFIX, Objects.requireNonNull(prefix), null, null, replacement);
+    }
+
+    /**
+     * Returns a rule that replaces the matches of the given regular expression.
+     * Back references are not supported given that all expressions are combined into a single one.
+     *
+     * @param regex the regular expression
+     * @param replacement the replacement
+     * @return the rule
+     */
+    public static AnonymizationRule pattern(String regex, String replacement) {
+        return pattern(Pattern.compile(regex), replacement);
+    }
+
+    /**
+     * Returns a rule that replaces the matches of the given pattern.
+     * Back references are not supported given that all expressions are combined into a single one.
+     *
+     * @param pattern the pattern
+     * @param replacement the replacement
+     * @return the rule
+     */
+    public static AnonymizationRule pattern(Pattern pattern, String replacement) {
+        return new AnonymizationRule(Kind.PATTERN, null, Objects.requireNonNull(pattern), null, replacement);
+    }
+
+    public static AnonymizationRule matcher(Matcher matcher, String replacement) {
+        return new AnonymizationRule(Kind.MATCHER, null, null, Objects.requireNonNull(matcher), replacement);
+    }
+
+    void addTo(Scrubber.Builder builder) {
+        switch (kind) {
+            case LITERAL:
+                builder.literal(literal, replacement);
+                break;
+            case PREFIX:
+                builder.prefix(literal, replacement);
+                break;
+            case PATTERN:
+                builder.pattern(pattern, replacement);
+                break;
+            case MATCHER:
+                builder.matcher(matcher, replacement);
+                break;
+        }
+    }
+}
@@ -10,7 +10,8 @@
  ******************************************************************************/
 package com.redhat.devtools.intellij.telemetry.core.util;
 
-import java.util.regex.Pattern;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class AnonymizeUtils {
 
@@ -20,29 +21,92 @@ public class AnonymizeUtils {
     public static final String ANONYMOUS_HOMEDIR = "<HOMEDIR>";
     public static final String TMP_DIR = System.getProperty("java.io.tmpdir");
     public static final String ANONYMOUS_TMPDIR = "<TMPDIR>";
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}",
-            Pattern.CASE_INSENSITIVE);
     public static final String ANONYMOUS_EMAIL = "<EMAIL>";
-    private static final Pattern IP_PATTERN = Pattern.compile(
-            "(([01]?\\d\\d?|2[0-4]\\d|25[0-5])\\.){3}([01]?\\d\\d?|2[0-4]\\d|25[0-5])");
     public static final String ANONYMOUS_IP = "<IP>";
     public static final String ANONYMOUS_RESOURCENAME = "<RESOURCENAME>";
     public static final String ANONYMOUS_NAMESPACE = "<NAMESPACE>";
 
+    /* the registered resource names and namespaces are bounded, the oldest ones are dropped */
+    private static final int MAX_RESOURCES = 256;
+    private static final Map<String, String> RESOURCES = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_RESOURCES;
+        }
+    };
+
+    private static final Scrubber EMAIL_SCRUBBER = Scrubber.builder()
+            .emails(ANONYMOUS_EMAIL)
+            .build();
+    private static final Scrubber IP_SCRUBBER = Scrubber.builder()
+            .ips(ANONYMOUS_IP)
+            .build();
+    /* memoizes the anonymization with the built-in rules, replaced whenever they change */
+    private static volatile AnonymizationCache cache = createCache();
+    /* incremented whenever the built-in rules change */
+    private static volatile int generation = 0;
+
     private AnonymizeUtils() {
     }
 
+    /**
+     * Replaces the tmp dir, the home dir, the user name, the registered resource names and namespaces,
+     * ip and email addresses in the given string. The string is scanned once, the given instance is returned
+     * if there was nothing to replace. Results are memoized, repeated strings are thus only scanned once.
+     *
+     * @param string the string to anonymize
+     * @return the anonymized string
+     */
     public static String anonymize(String string) {
-        return anonymizeEmail(
-                anonymizeUserName(
-                        anonymizeIP(
-                                anonymizeHomeDir(
-                                        anonymizeTmpDir(string)
-                                )
-                        )
-                )
-        );
+        return cache.anonymize(string);
+    }
+
+    /**
+     * Registers the given resource name and namespace so that {@link #anonymize(String)} replaces them, too.
+     *
+     * @param name the name of a resource
+     * @param namespace the namespace of a resource
+     */
+    public static void registerResource(String name, String namespace) {
+        synchronized (RESOURCES) {
+            if (name != null) {
+                RESOURCES.put(name, ANONYMOUS_RESOURCENAME);
+            }
+            if (namespace != null) {
+                RESOURCES.put(namespace, ANONYMOUS_NAMESPACE);
+            }
+            cache = createCache();
+            generation++;
+        }
+    }
+
+    private static AnonymizationCache createCache() {
+        Scrubber.Builder builder = Scrubber.builder();
+        addBuiltInRules(builder);
+        return new AnonymizationCache(builder.build()::scrub);
+    }
+
+    /**
+     * Adds the built-in rules to the given builder: the tmp dir, the home dir, the user name,
+     * the registered resource names and namespaces, ip and email addresses.
+     */
+    static void addBuiltInRules(Scrubber.Builder builder) {
+        builder.literal(TMP_DIR, ANONYMOUS_TMPDIR)
+                .literal(HOME_DIR, ANONYMOUS_HOMEDIR)
+                .literal(USER_NAME, ANONYMOUS_USER_NAME)
+                .ips(ANONYMOUS_IP)
+                .emails(ANONYMOUS_EMAIL);
+        synchronized (RESOURCES) {
+            RESOURCES.forEach(builder::literal);
+        }
+    }
+
+    static int getGeneration() {
+        return generation;
+    }
+
+    static AnonymizationCache getCache() {
+        return cache;
     }
 
     public static String anonymizeResource(String name, String namespace, String string) {
@@ -72,7 +136,7 @@ public class AnonymizeUtils {
                 || string.isEmpty()) {
             return string;
         }
-        return EMAIL_PATTERN.matcher(string).replaceAll(ANONYMOUS_EMAIL);
+        return EMAIL_SCRUBBER.scrub(string);
     }
 
     public static String anonymizeHomeDir(String string) {
@@ -96,7 +160,7 @@ public class AnonymizeUtils {
                 || string.isEmpty()) {
             return string;
         }
-        return IP_PATTERN.matcher(string).replaceAll(ANONYMOUS_IP);
+        return IP_SCRUBBER.scrub(string);
     }
 
 }
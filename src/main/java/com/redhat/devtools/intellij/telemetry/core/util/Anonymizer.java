@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Anonymizes the properties and errors of the messages of a plugin with the {@link AnonymizationRule}s that
+ * the plugin registered.
+ * The rules are compiled into a single matcher when they're first used after a change. Errors are anonymized
+ * with the built-in rules of {@link AnonymizeUtils} and the registered rules in one pass,
+ * properties with the registered rules only. Anonymized errors are memoized.
+ */
+public class Anonymizer {
+
+    private final List<AnonymizationRule> rules = new ArrayList<>();
+    private volatile Compiled compiled;
+
+    /**
+     * Registers the given rules. They should be registered once, ex. at startup, given that the rules are
+     * compiled again after each change.
+     *
+     * @param rules the rules to register
+     * @return this anonymizer
+     */
+    public Anonymizer register(AnonymizationRule... rules) {
+        if (rules == null
+                || rules.length == 0) {
+            return this;
+        }
+        synchronized (this) {
+            this.rules.addAll(Arrays.asList(rules));
+            this.compiled = null;
+        }
+        return this;
+    }
+
+    /**
+     * Anonymizes the given error with the built-in and the registered rules.
+     *
+     * @param error the error to anonymize
+     * @return the anonymized error
+     */
+    public String anonymizeError(String error) {
+        Compiled compiled = getCompiled();
+        if (compiled.errors == null) {
+            return AnonymizeUtils.anonymize(error);
+        }
+        return compiled.errors.anonymize(error);
+    }
+
+    /**
+     * Anonymizes the given property value with the registered rules.
+     * Returns the given value if there are no registered rules.
+     *
+     * @param value the value to anonymize
+     * @return the anonymized value
+     */
+    public String anonymizeProperty(String value) {
+        Compiled compiled = getCompiled();
+        if (compiled.properties == null) {
+            return value;
+        }
+        return compiled.properties.scrub(value);
+    }
+
+    /**
+     * Returns the compiled rules. The rules are compiled again if they changed or if the built-in rules changed.
+     */
+    private Compiled getCompiled() {
+        Compiled compiled = this.compiled;
+        int generation = AnonymizeUtils.getGeneration();
+        if (compiled != null
+                && compiled.generation == generation) {
+            return compiled;
+        }
+        return compile(generation);
+    }
+
+    private synchronized Compiled compile(int generation) {
+        Compiled compiled = this.compiled;
+        if (compiled != null
+                && compiled.generation == generation) {
+            return compiled;
+        }
+        if (rules.isEmpty()) {
+            compiled = new Compiled(generation, null, null);
+            this.compiled = compiled;
+            return compiled;
+        }
+        Scrubber.Builder errors = Scrubber.builder();
+        AnonymizeUtils.addBuiltInRules(errors);
+        Scrubber.Builder properties = Scrubber.builder();
+        for (AnonymizationRule rule : rules) {
+            rule.addTo(errors);
+            rule.addTo(properties);
+        }
+        compiled = new Compiled(generation, new AnonymizationCache(errors.build()::scrub), properties.build());
+        this.compiled = compiled;
+        return compiled;
+    }
+
+    private static class Compiled {
+        private final int generation;
+        /* memoized given that the same errors are often reported repeatedly, null if there are no registered rules */
+        private final AnonymizationCache errors;
+        /* null if there are no registered rules */
+        private final Scrubber properties;
+
+        private Compiled(int generation, AnonymizationCache errors, Scrubber properties) {
+            this.generation = generation;
+            this.errors = errors;
+            this.properties = properties;
+        }
+    }
+}
@@ -31,7 +31,8 @@ package com.redhat.devtools.intellij.telemetry.core.util;
 
 import com.intellij.openapi.util.text.StringUtil;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.PatternSyntaxException;
 
 /**
@@ -43,27 +44,34 @@ import java.util.regex.PatternSyntaxException;
  *     <li>ranges {@code [1-4]}</li>
  * </ul>
  * It does not support extended (advanced-, posix-) glob expressions like alternatives {@code @(a|b) or +(a|b) etc )}
+ * The pattern is compiled to a {@link GlobMatcher} which does not allocate any memory when matching.
  */
 public class BasicGlobPattern {
 
-    private static final String regexMetaChars = ".^$+{[]|()";
-    private static final String globMetaChars = "\\*?[{";
-
-    private final Pattern globPattern;
+    private final List<List<GlobElement>> alternatives;
+    private final GlobMatcher matcher;
 
     public static BasicGlobPattern compile(String glob) {
         return new Factory().create(glob);
     }
 
-    private BasicGlobPattern(Pattern globPattern) {
-        this.globPattern = globPattern;
+    private BasicGlobPattern(List<List<GlobElement>> alternatives) {
+        this.alternatives = alternatives;
+        this.matcher = GlobMatcher.create(alternatives);
     }
 
     public boolean matches(String toMatch) {
         if (StringUtil.isEmpty(toMatch)) {
             return false;
         }
-        return globPattern.matcher(toMatch).matches();
+        return matcher.matches(toMatch);
+    }
+
+    /**
+     * Returns the brace-expanded alternatives of this pattern.
+     */
+    List<List<GlobElement>> getAlternatives() {
+        return alternatives;
     }
 
     private static final class Factory {
@@ -73,12 +81,13 @@ public class BasicGlobPattern {
             public static final char EOL = 0;
 
             private final String globPattern;
-            private final StringBuilder builder = new StringBuilder("^");
+            /* the alternatives that were expanded so far */
+            private List<List<GlobElement>> expanded = new ArrayList<>(List.of(new ArrayList<>()));
+            /* the alternatives of the group that's being parsed */
+            private final List<List<GlobElement>> group = new ArrayList<>();
 
             private boolean inGroup = false;
-            private boolean hasRangeStart = false;
             private int index = 0;
-            private char lastRangeCharacter = 0;
 
             GlobParserContext(String globPattern) {
                 this.globPattern = globPattern;
@@ -114,55 +123,56 @@ public class BasicGlobPattern {
                 index++;
             }
 
-            GlobParserContext appendToRegex(String toAppend) {
-                builder.append(toAppend);
+            GlobParserContext append(GlobElement element) {
+                if (inGroup) {
+                    group.get(group.size() - 1).add(element);
+                } else {
+                    expanded.forEach(alternative -> alternative.add(element));
+                }
                 return this;
             }
 
-            GlobParserContext appendToRegex(char toAppend) {
-                builder.append(toAppend);
-                return this;
+            GlobParserContext openGroup() {
+                this.inGroup = true;
+                group.clear();
+                return nextAlternative();
             }
 
-            GlobParserContext setInGroup(boolean inGroup) {
-                this.inGroup = inGroup;
+            GlobParserContext nextAlternative() {
+                group.add(new ArrayList<>());
                 return this;
             }
 
-            boolean isInGroup() {
-                return inGroup;
-            }
-
-            GlobParserContext setInRange(boolean hasRangeStart) {
-                this.hasRangeStart = hasRangeStart;
+            GlobParserContext closeGroup() {
+                List<List<GlobElement>> expanded = new ArrayList<>(this.expanded.size() * group.size());
+                for (List<GlobElement> prefix : this.expanded) {
+                    for (List<GlobElement> alternative : group) {
+                        List<GlobElement> combined = new ArrayList<>(prefix);
+                        combined.addAll(alternative);
+                        expanded.add(combined);
+                    }
+                }
+                this.expanded = expanded;
+                this.inGroup = false;
                 return this;
             }
 
-            boolean isInRange() {
-                return hasRangeStart;
-            }
-
-            void setLastRangeCharacter(char character) {
-                this.lastRangeCharacter = character;
-            }
-
-            char getLastRangeCharacter() {
-                return lastRangeCharacter;
+            boolean isInGroup() {
+                return inGroup;
             }
 
-            String getRegex() {
-                return builder.toString();
+            List<List<GlobElement>> getAlternatives() {
+                return expanded;
             }
         }
 
         private BasicGlobPattern create(String glob) {
-            Pattern globPattern = createRegex(glob);
-            return new BasicGlobPattern(globPattern);
+            return new BasicGlobPattern(parse(glob));
         }
 
-        private Pattern createRegex(String globPattern) {
+        private List<List<GlobElement>> parse(String globPattern) {
             if (globPattern == null) {
-                return null;
+                return List.of();
             }
             GlobParserContext context = new GlobParserContext(globPattern);
             while (!context.globEndReached()) {
@@ -171,9 +181,6 @@ public class BasicGlobPattern {
                     case '\\':
                         handleEscape(context);
                         break;
-                    case '/':
-                        context.appendToRegex(c);
-                        break;
                     case '[':
                         handleSquareOpen(context);
                         break;
@@ -194,7 +201,7 @@ public class BasicGlobPattern {
                         break;
 
                     default:
-                        handleDefaultCharacter(c, context);
+                        context.append(GlobElement.literal(c));
                 }
             }
 
@@ -202,8 +209,7 @@ public class BasicGlobPattern {
                 throw new PatternSyntaxException("Missing '}", globPattern, context.getGlobIndex() - 1);
             }
 
-            context.appendToRegex('$');
-            return Pattern.compile(context.getRegex());
+            return context.getAlternatives();
         }
 
         private void handleEscape(GlobParserContext context) {
@@ -211,28 +217,29 @@ public class BasicGlobPattern {
             if (context.globEndReached()) {
                 throw new PatternSyntaxException("No character to escape", context.getGlobPattern(), context.getGlobIndex() - 1);
             }
-            char next = context.pollGlob();
-            if (isGlobMeta(next) || isRegexMeta(next)) {
-                context.appendToRegex('\\');
-            }
-            context.appendToRegex(next);
+            context.append(GlobElement.literal(context.pollGlob()));
         }
 
         private void handleSquareOpen(GlobParserContext context) {
+            // pairs of lower and upper bounds
+            StringBuilder ranges = new StringBuilder();
+            boolean negated = false;
+            boolean hasRangeStart = false;
             char character = '[';
-            // don't match name separator in class
-            context.appendToRegex("[[^/]&&[");
             if (context.peekGlob() == '^') {
-                // escape the regex negation char if it appears
-                context.appendToRegex("\\^").nextGlobChar();
+                // no negation, '^' is a normal character
+                ranges.append('^').append('^');
+                context.nextGlobChar();
             } else {
                 // negation
                 if (context.peekGlob() == '!') {
-                    context.appendToRegex('^').nextGlobChar();
+                    negated = true;
+                    context.nextGlobChar();
                 }
                 // hyphen allowed at start
                 if (context.peekGlob() == '-') {
-                    context.appendToRegex('-').nextGlobChar();
+                    ranges.append('-').append('-');
+                    context.nextGlobChar();
                 }
             }
             while (!context.globEndReached()) {
@@ -244,85 +251,68 @@ public class BasicGlobPattern {
                     throw new PatternSyntaxException("Explicit 'name separator' in class", context.getGlobPattern(), context.getGlobIndex() - 1);
                 }
                 // TBD: how to specify ']' in a class?
-                if (character == '\\' || character == '[' ||
-                        character == '&' && context.peekGlob() == '&') {
-                    // escape '\', '[' or "&&" for regex class
-                    context.appendToRegex('\\');
-                }
-                context.appendToRegex(character);
-
                 if (character == '-') {
-                    if (!context.isInRange()) {
+                    if (!hasRangeStart) {
                         throw new PatternSyntaxException("Invalid range", context.getGlobPattern(), context.getGlobIndex() - 1);
                     }
                     character = context.pollGlob();
                     if (character == GlobParserContext.EOL || character == ']') {
+                        // trailing hyphen is a normal character
+                        ranges.append('-').append('-');
                         break;
                     }
-                    if (character < context.getLastRangeCharacter()) {
+                    char rangeStart = ranges.charAt(ranges.length() - 1);
+                    if (character < rangeStart) {
                         throw new PatternSyntaxException("Invalid range", context.getGlobPattern(), context.getGlobIndex() - 3);
                     }
-                    context.appendToRegex(character).setInRange(false);
+                    ranges.setCharAt(ranges.length() - 1, character);
+                    hasRangeStart = false;
                 } else {
-                    context.setInRange(true).setLastRangeCharacter(character);
+                    ranges.append(character).append(character);
+                    hasRangeStart = true;
                 }
             }
             if (character != ']') {
                 throw new PatternSyntaxException("Missing ']", context.getGlobPattern(), context.getGlobIndex() - 1);
             }
-            context.appendToRegex("]]");
+            context.append(GlobElement.characterClass(ranges.toString().toCharArray(), negated));
         }
 
         private void handleCurlyOpen(GlobParserContext context) {
             if (context.isInGroup()) {
                 throw new PatternSyntaxException("Cannot nest groups", context.getGlobPattern(), context.getGlobIndex() - 1);
             }
-            context.setInGroup(true).appendToRegex("(?:(?:");
+            context.openGroup();
         }
 
         private void handleCurlyClose(GlobParserContext context) {
             if (context.isInGroup()) {
-                context.appendToRegex("))").setInGroup(false);
+                context.closeGroup();
             } else {
-                context.appendToRegex('}');
+                context.append(GlobElement.literal('}'));
             }
         }
 
         private void handleComma(GlobParserContext context) {
             if (context.isInGroup()) {
-                context.appendToRegex(")|(?:");
+                context.nextAlternative();
             } else {
-                context.appendToRegex(',');
+                context.append(GlobElement.literal(','));
             }
         }
 
         private void handleWildcard(GlobParserContext context) {
             if (context.peekGlob() == '*') {
                 // crosses directory boundaries
-                context.appendToRegex(".*").nextGlobChar();
+                context.append(GlobElement.ANY_CHARACTERS_ACROSS_SEPARATORS).nextGlobChar();
             } else {
                 // within directory boundary
-                context.appendToRegex("[^/]*");
+                context.append(GlobElement.ANY_CHARACTERS);
             }
         }
 
         private void handleQuestionMark(GlobParserContext context) {
-            context.appendToRegex("[^/]");
-        }
-
-        private void handleDefaultCharacter(char c, GlobParserContext context) {
-            if (isRegexMeta(c)) {
-                context.appendToRegex('\\');
-            }
-            context.appendToRegex(c);
-        }
-
-        private boolean isRegexMeta(char c) {
-            return regexMetaChars.indexOf(c) != -1;
-        }
-
-        private boolean isGlobMeta(char c) {
-            return globMetaChars.indexOf(c) != -1;
+            context.append(GlobElement.ANY_CHARACTER);
         }
     }
 }
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import com.intellij.openapi.util.text.StringUtil;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A list of {@link BasicGlobPattern}s that a string is matched against in a single pass.
+ */
+public class BasicGlobPatternSet {
+
+    public static final int NO_MATCH = GlobAutomaton.NO_MATCH;
+
+    private final GlobAutomaton automaton;
+
+    public static BasicGlobPatternSet compile(List<String> globs) {
+        return new BasicGlobPatternSet(globs.stream()
+                .map(BasicGlobPattern::compile)
+                .map(BasicGlobPattern::getAlternatives)
+                .collect(Collectors.toList()));
+    }
+
+    private BasicGlobPatternSet(List<List<List<GlobElement>>> patterns) {
+        this.automaton = new GlobAutomaton(patterns);
+    }
+
+    /**
+     * Returns the index of the first pattern that matches the given string, {@link #NO_MATCH} if none does.
+     *
+     * @param toMatch the string to match
+     * @return the index of the first pattern that matches
+     */
+    public int getFirstMatch(String toMatch) {
+        if (StringUtil.isEmpty(toMatch)) {
+            return NO_MATCH;
+        }
+        return automaton.match(toMatch);
+    }
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Notifies listeners when files are created, modified or deleted.
+ * All files are watched by a single {@link WatchService} and a single daemon thread that is started
+ * when the first file is watched.
+ */
+public class FileWatcher {
+
+    private static final Logger LOGGER = Logger.getInstance(FileWatcher.class);
+
+    public static final FileWatcher INSTANCE = new FileWatcher();
+
+    /**
+     * A registration of a listener that's notified of changes to a file.
+     */
+    public interface Watch {
+        /**
+         * Stops notifying the listener.
+         */
+        void cancel();
+    }
+
+    private final Map<Path, WatchKey> keys = new ConcurrentHashMap<>();
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private WatchService service;
+
+    /* for testing purposes */
+    FileWatcher() {
+    }
+
+    /**
+     * Notifies the given listener whenever the given file is created, modified or deleted.
+     * The directory that contains the file is created if it doesn't exist yet.
+     * The listener is called in the thread of this watcher and should thus return quickly.
+     *
+     * @param file the file to watch
+     * @param listener the listener to notify
+     * @return the registration that allows to stop watching
+     * @throws IOException if the file cannot be watched
+     */
+    public synchronized Watch watch(Path file, Runnable listener) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        WatchService service = getService();
+        if (!keys.containsKey(directory)) {
+            keys.put(directory, directory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE));
+        }
+        Registration registration = new Registration(directory, file.getFileName(), listener);
+        registrations.add(registration);
+        return registration;
+    }
+
+    private WatchService getService() throws IOException {
+        if (service == null) {
+            this.service = FileSystems.getDefault().newWatchService();
+            Thread thread = new Thread(() -> run(service), "Red Hat Telemetry File Watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return service;
+    }
+
+    private void run(WatchService service) {
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    // events were lost, notify all listeners of this directory
+                    notify(directory, null);
+                } else {
+                    notify(directory, (Path) event.context());
+                }
+            }
+            if (!key.reset()) {
+                // the key is invalid, ex. because the directory was deleted
+                register(directory, key);
+            }
+        }
+    }
+
+    /**
+     * Registers the given directory again if its key is invalid but it is still watched.
+     * The directory is created again if it was deleted. Listeners are notified since their files may have changed.
+     */
+    private void register(Path directory, WatchKey invalid) {
+        synchronized (this) {
+            if (keys.get(directory) != invalid) {
+                // cancelled
+                return;
+            }
+            try {
+                Files.createDirectories(directory);
+                keys.put(directory, directory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE));
+            } catch (IOException e) {
+                keys.remove(directory);
+                LOGGER.warn("Could not watch " + directory + " for changes again.", e);
+                return;
+            }
+        }
+        notify(directory, null);
+    }
+
+    private void notify(Path directory, Path fileName) {
+        for (Registration registration : registrations) {
+            if (registration.directory.equals(directory)
+                    && (fileName == null || registration.fileName.equals(fileName))) {
+                try {
+                    registration.listener.run();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Could not notify listener of changes to " + directory.resolve(registration.fileName) + ".", e);
+                }
+            }
+        }
+    }
+
+    private synchronized void cancel(Registration registration) {
+        registrations.remove(registration);
+        boolean watched = registrations.stream()
+                .anyMatch(other -> other.directory.equals(registration.directory));
+        if (!watched) {
+            WatchKey key = keys.remove(registration.directory);
+            if (key != null) {
+                key.cancel();
+            }
+        }
+    }
+
+    private class Registration implements Watch {
+        private final Path directory;
+        private final Path fileName;
+        private final Runnable listener;
+
+        private Registration(Path directory, Path fileName, Runnable listener) {
+            this.directory = directory;
+            this.fileName = fileName;
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            FileWatcher.this.cancel(this);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An automaton that matches a string against one or several glob patterns in a single pass.
+ * <p>
+ * Each (brace-expanded) alternative of a pattern is a sequence of {@link GlobElement}s. A state is the position
+ * of an element in a sequence, the position after the last element is the accepting state of the sequence.
+ * The set of active states is held in a bit set that is advanced for each character of the string, wildcards
+ * keep their state active and activate the following one. Automatons with up to 64 states hold the active states
+ * in a single {@code long} and don't allocate any memory when matching.
+ * <p>
+ * The states are numbered in the order of the patterns, the lowest accepting state thus belongs to the first
+ * pattern that matches.
+ */
+final class GlobAutomaton {
+
+    static final int NO_MATCH = -1;
+
+    private static final byte ACCEPT = -1;
+    private static final int WORD_SHIFT = 6;
+
+    private final byte[] kinds;
+    private final GlobElement[] elements;
+    private final int[] patternIndexes;
+    private final long[] initial;
+    private final long[] wildcards;
+    private final long[] accepting;
+
+    /**
+     * Creates an automaton for the given patterns.
+     *
+     * @param patterns the patterns, each one given as the list of its alternatives
+     */
+    GlobAutomaton(List<List<List<GlobElement>>> patterns) {
+        List<GlobElement> elements = new ArrayList<>();
+        List<Integer> patternIndexes = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        for (int pattern = 0; pattern < patterns.size(); pattern++) {
+            for (List<GlobElement> sequence : patterns.get(pattern)) {
+                starts.add(elements.size());
+                for (GlobElement element : sequence) {
+                    elements.add(element);
+                    patternIndexes.add(NO_MATCH);
+                }
+                elements.add(null); // accepting state
+                patternIndexes.add(pattern);
+            }
+        }
+        int states = elements.size();
+        int words = Math.max(1, (states + Long.SIZE - 1) >>> WORD_SHIFT);
+        this.kinds = new byte[states];
+        this.elements = elements.toArray(new GlobElement[0]);
+        this.patternIndexes = new int[states];
+        this.initial = new long[words];
+        this.wildcards = new long[words];
+        this.accepting = new long[words];
+        for (int state = 0; state < states; state++) {
+            GlobElement element = this.elements[state];
+            if (element == null) {
+                kinds[state] = ACCEPT;
+                set(accepting, state);
+            } else {
+                kinds[state] = element.getKind();
+                if (element.isWildcard()) {
+                    set(wildcards, state);
+                }
+            }
+            this.patternIndexes[state] = patternIndexes.get(state);
+        }
+        for (int start : starts) {
+            set(initial, start);
+        }
+        close(initial);
+    }
+
+    /**
+     * Returns the index of the first pattern that matches the given string, {@link #NO_MATCH} if none does.
+     *
+     * @param toMatch the string to match
+     * @return the index of the first matching pattern
+     */
+    int match(String toMatch) {
+        if (initial.length == 1) {
+            return match(toMatch, initial[0], wildcards[0], accepting[0]);
+        }
+        long[] current = initial.clone();
+        long[] next = new long[current.length];
+        for (int i = 0; i < toMatch.length(); i++) {
+            if (!step(toMatch.charAt(i), current, next)) {
+                return NO_MATCH;
+            }
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+        for (int word = 0; word < current.length; word++) {
+            long accepted = current[word] & accepting[word];
+            if (accepted != 0) {
+                return patternIndexes[(word << WORD_SHIFT) + Long.numberOfTrailingZeros(accepted)];
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private int match(String toMatch, long current, long wildcards, long accepting) {
+        for (int i = 0; i < toMatch.length(); i++) {
+            char c = toMatch.charAt(i);
+            long next = 0;
+            for (long active = current; active != 0; active &= active - 1) {
+                int state = Long.numberOfTrailingZeros(active);
+                if (isKept(state, c)) {
+                    next |= 1L << state;
+                } else if (isAdvanced(state, c)) {
+                    next |= 1L << (state + 1);
+                }
+            }
+            for (long active = next & wildcards; active != 0; active = next & wildcards & (-2L << Long.numberOfTrailingZeros(active))) {
+                next |= 1L << (Long.numberOfTrailingZeros(active) + 1);
+            }
+            if (next == 0) {
+                return NO_MATCH;
+            }
+            current = next;
+        }
+        long accepted = current & accepting;
+        if (accepted == 0) {
+            return NO_MATCH;
+        }
+        return patternIndexes[Long.numberOfTrailingZeros(accepted)];
+    }
+
+    /**
+     * Advances the given current states by the given character into the given next states.
+     * Returns {@code false} if no state remains active.
+     */
+    private boolean step(char c, long[] current, long[] next) {
+        boolean active = false;
+        Arrays.fill(next, 0);
+        for (int word = 0; word < current.length; word++) {
+            for (long bits = current[word]; bits != 0; bits &= bits - 1) {
+                int state = (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+                if (isKept(state, c)) {
+                    set(next, state);
+                    active = true;
+                } else if (isAdvanced(state, c)) {
+                    set(next, state + 1);
+                    active = true;
+                }
+            }
+        }
+        close(next);
+        return active;
+    }
+
+    /**
+     * Returns {@code true} if the given state remains active when the given character is consumed.
+     * Wildcards consume any character but the name separator, double wildcards consume any character.
+     */
+    private boolean isKept(int state, char c) {
+        byte kind = kinds[state];
+        return kind == GlobElement.DOUBLE_WILDCARD
+                || (kind == GlobElement.WILDCARD && c != GlobElement.SEPARATOR);
+    }
+
+    /**
+     * Returns {@code true} if the element of the given state consumes the given character,
+     * thus activating the following state.
+     */
+    private boolean isAdvanced(int state, char c) {
+        return kinds[state] != ACCEPT
+                && elements[state].matches(c);
+    }
+
+    /**
+     * Activates the state following each active wildcard (wildcards match no character, too).
+     * A wildcard is never the last state of a sequence, the following state thus belongs to the same sequence.
+     */
+    private void close(long[] states) {
+        for (int word = 0; word < states.length; word++) {
+            for (long active = states[word] & wildcards[word];
+                 active != 0;
+                 active = states[word] & wildcards[word] & (-2L << Long.numberOfTrailingZeros(active))) {
+                set(states, (word << WORD_SHIFT) + Long.numberOfTrailingZeros(active) + 1);
+            }
+        }
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> WORD_SHIFT] |= 1L << index;
+    }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+/**
+ * An element of a parsed glob pattern: a literal character, a placeholder ({@code ?}),
+ * a character class ({@code [...]}), a wildcard ({@code *}) or a double wildcard ({@code **}).
+ * None of the elements but the double wildcard matches the name separator {@code /}.
+ */
+final class GlobElement {
+
+    static final byte LITERAL = 0;
+    static final byte ANY = 1;
+    static final byte CLASS = 2;
+    static final byte WILDCARD = 3;
+    static final byte DOUBLE_WILDCARD = 4;
+
+    static final char SEPARATOR = '/';
+
+    static final GlobElement ANY_CHARACTER = new GlobElement(ANY, (char) 0, null, false);
+    static final GlobElement ANY_CHARACTERS = new GlobElement(WILDCARD, (char) 0, null, false);
+    static final GlobElement ANY_CHARACTERS_ACROSS_SEPARATORS = new GlobElement(DOUBLE_WILDCARD, (char) 0, null, false);
+
+    private final byte kind;
+    private final char character;
+    /* pairs of lower and upper bounds (inclusive) */
+    private final char[] ranges;
+    private final boolean negated;
+
+    static GlobElement literal(char character) {
+        return new GlobElement(LITERAL, character, null, false);
+    }
+
+    static GlobElement characterClass(char[] ranges, boolean negated) {
+        return new GlobElement(CLASS, (char) 0, ranges, negated);
+    }
+
+    private GlobElement(byte kind, char character, char[] ranges, boolean negated) {
+        this.kind = kind;
+        this.character = character;
+        this.ranges = ranges;
+        this.negated = negated;
+    }
+
+    byte getKind() {
+        return kind;
+    }
+
+    char getCharacter() {
+        return character;
+    }
+
+    boolean isWildcard() {
+        return kind == WILDCARD
+                || kind == DOUBLE_WILDCARD;
+    }
+
+    /**
+     * Returns {@code true} if this element matches the given single character.
+     * Always returns {@code false} for wildcards, they match any number of characters.
+     */
+    boolean matches(char c) {
+        switch (kind) {
+            case LITERAL:
+                return c == character;
+            case ANY:
+                return c != SEPARATOR;
+            case CLASS:
+                return c != SEPARATOR
+                        && isInRanges(c) != negated;
+            default:
+                return false;
+        }
+    }
+
+    private boolean isInRanges(char c) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] <= c
+                    && c <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
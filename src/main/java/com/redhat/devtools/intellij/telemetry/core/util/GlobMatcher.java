@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.redhat.devtools.intellij.telemetry.core.util.GlobElement.DOUBLE_WILDCARD;
+import static com.redhat.devtools.intellij.telemetry.core.util.GlobElement.LITERAL;
+import static com.redhat.devtools.intellij.telemetry.core.util.GlobElement.SEPARATOR;
+
+/**
+ * Matches strings against a compiled glob pattern.
+ * Patterns that are a literal, a literal prefix, suffix or infix with wildcards are matched by specialised matchers,
+ * all other patterns are matched by a {@link GlobAutomaton}. None of the matchers allocates memory when matching.
+ */
+interface GlobMatcher {
+
+    boolean matches(String toMatch);
+
+    /**
+     * Returns the matcher for the given pattern.
+     *
+     * @param alternatives the alternatives of a pattern
+     * @return the matcher for the pattern
+     */
+    static GlobMatcher create(List<List<GlobElement>> alternatives) {
+        if (alternatives.size() == 1) {
+            GlobMatcher matcher = createSpecialised(alternatives.get(0));
+            if (matcher != null) {
+                return matcher;
+            }
+        }
+        GlobAutomaton automaton = new GlobAutomaton(Collections.singletonList(alternatives));
+        return toMatch -> automaton.match(toMatch) != GlobAutomaton.NO_MATCH;
+    }
+
+    private static GlobMatcher createSpecialised(List<GlobElement> sequence) {
+        int size = sequence.size();
+        if (size == 0) {
+            return String::isEmpty;
+        }
+        GlobElement first = sequence.get(0);
+        GlobElement last = sequence.get(size - 1);
+        if (isLiteral(sequence, 0, size)) {
+            return new Literal(toString(sequence, 0, size));
+        } else if (size == 1
+                && first.isWildcard()) {
+            return new Contains("", first.getKind() == DOUBLE_WILDCARD);
+        } else if (last.isWildcard()
+                && isLiteral(sequence, 0, size - 1)) {
+            return new Prefix(toString(sequence, 0, size - 1), last.getKind() == DOUBLE_WILDCARD);
+        } else if (first.isWildcard()
+                && isLiteral(sequence, 1, size)) {
+            return new Suffix(toString(sequence, 1, size), first.getKind() == DOUBLE_WILDCARD);
+        } else if (first.isWildcard()
+                && last.isWildcard()
+                && first.getKind() == last.getKind()
+                && isLiteral(sequence, 1, size - 1)) {
+            String infix = toString(sequence, 1, size - 1);
+            if (infix.indexOf(SEPARATOR) == -1) {
+                return new Contains(infix, first.getKind() == DOUBLE_WILDCARD);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isLiteral(List<GlobElement> sequence, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (sequence.get(i).getKind() != LITERAL) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toString(List<GlobElement> sequence, int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            builder.append(sequence.get(i).getCharacter());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Matches a literal ex. {@code yoda}
+     */
+    class Literal implements GlobMatcher {
+        private final String literal;
+
+        private Literal(String literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(String toMatch) {
+            return literal.equals(toMatch);
+        }
+    }
+
+    /**
+     * Matches a literal followed by a wildcard ex. {@code yoda*} or {@code yoda**}
+     */
+    class Prefix implements GlobMatcher {
+        private final String prefix;
+        private final boolean crossesSeparators;
+
+        private Prefix(String prefix, boolean crossesSeparators) {
+            this.prefix = prefix;
+            this.crossesSeparators = crossesSeparators;
+        }
+
+        @Override
+        public boolean matches(String toMatch) {
+            return toMatch.startsWith(prefix)
+                    && (crossesSeparators || toMatch.indexOf(SEPARATOR, prefix.length()) == -1);
+        }
+    }
+
+    /**
+     * Matches a wildcard followed by a literal ex. {@code *yoda} or {@code **yoda}
+     */
+    class Suffix implements GlobMatcher {
+        private final String suffix;
+        private final boolean crossesSeparators;
+
+        private Suffix(String suffix, boolean crossesSeparators) {
+            this.suffix = suffix;
+            this.crossesSeparators = crossesSeparators;
+        }
+
+        @Override
+        public boolean matches(String toMatch) {
+            return toMatch.endsWith(suffix)
+                    && (crossesSeparators || toMatch.lastIndexOf(SEPARATOR, toMatch.length() - suffix.length() - 1) == -1);
+        }
+    }
+
+    /**
+     * Matches a literal (without separators) between 2 wildcards ex. {@code *yoda*} or {@code **yoda**}
+     */
+    class Contains implements GlobMatcher {
+        private final String infix;
+        private final boolean crossesSeparators;
+
+        private Contains(String infix, boolean crossesSeparators) {
+            this.infix = infix;
+            this.crossesSeparators = crossesSeparators;
+        }
+
+        @Override
+        public boolean matches(String toMatch) {
+            return (crossesSeparators || toMatch.indexOf(SEPARATOR) == -1)
+                    && toMatch.contains(infix);
+        }
+    }
+}
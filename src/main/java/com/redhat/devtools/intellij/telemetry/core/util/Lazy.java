@@ -12,24 +12,98 @@ package com.redhat.devtools.intellij.telemetry.core.util;
 
 import java.util.function.Supplier;
 
+/**
+ * A value that is created when it is requested for the first time.
+ * The value is created exactly once, even if it is requested concurrently. Once it exists it is returned without locking.
+ * A {@code null} value is created again when it is requested next, unless the lazy was created with {@link #ofNullable(Supplier)}.
+ *
+ * @param <T> the type of the value
+ */
 public class Lazy<T> implements Supplier<T> {
 
+    private static final Object NONE = new Object();
+
     private final Supplier<T> factory;
-    private volatile T value;
+    private final boolean keepNull;
+    private volatile Object value = NONE;
 
     public Lazy(Supplier<T> factory) {
+        this(factory, false);
+    }
+
+    protected Lazy(Supplier<T> factory, boolean keepNull) {
         this.factory = factory;
+        this.keepNull = keepNull;
     }
 
+    /**
+     * Returns a lazy whose value is created once even if it is {@code null}.
+     *
+     * @param factory the factory that creates the value
+     * @param <T> the type of the value
+     * @return the lazy
+     */
+    public static <T> Lazy<T> ofNullable(Supplier<T> factory) {
+        return new Lazy<>(factory, true);
+    }
+
+    @SuppressWarnings("unchecked")
     @Override
     public T get() {
-        if (value == null) {
-            this.value = factory.get();
-            onCreated(value);
+        Object value = this.value;
+        if (value != NONE) {
+            return (T) value;
+        }
+        T created;
+        synchronized (this) {
+            value = this.value;
+            if (value != NONE) {
+                return (T) value;
+            }
+            created = factory.get();
+            if (created == null
+                    && !keepNull) {
+                return null;
+            }
+            this.value = created;
         }
-        return value;
+        // outside of the lock, listeners may request the value
+        onCreated(created);
+        return created;
+    }
+
+    /**
+     * Returns the value if it was created already, {@code null} otherwise. The value is not created.
+     * Waits for the value if it is being created concurrently.
+     *
+     * @return the value or {@code null} if it was not created
+     */
+    @SuppressWarnings("unchecked")
+    public T getIfCreated() {
+        Object value = this.value;
+        if (value == NONE) {
+            synchronized (this) {
+                value = this.value;
+            }
+        }
+        if (value == NONE) {
+            return null;
+        }
+        return (T) value;
+    }
+
+    /**
+     * Discards the value, it is created again when it is requested next.
+     */
+    public synchronized void reset() {
+        this.value = NONE;
     }
 
+    /**
+     * Called once the value was created, by the thread that created it.
+     *
+     * @param value the value that was created
+     */
     protected void onCreated(T value) {
         // override to customized
     }
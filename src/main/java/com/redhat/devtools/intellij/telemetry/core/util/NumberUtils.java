@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+public class NumberUtils {
+
+    private NumberUtils() {}
+
+    /**
+     * Returns the long for a given string, the given default if the string is {@code null} or not a number.
+     *
+     * @param value the string to parse
+     * @param defaultValue the value to return if the string cannot be parsed
+     *
+     * @return the long for the given string
+     */
+    public static long toLong(String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,448 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * A durable, append-only log of binary records. The records are appended to segment files within a directory,
+ * each record being framed by its length and a checksum. The current segment file is rotated once it
+ * exceeds a maximum size or age. Segment files are deleted once all the records that they contain were
+ * acknowledged, or when the spool exceeds its maximum total size or age, oldest files first.
+ *
+ * Appending is a single sequential write. Writes are only forced to disk when {@link #commit()} is called,
+ * which allows callers to group-commit several appends with a single fsync.
+ *
+ * Segment files that exist when the spool is opened were left over by a previous session. They are not
+ * appended to but reported by {@link #getRecovered()} so that their records can be replayed.
+ * The directory is locked while the spool is open so that it's not shared by several processes.
+ */
+public class RecordSpool implements Closeable {
+
+    private static final Logger LOGGER = Logger.getInstance(RecordSpool.class);
+
+    private static final int MAGIC = 0x52485453; // "RHTS"
+    private static final int FILE_HEADER_SIZE = Integer.BYTES;
+    private static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final String EXTENSION = ".spool";
+    private static final String LOCK_FILE = "spool.lock";
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final long maxFileAge;
+    private final long maxTotalSize;
+    private final long maxAge;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    /* all files by id, oldest first */
+    private final Map<Long, SpoolFile> files = new TreeMap<>();
+    private SpoolFile current;
+    private long lastId;
+    private boolean dirty;
+    private boolean closed;
+
+    /**
+     * Opens the spool in the given directory. The directory is created if it doesn't exist yet.
+     *
+     * @param directory the directory to store the segment files in
+     * @param maxFileSize the size in bytes at which the current segment file is rotated
+     * @param maxFileAge the age in ms at which the current segment file is rotated
+     * @param maxTotalSize the maximum size in bytes of all segment files
+     * @param maxAge the maximum age in ms of a segment file
+     * @return the spool
+     * @throws IOException if the directory cannot be created or is locked by another spool
+     */
+    public static RecordSpool open(Path directory, long maxFileSize, long maxFileAge, long maxTotalSize, long maxAge)
+            throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = null;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // locked within this jvm
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Spool directory " + directory + " is locked by another spool.");
+        }
+        return new RecordSpool(directory, maxFileSize, maxFileAge, maxTotalSize, maxAge, lockChannel, lock);
+    }
+
+    private RecordSpool(Path directory, long maxFileSize, long maxFileAge, long maxTotalSize, long maxAge,
+                        FileChannel lockChannel, FileLock lock) throws IOException {
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.maxFileAge = maxFileAge;
+        this.maxTotalSize = maxTotalSize;
+        this.maxAge = maxAge;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        recover();
+    }
+
+    /**
+     * Appends the given record to the current segment file.
+     * The record is not forced to disk before {@link #commit()} is called.
+     *
+     * @param record the record to append
+     * @return the id of the segment file that the record was appended to
+     * @throws IOException if the record could not be written
+     */
+    public synchronized long append(byte[] record) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        SpoolFile file = getCurrent(FRAME_HEADER_SIZE + record.length);
+        CRC32C checksum = new CRC32C();
+        checksum.update(record);
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE)
+                .putInt(record.length)
+                .putInt((int) checksum.getValue())
+                .flip();
+        ByteBuffer payload = ByteBuffer.wrap(record);
+        while (payload.hasRemaining()) {
+            file.channel.write(new ByteBuffer[]{ header, payload });
+        }
+        file.size += FRAME_HEADER_SIZE + record.length;
+        file.appended++;
+        this.dirty = true;
+        return file.id;
+    }
+
+    /**
+     * Forces all records that were appended so far to disk.
+     *
+     * @throws IOException if the records could not be forced to disk
+     */
+    public void commit() throws IOException {
+        FileChannel channel;
+        synchronized (this) {
+            if (!dirty
+                    || current == null) {
+                return;
+            }
+            this.dirty = false;
+            channel = current.channel;
+        }
+        try {
+            // fsync outside of the lock so that appending is not blocked
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // file was rotated concurrently and forced when it was closed
+        }
+    }
+
+    /**
+     * Acknowledges a record in the segment file with the given id. The file is deleted once it was rotated
+     * and all its records were acknowledged.
+     *
+     * @param fileId the id of the segment file that the acknowledged record was appended to
+     */
+    public synchronized void ack(long fileId) {
+        SpoolFile file = files.get(fileId);
+        if (file == null
+                || file.recovered) {
+            return;
+        }
+        file.acked++;
+        if (file.isDone()) {
+            delete(file);
+        }
+    }
+
+    /**
+     * Returns the segment files that were left over by a previous session, oldest first.
+     *
+     * @return the segment files of a previous session
+     */
+    public synchronized List<Path> getRecovered() {
+        List<Path> recovered = new ArrayList<>();
+        files.values().stream()
+                .filter(file -> file.recovered)
+                .forEach(file -> recovered.add(file.path));
+        return recovered;
+    }
+
+    /**
+     * Returns the segment files that are not appended to anymore, oldest first.
+     * These are the files that were left over by a previous session and the files that were rotated.
+     *
+     * @return the segment files that are not appended to
+     */
+    public synchronized List<Path> getSealed() {
+        List<Path> sealed = new ArrayList<>();
+        files.values().stream()
+                .filter(file -> file != current)
+                .forEach(file -> sealed.add(file.path));
+        return sealed;
+    }
+
+    /**
+     * Forces and closes the current segment file so that its records can be read.
+     * Subsequent records are appended to a new segment file.
+     */
+    public synchronized void rotate() {
+        seal();
+    }
+
+    /**
+     * Deletes the given segment file if it is not appended to anymore.
+     *
+     * @param path the path of the file to delete
+     */
+    public synchronized void delete(Path path) {
+        SpoolFile file = files.get(toId(path));
+        if (file == null
+                || file == current) {
+            return;
+        }
+        delete(file);
+    }
+
+    /**
+     * Deletes all segment files, including the current one.
+     */
+    public synchronized void clear() {
+        seal();
+        files.values().forEach(this::deleteFile);
+        files.clear();
+    }
+
+    /**
+     * Returns the total size in bytes of all segment files in this spool.
+     *
+     * @return the total size of all segment files
+     */
+    public synchronized long size() {
+        return files.values().stream()
+                .mapToLong(file -> file.size)
+                .sum();
+    }
+
+    /**
+     * Reads all valid records in the given segment file. Reading stops at the first record that is
+     * truncated or doesn't match its checksum, which happens if a write was torn by a crash.
+     *
+     * @param path the segment file to read
+     * @return the records in the given file
+     * @throws IOException if the file could not be read
+     */
+    public static List<byte[]> read(Path path) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < FILE_HEADER_SIZE
+                || buffer.getInt() != MAGIC) {
+            LOGGER.warn("Could not read spool file " + path + ": invalid header.");
+            return records;
+        }
+        CRC32C checksum = new CRC32C();
+        while (buffer.remaining() >= FRAME_HEADER_SIZE) {
+            int length = buffer.getInt();
+            int expected = buffer.getInt();
+            if (length < 0
+                    || length > buffer.remaining()) {
+                LOGGER.debug("Spool file " + path + " ends with a truncated record.");
+                break;
+            }
+            byte[] record = new byte[length];
+            buffer.get(record);
+            checksum.reset();
+            checksum.update(record);
+            if ((int) checksum.getValue() != expected) {
+                LOGGER.debug("Spool file " + path + " contains a corrupted record.");
+                break;
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Forces and closes the current segment file and releases the lock on the directory.
+     * Segment files with records that were not acknowledged are kept so that they can be
+     * replayed by the next session.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        this.closed = true;
+        seal();
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not release lock on spool directory " + directory + ".", e);
+        }
+    }
+
+    private SpoolFile getCurrent(int recordSize) throws IOException {
+        if (current != null
+                && (current.size + recordSize > maxFileSize
+                    || System.currentTimeMillis() - current.id > maxFileAge)) {
+            seal();
+            enforceBounds();
+        }
+        if (current == null) {
+            this.current = create();
+        }
+        return current;
+    }
+
+    private SpoolFile create() throws IOException {
+        long id = Math.max(System.currentTimeMillis(), lastId + 1);
+        this.lastId = id;
+        Path path = directory.resolve(id + EXTENSION);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        SpoolFile file = new SpoolFile(id, path, channel, FILE_HEADER_SIZE, false);
+        files.put(id, file);
+        return file;
+    }
+
+    private void seal() {
+        if (current == null) {
+            return;
+        }
+        SpoolFile file = current;
+        this.current = null;
+        try {
+            if (dirty) {
+                file.channel.force(false);
+            }
+            file.channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close spool file " + file.path + ".", e);
+        }
+        this.dirty = false;
+        file.channel = null;
+        if (file.isDone()) {
+            delete(file);
+        }
+    }
+
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path path : stream) {
+                long id = toId(path);
+                if (id < 0) {
+                    continue;
+                }
+                files.put(id, new SpoolFile(id, path, null, Files.size(path), true));
+                this.lastId = Math.max(lastId, id);
+            }
+        }
+        enforceBounds();
+    }
+
+    /**
+     * Deletes the oldest files so that a new current file can grow to its maximum size
+     * without exceeding the maximum total size. Deletes the files that exceed the maximum age.
+     */
+    private void enforceBounds() {
+        long now = System.currentTimeMillis();
+        long budget = Math.max(0, maxTotalSize - maxFileSize);
+        long total = size();
+        for (Iterator<SpoolFile> iterator = files.values().iterator(); iterator.hasNext(); ) {
+            SpoolFile file = iterator.next();
+            if (file == current) {
+                continue;
+            }
+            if (total <= budget
+                    && now - file.id <= maxAge) {
+                // files are sorted by age, all remaining ones are younger
+                break;
+            }
+            LOGGER.warn("Discarding spool file " + file.path + ": spool exceeds " + maxTotalSize + " bytes or "
+                    + maxAge + " ms.");
+            iterator.remove();
+            deleteFile(file);
+            total -= file.size;
+        }
+    }
+
+    private void delete(SpoolFile file) {
+        files.remove(file.id);
+        deleteFile(file);
+    }
+
+    private void deleteFile(SpoolFile file) {
+        try {
+            Files.deleteIfExists(file.path);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete spool file " + file.path + ".", e);
+        }
+    }
+
+    private static long toId(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.endsWith(EXTENSION)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static class SpoolFile {
+        private final long id;
+        private final Path path;
+        private final boolean recovered;
+        private FileChannel channel;
+        private long size;
+        private int appended;
+        private int acked;
+
+        private SpoolFile(long id, Path path, FileChannel channel, long size, boolean recovered) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.recovered = recovered;
+        }
+
+        /**
+         * Returns {@code true} if this file was rotated and all its records were acknowledged.
+         */
+        private boolean isDone() {
+            return !recovered
+                    && channel == null
+                    && acked >= appended;
+        }
+    }
+}
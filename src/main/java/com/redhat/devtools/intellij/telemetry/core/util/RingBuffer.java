@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free multi-producer/multi-consumer queue that is backed by an array.
+ * Each slot carries a sequence that tells producers and consumers whether it may be written or read in the current lap
+ * (see Dmitry Vyukov's bounded MPMC queue). Positions are {@code long}s and thus don't overflow.
+ * The capacity is rounded up to the next power of two.
+ * Elements that are offered while the buffer is full are handled according to the {@link Overflow} policy.
+ *
+ * @param <E> the type of the elements
+ */
+public class RingBuffer<E> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    public enum Overflow {
+        /** rejects the element that is offered */
+        REJECT_NEWEST,
+        /** discards the oldest element in the buffer to make room for the element that is offered */
+        OVERWRITE_OLDEST
+    }
+
+    private final int mask;
+    private final Overflow overflow;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    /* the next position to read from */
+    private final PaddedAtomicLong head = new PaddedAtomicLong();
+    /* the next position to write to */
+    private final PaddedAtomicLong tail = new PaddedAtomicLong();
+
+    public RingBuffer(int capacity) {
+        this(capacity, Overflow.REJECT_NEWEST);
+    }
+
+    public RingBuffer(int capacity, Overflow overflow) {
+        int size = toPowerOfTwo(capacity < 1 ? DEFAULT_CAPACITY : capacity);
+        this.mask = size - 1;
+        this.overflow = overflow == null ? Overflow.REJECT_NEWEST : overflow;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    private static int toPowerOfTwo(int capacity) {
+        if (capacity >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        int highest = Integer.highestOneBit(capacity);
+        return highest == capacity ? capacity : highest << 1;
+    }
+
+    /**
+     * Adds the given element to this buffer. If the buffer is full, the element is rejected or the oldest element
+     * is discarded, depending on the {@link Overflow} policy.
+     *
+     * @param element the element to add
+     * @return {@code true} if the element was added
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        while (!tryOffer(element)) {
+            if (overflow == Overflow.REJECT_NEWEST) {
+                return false;
+            }
+            poll();
+        }
+        return true;
+    }
+
+    private boolean tryOffer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    // publishes the element to consumers
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // slot wasn't read in the previous lap yet: full
+                return false;
+            } else {
+                // another producer took the slot
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the oldest element in this buffer.
+     *
+     * @return the oldest element or {@code null} if this buffer is empty
+     */
+    @Nullable
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = elements.get(index);
+                    elements.lazySet(index, null);
+                    // frees the slot for producers in the next lap
+                    sequences.lazySet(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                // slot wasn't written in this lap yet: empty
+                return null;
+            } else {
+                // another consumer took the slot
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the elements in this buffer, oldest first, and hands them to the given consumer.
+     *
+     * @param consumer the consumer to hand the elements to
+     * @return the number of elements that were removed
+     */
+    public int drainTo(Consumer<? super E> consumer) {
+        return drainTo(consumer, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes at most the given number of elements in this buffer, oldest first, and hands them to the given consumer.
+     *
+     * @param consumer the consumer to hand the elements to
+     * @param maxElements the maximum number of elements to remove
+     * @return the number of elements that were removed
+     */
+    public int drainTo(Consumer<? super E> consumer, int maxElements) {
+        int drained = 0;
+        E element;
+        while (drained < maxElements
+                && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Removes the elements in this buffer, oldest first, and adds them to the given collection.
+     *
+     * @param collection the collection to add the elements to
+     * @return the number of elements that were removed
+     */
+    public int drainTo(Collection<? super E> collection) {
+        return drainTo(collection::add);
+    }
+
+    public List<E> pollAll() {
+        List<E> elements = new ArrayList<>();
+        drainTo(elements);
+        return elements;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the number of elements in this buffer. The number is exact if there are no concurrent producers or consumers.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        while (true) {
+            long before = head.get();
+            long tail = this.tail.get();
+            long after = head.get();
+            if (before == after) {
+                return (int) Math.max(0, Math.min(tail - after, capacity()));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean isFull() {
+        return size() >= capacity();
+    }
+
+    public void clear() {
+        while (poll() != null) {
+            // discard
+        }
+    }
+
+    /**
+     * An {@link AtomicLong} that is padded so that it doesn't share a cache line with the value that is allocated after it.
+     */
+    @SuppressWarnings("unused")
+    private static class PaddedAtomicLong extends AtomicLong {
+        private long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
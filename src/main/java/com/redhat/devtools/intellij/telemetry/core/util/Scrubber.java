@@ -0,0 +1,594 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces literal strings, prefixed tokens, ip addresses, email addresses, regex and custom matches in a string
+ * in a single pass.
+ * <p>
+ * The literals and prefixes are found with an Aho-Corasick automaton: a trie of all the literals where each node has a
+ * failure link to the node of its longest proper suffix that's in the trie. The automaton is advanced once per
+ * character and reports the longest literal that ends at the current character. A prefix extends up to the next
+ * whitespace or quote. All regular expressions are combined into a single alternation that's searched for
+ * alongside, custom matchers are asked at each position. Ip addresses are recognized
+ * at each digit and email addresses at each {@code @} by hand-written scanners that match the same strings as
+ * {@code (([01]?\d\d?|2[0-4]\d|25[0-5])\.){3}([01]?\d\d?|2[0-4]\d|25[0-5])} and
+ * {@code [A-Z0-9._%+-]+@[A-Z0-9.-]+\.[A-Z]{2,6}} (case insensitive).
+ * <p>
+ * Of overlapping matches the one that starts first wins, the longest one if they start at the same position.
+ * A match is replaced once the automaton is in a node that doesn't reach back to its start, no other match
+ * starting at or before it is possible then. Scanning resumes at the end of the replaced match.
+ * <p>
+ * The result is built in a {@link StringBuilder} that's reused per thread. The given string is returned as is
+ * if nothing matched.
+ */
+final class Scrubber {
+
+    /* builders that grew beyond this capacity are not kept for reuse */
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final Node root;
+    private final String ipReplacement;
+    private final String emailReplacement;
+    /* all regular expressions as a single alternation, null if there are none */
+    private final Pattern pattern;
+    /* the group of each alternative in the combined pattern */
+    private final int[] patternGroups;
+    private final String[] patternReplacements;
+    private final AnonymizationRule.Matcher[] matchers;
+    private final String[] matcherReplacements;
+
+    private Scrubber(Builder builder) {
+        this.root = builder.root;
+        this.ipReplacement = builder.ipReplacement;
+        this.emailReplacement = builder.emailReplacement;
+        this.pattern = builder.combinePatterns();
+        this.patternGroups = builder.patternGroups;
+        this.patternReplacements = builder.patternReplacements.toArray(new String[0]);
+        this.matchers = builder.matchers.toArray(new AnonymizationRule.Matcher[0]);
+        this.matcherReplacements = builder.matcherReplacements.toArray(new String[0]);
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the given string with all the literals, ip and email addresses replaced.
+     * Returns the given instance if nothing was replaced.
+     *
+     * @param string the string to scrub
+     * @return the scrubbed string
+     */
+    String scrub(String string) {
+        if (string == null
+                || string.isEmpty()) {
+            return string;
+        }
+        int length = string.length();
+        StringBuilder builder = null;
+        Node state = root;
+        // the start of the text that's not copied to the builder yet
+        int from = 0;
+        // the best match so far, end is exclusive
+        int matchStart = -1;
+        int matchEnd = -1;
+        String replacement = null;
+        // the next match of the regular expressions, searched for once it was passed
+        Matcher matcher = pattern != null ? pattern.matcher(string) : null;
+        int patternStart = -1;
+        int patternEnd = -1;
+        String patternReplacement = null;
+        int i = 0;
+        while (true) {
+            if (i < length) {
+                char c = string.charAt(i);
+                state = next(state, c);
+                if (state.output != null) {
+                    int start = i - state.outputLength + 1;
+                    int end = state.outputPrefix ? tokenEnd(string, i + 1) : i + 1;
+                    if (isBetter(start, end, matchStart, matchEnd)) {
+                        matchStart = start;
+                        matchEnd = end;
+                        replacement = state.output;
+                    }
+                }
+                if (matcher != null
+                        && patternStart < i) {
+                    // the previous match was passed, search for the next one
+                    patternStart = -1;
+                    int searchFrom = i;
+                    while (searchFrom <= length
+                            && matcher.find(searchFrom)) {
+                        if (matcher.end() > matcher.start()) {
+                            patternStart = matcher.start();
+                            patternEnd = matcher.end();
+                            patternReplacement = patternReplacements[matchedAlternative(matcher)];
+                            break;
+                        }
+                        // ignore empty matches
+                        searchFrom = matcher.start() + 1;
+                    }
+                    if (patternStart < 0) {
+                        // no more matches
+                        matcher = null;
+                    }
+                }
+                if (matcher != null
+                        && patternStart == i
+                        && isBetter(i, patternEnd, matchStart, matchEnd)) {
+                    matchStart = i;
+                    matchEnd = patternEnd;
+                    replacement = patternReplacement;
+                }
+                for (int m = 0; m < matchers.length; m++) {
+                    int end = matchers[m].end(string, i);
+                    if (end > i
+                            && end <= length
+                            && isBetter(i, end, matchStart, matchEnd)) {
+                        matchStart = i;
+                        matchEnd = end;
+                        replacement = matcherReplacements[m];
+                    }
+                }
+                if (ipReplacement != null
+                        && isDigit(c)) {
+                    int end = matchIp(string, i);
+                    if (end > 0
+                            && isBetter(i, end, matchStart, matchEnd)) {
+                        matchStart = i;
+                        matchEnd = end;
+                        replacement = ipReplacement;
+                    }
+                }
+                if (emailReplacement != null
+                        && c == '@') {
+                    int start = emailStart(string, from, i);
+                    int end = start < i ? emailEnd(string, i) : -1;
+                    if (end > 0
+                            && isBetter(start, end, matchStart, matchEnd)) {
+                        matchStart = start;
+                        matchEnd = end;
+                        replacement = emailReplacement;
+                    }
+                }
+            } else if (matchStart < 0) {
+                break;
+            }
+            if (matchStart >= 0
+                    && (i >= length || i - state.depth + 1 > matchStart)) {
+                // no other match can start at or before the best match
+                if (builder == null) {
+                    builder = BUILDER.get();
+                    builder.setLength(0);
+                }
+                builder.append(string, from, matchStart).append(replacement);
+                from = matchEnd;
+                i = matchEnd;
+                state = root;
+                matchStart = -1;
+                continue;
+            }
+            i++;
+        }
+        if (builder == null) {
+            return string;
+        }
+        String scrubbed = builder.append(string, from, length).toString();
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            BUILDER.remove();
+        }
+        return scrubbed;
+    }
+
+    private static boolean isBetter(int start, int end, int matchStart, int matchEnd) {
+        return matchStart < 0
+                || start < matchStart
+                || (start == matchStart && end > matchEnd);
+    }
+
+    private int matchedAlternative(Matcher matcher) {
+        for (int alternative = 0; alternative < patternGroups.length; alternative++) {
+            if (matcher.start(patternGroups[alternative]) >= 0) {
+                return alternative;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the end of the token that starts at the given position. A token ends at the next whitespace or quote.
+     */
+    private static int tokenEnd(String string, int start) {
+        int end = start;
+        while (end < string.length()
+                && !isTokenEnd(string.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isTokenEnd(char c) {
+        return Character.isWhitespace(c)
+                || c == '"' || c == '\'' || c == '`' || c == '<' || c == '>';
+    }
+
+    private Node next(Node state, char c) {
+        Node child = state.child(c);
+        while (child == null
+                && state != root) {
+            state = state.failure;
+            child = state.child(c);
+        }
+        return child != null ? child : root;
+    }
+
+    /**
+     * Returns the (exclusive) end of the ip address that starts at the given position or {@code -1} if there's none.
+     */
+    private static int matchIp(String string, int start) {
+        int position = start;
+        for (int octet = 0; octet < 4; octet++) {
+            if (octet > 0) {
+                if (position >= string.length()
+                        || string.charAt(position) != '.') {
+                    return -1;
+                }
+                position++;
+            }
+            position = octet < 3 ? octetEnd(string, position) : lastOctetEnd(string, position);
+            if (position < 0) {
+                return -1;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Returns the end of the longest number of up to 3 digits that's not larger than 255
+     * or {@code -1} if there's no digit at the given position.
+     */
+    private static int octetEnd(String string, int start) {
+        int value = 0;
+        int end = -1;
+        for (int i = start; i < start + 3 && i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (!isDigit(c)) {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            if (value > 255) {
+                break;
+            }
+            end = i + 1;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the end of the last octet or {@code -1} if there's no digit at the given position.
+     * The regex takes its first alternative {@code [01]?\d\d?} given that nothing needs to follow:
+     * 3 digits if the first one is 0 or 1, 2 digits otherwise.
+     */
+    private static int lastOctetEnd(String string, int start) {
+        int digits = 0;
+        while (digits < 3
+                && start + digits < string.length()
+                && isDigit(string.charAt(start + digits))) {
+            digits++;
+        }
+        if (digits == 0) {
+            return -1;
+        }
+        char first = string.charAt(start);
+        if (digits == 3
+                && first != '0'
+                && first != '1') {
+            digits = 2;
+        }
+        return start + digits;
+    }
+
+    /**
+     * Returns the start of the local part of the email address whose {@code @} is at the given position.
+     * Returns the position of the {@code @} if there's no local part.
+     */
+    private static int emailStart(String string, int from, int at) {
+        int start = at;
+        while (start > from
+                && isLocalPart(string.charAt(start - 1))) {
+            start--;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the (exclusive) end of the domain of the email address whose {@code @} is at the given position
+     * or {@code -1} if there's no valid domain. The domain is as long as possible and ends with a dot followed
+     * by 2 to 6 letters.
+     */
+    private static int emailEnd(String string, int at) {
+        int end = at + 1;
+        while (end < string.length()
+                && isDomain(string.charAt(end))) {
+            end++;
+        }
+        // the dot of the top level domain needs at least one character in front of it
+        for (int dot = end - 1; dot > at + 1; dot--) {
+            if (string.charAt(dot) != '.') {
+                continue;
+            }
+            int letters = 0;
+            while (dot + 1 + letters < end
+                    && isLetter(string.charAt(dot + 1 + letters))) {
+                letters++;
+            }
+            if (letters >= 2) {
+                return dot + 1 + Math.min(letters, 6);
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isLocalPart(char c) {
+        return isLetter(c)
+                || isDigit(c)
+                || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomain(char c) {
+        return isLetter(c)
+                || isDigit(c)
+                || c == '.' || c == '-';
+    }
+
+    /**
+     * A node of the trie of literals.
+     */
+    private static class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final int depth;
+        /* the keys of the children, sorted */
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Node failure;
+        /* the replacement of the longest literal that ends in this node, null if there's none */
+        private String output;
+        private int outputLength;
+        /* whether the literal is a prefix that extends to the end of the token */
+        private boolean outputPrefix;
+
+        private Node(int depth) {
+            this.depth = depth;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertion = -index - 1;
+            Node child = new Node(depth + 1);
+            char[] keys = new char[this.keys.length + 1];
+            Node[] children = new Node[this.children.length + 1];
+            System.arraycopy(this.keys, 0, keys, 0, insertion);
+            System.arraycopy(this.children, 0, children, 0, insertion);
+            keys[insertion] = c;
+            children[insertion] = child;
+            System.arraycopy(this.keys, insertion, keys, insertion + 1, this.keys.length - insertion);
+            System.arraycopy(this.children, insertion, children, insertion + 1, this.children.length - insertion);
+            this.keys = keys;
+            this.children = children;
+            return child;
+        }
+    }
+
+    static class Builder {
+
+        private final Node root = new Node(0);
+        private String ipReplacement;
+        private String emailReplacement;
+        private final List<Pattern> patterns = new ArrayList<>();
+        private final List<String> patternReplacements = new ArrayList<>();
+        private int[] patternGroups = new int[0];
+        private final List<AnonymizationRule.Matcher> matchers = new ArrayList<>();
+        private final List<String> matcherReplacements = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Replaces the given literal with the given replacement. Empty literals and literals that were added already
+         * are ignored.
+         */
+        Builder literal(String literal, String replacement) {
+            return addLiteral(literal, false, replacement);
+        }
+
+        /**
+         * Replaces the given prefix and the rest of the token that it starts with the given replacement.
+         * A token ends at the next whitespace or quote.
+         */
+        Builder prefix(String prefix, String replacement) {
+            return addLiteral(prefix, true, replacement);
+        }
+
+        private Builder addLiteral(String literal, boolean prefix, String replacement) {
+            if (literal == null
+                    || literal.isEmpty()) {
+                return this;
+            }
+            Node node = root;
+            for (int i = 0; i < literal.length(); i++) {
+                node = node.addChild(literal.charAt(i));
+            }
+            if (node.output == null) {
+                node.output = replacement;
+                node.outputLength = literal.length();
+                node.outputPrefix = prefix;
+            }
+            return this;
+        }
+
+        /**
+         * Replaces the matches of the given regular expression. Back references are not supported given
+         * that the expression is combined with the others.
+         */
+        Builder pattern(Pattern pattern, String replacement) {
+            if (pattern != null) {
+                patterns.add(pattern);
+                patternReplacements.add(replacement);
+            }
+            return this;
+        }
+
+        /**
+         * Replaces the matches of the given matcher.
+         */
+        Builder matcher(AnonymizationRule.Matcher matcher, String replacement) {
+            if (matcher != null) {
+                matchers.add(matcher);
+                matcherReplacements.add(replacement);
+            }
+            return this;
+        }
+
+        Builder ips(String replacement) {
+            this.ipReplacement = replacement;
+            return this;
+        }
+
+        Builder emails(String replacement) {
+            this.emailReplacement = replacement;
+            return this;
+        }
+
+        Scrubber build() {
+            linkFailures();
+            return new Scrubber(this);
+        }
+
+        /**
+         * Combines all the regular expressions into a single alternation {@code (?:(p1))|(?:(p2))|...} and
+         * records the group of each alternative. The flags of each expression are inlined.
+         */
+        private Pattern combinePatterns() {
+            if (patterns.isEmpty()) {
+                return null;
+            }
+            this.patternGroups = new int[patterns.size()];
+            StringBuilder combined = new StringBuilder();
+            int group = 1;
+            for (int i = 0; i < patterns.size(); i++) {
+                Pattern pattern = patterns.get(i);
+                if (i > 0) {
+                    combined.append('|');
+                }
+                combined.append("(?").append(inlineFlags(pattern.flags())).append(":(");
+                if ((pattern.flags() & Pattern.LITERAL) != 0) {
+                    combined.append(Pattern.quote(pattern.pattern()));
+                } else {
+                    combined.append(pattern.pattern());
+                }
+                combined.append("))");
+                patternGroups[i] = group;
+                group += 1 + pattern.matcher("").groupCount();
+            }
+            return Pattern.compile(combined.toString());
+        }
+
+        private static String inlineFlags(int flags) {
+            StringBuilder inline = new StringBuilder();
+            if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+                inline.append('i');
+            }
+            if ((flags & Pattern.MULTILINE) != 0) {
+                inline.append('m');
+            }
+            if ((flags & Pattern.DOTALL) != 0) {
+                inline.append('s');
+            }
+            if ((flags & Pattern.UNICODE_CASE) != 0) {
+                inline.append('u');
+            }
+            if ((flags & Pattern.COMMENTS) != 0) {
+                inline.append('x');
+            }
+            if ((flags & Pattern.UNIX_LINES) != 0) {
+                inline.append('d');
+            }
+            if ((flags & Pattern.UNICODE_CHARACTER_CLASS) != 0) {
+                inline.append('U');
+            }
+            return inline.toString();
+        }
+
+        /**
+         * Sets the failure links breadth first. Nodes that are not the end of a literal inherit the longest
+         * literal that ends in their failure node.
+         */
+        private void linkFailures() {
+            Deque<Node> queue = new ArrayDeque<>();
+            root.failure = root;
+            for (Node child : root.children) {
+                child.failure = root;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                for (int i = 0; i < node.keys.length; i++) {
+                    char c = node.keys[i];
+                    Node child = node.children[i];
+                    Node failure = node.failure;
+                    while (failure != root
+                            && failure.child(c) == null) {
+                        failure = failure.failure;
+                    }
+                    Node target = failure.child(c);
+                    child.failure = target != null && target != child ? target : root;
+                    if (child.output == null
+                            && child.failure.output != null) {
+                        child.output = child.failure.output;
+                        child.outputLength = child.failure.outputLength;
+                        child.outputPrefix = child.failure.outputPrefix;
+                    }
+                    queue.add(child);
+                }
+            }
+        }
+    }
+}
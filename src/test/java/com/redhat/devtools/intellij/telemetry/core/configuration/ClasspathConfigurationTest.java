@@ -14,8 +14,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -37,4 +39,76 @@ class ClasspathConfigurationTest {
         // then
         assertThat(value).isEqualTo("SEGPROP-normal");
     }
+
+    @Test
+    void get_loads_property_file_only_once_per_class_loader() {
+        // given
+        CountingClassLoader classLoader = new CountingClassLoader();
+        ClasspathConfiguration config1 = new ClasspathConfiguration(Paths.get("segment.properties"), classLoader);
+        ClasspathConfiguration config2 = new ClasspathConfiguration(Paths.get("segment.properties"), classLoader);
+        // when
+        config1.get("writeKey");
+        config1.get("debugWriteKey");
+        String value = config2.get("writeKey");
+        // then
+        assertThat(value).isEqualTo("SEGPROP-normal");
+        assertThat(classLoader.loaded.get()).isEqualTo(1);
+    }
+
+    @Test
+    void put_does_NOT_change_properties_of_other_configuration_for_same_file_and_class_loader() {
+        // given
+        CountingClassLoader classLoader = new CountingClassLoader();
+        ClasspathConfiguration config1 = new ClasspathConfiguration(Paths.get("segment.properties"), classLoader);
+        ClasspathConfiguration config2 = new ClasspathConfiguration(Paths.get("segment.properties"), classLoader);
+        config1.get("writeKey");
+        // when
+        config1.put("writeKey", "yoda");
+        String value = config2.get("writeKey");
+        // then
+        assertThat(config1.get("writeKey")).isEqualTo("yoda");
+        assertThat(value).isEqualTo("SEGPROP-normal");
+        assertThat(classLoader.loaded.get()).isEqualTo(1);
+    }
+
+    @Test
+    void reload_loads_property_file_again() {
+        // given
+        CountingClassLoader classLoader = new CountingClassLoader();
+        ClasspathConfiguration config = new ClasspathConfiguration(Paths.get("segment.properties"), classLoader);
+        config.get("writeKey");
+        // when
+        config.reload();
+        String value = config.get("writeKey");
+        // then
+        assertThat(value).isEqualTo("SEGPROP-normal");
+        assertThat(classLoader.loaded.get()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_loads_property_file_again_for_new_configurations() {
+        // given
+        CountingClassLoader classLoader = new CountingClassLoader();
+        new ClasspathConfiguration(Paths.get("segment.properties"), classLoader).get("writeKey");
+        // when
+        ClasspathConfiguration.invalidate(classLoader);
+        new ClasspathConfiguration(Paths.get("segment.properties"), classLoader).get("writeKey");
+        // then
+        assertThat(classLoader.loaded.get()).isEqualTo(2);
+    }
+
+    private static class CountingClassLoader extends ClassLoader {
+
+        private final AtomicInteger loaded = new AtomicInteger();
+
+        private CountingClassLoader() {
+            super(ClasspathConfigurationTest.class.getClassLoader());
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            loaded.incrementAndGet();
+            return super.getResourceAsStream(name);
+        }
+    }
 }
@@ -28,6 +28,7 @@ class FileConfigurationTest {
     private Path path;
 
     private static final Pair<String, String> property1 = new Pair<>("luke", "jedy");
+    private static final Pair<String, String> property2 = new Pair<>("anakin", "sith");
 
     @BeforeEach
     void beforeEach() throws IOException {
@@ -55,4 +56,16 @@ class FileConfigurationTest {
         assertThat(value).isNull();
     }
 
+    @Test
+    void reload_loads_changed_property_file() throws IOException {
+        // given
+        assertThat(config.get(property1.first)).isEqualTo(property1.second);
+        createPropertyFile(path, property2);
+        // when
+        config.reload();
+        // then
+        assertThat(config.get(property1.first)).isNull();
+        assertThat(config.get(property2.first)).isEqualTo(property2.second);
+    }
+
 }
@@ -10,10 +10,14 @@
  ******************************************************************************/
 package com.redhat.devtools.intellij.telemetry.core.configuration;
 
+import com.redhat.devtools.intellij.telemetry.core.util.FileWatcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
@@ -26,9 +30,12 @@ import static com.redhat.devtools.intellij.telemetry.core.configuration.Telemetr
 import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.Mode.DEBUG;
 import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.Mode.UNKNOWN;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 class TelemetryConfigurationTest {
@@ -159,6 +166,79 @@ class TelemetryConfigurationTest {
         assertThat(mode).isEqualTo(DEBUG);
     }
 
+    @Test
+    void getMode_should_NOT_resolve_configurations_again_if_nothing_changed() {
+        // given
+        doReturnValues(KEY_MODE,
+                null, "normal", null);
+        // when
+        config.getMode();
+        config.isEnabled();
+        config.isConfigured();
+        Mode mode = config.getMode();
+        // then
+        assertThat(mode).isEqualTo(NORMAL);
+        verify(overrides, times(1)).get(KEY_MODE);
+    }
+
+    @Test
+    void getMode_should_return_new_mode_once_it_was_put() {
+        // given
+        doReturnValues(KEY_MODE,
+                null, "normal", null);
+        config.getMode();
+        doReturnValues(KEY_MODE,
+                null, "disabled", null);
+        // when
+        config.put(KEY_MODE, "disabled");
+        // then
+        assertThat(config.getMode()).isEqualTo(DISABLED);
+    }
+
+    @Test
+    void getMode_should_return_new_mode_once_file_changed() throws IOException {
+        // given
+        Runnable onFileChanged = watch(config);
+        doReturnValues(KEY_MODE,
+                null, "normal", null);
+        config.getMode();
+        doReturnValues(KEY_MODE,
+                null, "disabled", null);
+        // when
+        onFileChanged.run();
+        // then
+        verify(file).reload();
+        assertThat(config.getMode()).isEqualTo(DISABLED);
+    }
+
+    @Test
+    void file_change_should_notify_if_mode_changed() throws IOException {
+        // given
+        Runnable onFileChanged = watch(config);
+        doReturnValues(KEY_MODE,
+                null, "normal", null);
+        config.getMode();
+        doReturnValues(KEY_MODE,
+                null, "disabled", null);
+        // when
+        onFileChanged.run();
+        // then
+        verify(listener).configurationChanged(KEY_MODE, DISABLED.toString());
+    }
+
+    @Test
+    void file_change_should_NOT_notify_if_mode_is_unchanged() throws IOException {
+        // given
+        Runnable onFileChanged = watch(config);
+        doReturnValues(KEY_MODE,
+                null, "normal", null);
+        config.getMode();
+        // when
+        onFileChanged.run();
+        // then
+        verify(listener, never()).configurationChanged(anyString(), anyString());
+    }
+
     @Test
     void isEnabled_should_return_true_for_normal_mode() {
         // given
@@ -272,6 +352,15 @@ class TelemetryConfigurationTest {
         return mock;
     }
 
+    private static Runnable watch(TelemetryConfiguration config) throws IOException {
+        FileWatcher watcher = mock(FileWatcher.class);
+        Path file = Paths.get("com.redhat.devtools.intellij.telemetry");
+        config.watch(watcher, file);
+        ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+        verify(watcher).watch(any(Path.class), listener.capture());
+        return listener.getValue();
+    }
+
     private void doReturnValues(String key, String overridesValue, String fileValue, String defaultsValue) {
         doReturn(overridesValue)
                 .when(overrides).get(key);
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventCountTableTest {
+
+    private static final long TODAY = 20_000;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 10_000;
+
+    @Test
+    public void increment_should_reset_total_if_last_occurrence_was_on_previous_day() {
+        // given
+        EventCountTable table = new EventCountTable();
+        table.set("yoda", EventCountTable.pack(TODAY - 1, 42));
+        // when
+        table.increment("yoda", TODAY);
+        // then
+        long count = table.get("yoda");
+        assertThat(EventCountTable.getDay(count)).isEqualTo(TODAY);
+        assertThat(EventCountTable.getTotal(count)).isEqualTo(1);
+    }
+
+    @Test
+    public void tryIncrement_should_NOT_increment_if_total_is_NOT_within_limit() {
+        // given
+        EventCountTable table = new EventCountTable();
+        table.set("yoda", EventCountTable.pack(TODAY, 42));
+        // when
+        boolean incremented = table.tryIncrement("yoda", TODAY, total -> total < 42);
+        // then
+        assertThat(incremented).isFalse();
+        assertThat(EventCountTable.getTotal(table.get("yoda"))).isEqualTo(42);
+    }
+
+    @Test
+    public void increment_should_NOT_lose_increments_when_called_concurrently() throws Exception {
+        // given
+        EventCountTable table = new EventCountTable();
+        // when
+        hammer(() -> {
+            table.increment("yoda", TODAY);
+            return true;
+        });
+        // then
+        assertThat(EventCountTable.getTotal(table.get("yoda"))).isEqualTo(THREADS * ATTEMPTS);
+    }
+
+    @Test
+    public void tryIncrement_should_NOT_exceed_limit_when_called_concurrently() throws Exception {
+        // given
+        EventCountTable table = new EventCountTable();
+        int limit = 1_000;
+        // when
+        List<Integer> reserved = hammer(() -> table.tryIncrement("yoda", TODAY, total -> total < limit));
+        // then
+        assertThat(reserved.stream().mapToInt(Integer::intValue).sum()).isEqualTo(limit);
+        assertThat(EventCountTable.getTotal(table.get("yoda"))).isEqualTo(limit);
+    }
+
+    @Test
+    public void increment_should_NOT_lose_increments_when_new_events_are_interned_concurrently() throws Exception {
+        // given
+        EventCountTable table = new EventCountTable();
+        int events = 600; // more than a chunk
+        AtomicInteger attempts = new AtomicInteger();
+        // when
+        hammer(() -> {
+            table.increment("jedi " + attempts.getAndIncrement() % events, TODAY);
+            return true;
+        });
+        // then
+        int total = 0;
+        for (int i = 0; i < events; i++) {
+            total += EventCountTable.getTotal(table.get("jedi " + i));
+        }
+        assertThat(total).isEqualTo(THREADS * ATTEMPTS);
+    }
+
+    /**
+     * Runs the given attempt {@link #ATTEMPTS} times in each of {@link #THREADS} threads, all starting at once.
+     * Returns the number of attempts that succeeded in each thread.
+     */
+    private static List<Integer> hammer(Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int succeeded = 0;
+                    for (int j = 0; j < ATTEMPTS; j++) {
+                        if (attempt.run()) {
+                            succeeded++;
+                        }
+                    }
+                    return succeeded;
+                }));
+            }
+            start.countDown();
+            List<Integer> succeeded = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                succeeded.add(future.get(1, TimeUnit.MINUTES));
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Attempt {
+        boolean run();
+    }
+}
@@ -23,9 +23,12 @@ import org.xml.sax.InputSource;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
-import java.time.temporal.ChronoUnit;
+import java.util.Map;
 
 import static com.redhat.devtools.intellij.telemetry.core.configuration.limits.EventCounts.Count;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -44,6 +47,10 @@ public class EventCountsTest extends BasePlatformTestCase {
             .put(event1, count1)
             .put(event2, count2);
 
+    private final Map<String, String> legacyWith2Properties = Map.of(
+            "1", "1680573844,42",
+            "2", "1691474888,84");
+
     private final String serializedWith2Properties =
             "<EventCounts>\n" +
             "  <option name=\"counts\">\n" +
@@ -63,13 +70,13 @@ public class EventCountsTest extends BasePlatformTestCase {
         assertThat(counts).isNotNull();
     }
 
-    public void test_should_serialize_EventCounts_with_2_properties() throws IOException {
+    public void test_should_NOT_serialize_counts_to_xml() throws IOException {
         // given
         // when
         Element element = XmlSerializer.serialize(with2Properties);
         // then
         String xml = toXML(element);
-        assertThat(xml).isEqualTo(serializedWith2Properties);
+        assertThat(xml).doesNotContain("entry");
     }
 
     public void test_should_deserialize_EventCounts_with_2_properties() throws IOException, JDOMException {
@@ -78,17 +85,44 @@ public class EventCountsTest extends BasePlatformTestCase {
         // when
         EventCounts counts = XmlSerializer.deserialize(document, EventCounts.class);
         // then
-        assertThat(counts.counts).isEqualTo(with2Properties.counts);
+        assertThat(counts.counts).isEqualTo(legacyWith2Properties);
     }
 
-    public void test_loadState_should_have_2_properties()  {
+    public void test_loadState_should_migrate_legacy_counts() throws IOException, JDOMException {
         // given
+        EventCounts legacy = XmlSerializer.deserialize(toDocument(serializedWith2Properties), EventCounts.class);
         EventCounts counts = new EventCounts();
-        assertThat(counts.counts.size()).isEqualTo(0);
         // when
-        counts.loadState(with2Properties);
+        counts.loadState(legacy);
+        // then
+        assertThat(counts.get(event1)).isEqualTo(count1);
+        assertThat(counts.get(event2)).isEqualTo(count2);
+        assertThat(counts.counts).isEmpty();
+    }
+
+    public void test_save_should_persist_counts_that_are_loaded_by_new_instance() throws IOException {
+        // given
+        Path file = Files.createTempDirectory("eventCounts").resolve(EventCounts.FILE_NAME);
+        EventCounts counts = new EventCounts(file);
+        counts.put(event1, count1);
+        counts.put(event2);
+        counts.put(event2);
+        // when
+        counts.save();
         // then
-        assertThat(counts.counts).isEqualTo(with2Properties.counts);
+        EventCounts loaded = new EventCounts(file);
+        assertThat(loaded.get(event1)).isEqualTo(count1);
+        assertThat(loaded.getDailyTotal(event2)).isEqualTo(2);
+    }
+
+    public void test_getDailyTotal_should_return_0_if_last_occurrence_was_not_today() {
+        // given
+        EventCounts counts = new EventCounts()
+                .put(event1, new Count(LocalDateTime.now().minus(Period.ofDays(1)), 42));
+        // when
+        int total = counts.getDailyTotal(event1);
+        // then
+        assertThat(total).isZero();
     }
 
     public void test_get_should_return_count() {
@@ -140,20 +174,18 @@ public class EventCountsTest extends BasePlatformTestCase {
         assertThat(existing.getDailyTotal()).isEqualTo(1);
     }
 
-    public void test_put_should_update_existing_count_if_it_already_existed() throws InterruptedException {
+    public void test_put_should_update_existing_count_if_it_already_existed() {
         // given
         EventCounts counts = new EventCounts();
         counts.put(event1);
         Count count = counts.get(event1);
         assertThat(count).isNotNull();
-        LocalDateTime previousOccurrence = count.getLastOccurrence();
         int previousTotal = count.getDailyTotal();
-        Thread.sleep(1000); // wait for 1s, timestamp is in seconds only
         // when
         counts.put(event1);
         // then
         count = counts.get(event1);
-        assertThat(count.getLastOccurrence()).isAfter(previousOccurrence);
+        assertThat(count.getLastOccurrenceDate()).isEqualTo(LocalDate.now());
         assertThat(count.getDailyTotal()).isEqualTo(previousTotal + 1);
     }
 
@@ -20,17 +20,31 @@ import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.redhat.devtools.intellij.telemetry.core.configuration.limits.EventLimits.PluginLimitsFactory;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class EventLimitsTest {
@@ -340,6 +354,281 @@ public class EventLimitsTest {
         verify(eventCounts).put(event);
     }
 
+    @Test
+    public void tryReserve_puts_event_to_eventCount() {
+        // given
+        EventCounts eventCounts = mock(EventCounts.class);
+        EventLimits limits = new EventLimits(
+                "jedis",
+                Collections.emptyList(), // no limits
+                null,
+                createConfigurations(LocalDateTime.now()),
+                eventCounts);
+        Event event = new Event(Event.Type.USER, "luke");
+        // when
+        boolean reserved = limits.tryReserve(event);
+        // then
+        assertThat(reserved).isTrue();
+        verify(eventCounts).put(event);
+    }
+
+    @Test
+    public void tryReserveAll_returns_events_within_dailyLimit() {
+        // given
+        EventCounts eventCounts = new EventCounts();
+        EventLimits limits = new EventLimits(
+                "jedis",
+                List.of(Mocks.pluginLimitsWithIncludesExcludes(
+                        List.of(Mocks.eventNameWithDailyLimit(2)),
+                        Collections.emptyList())),
+                null,
+                createConfigurations(LocalDateTime.now()),
+                eventCounts);
+        Event first = new Event(Event.Type.USER, "luke");
+        Event second = new Event(Event.Type.USER, "luke");
+        Event third = new Event(Event.Type.USER, "luke");
+        // when
+        List<Event> reserved = limits.tryReserveAll(List.of(first, second, third));
+        // then
+        assertThat(reserved).containsExactly(first, second);
+    }
+
+    @Test
+    public void tryReserveAll_returns_copy_with_sample_rate_of_sampled_event() {
+        // given
+        Filter sampling = new Filter.EventPropertyFilter("jedi", "*") {
+            @Override
+            public float sample(Event event) {
+                return 0.5f;
+            }
+        };
+        EventLimits limits = new EventLimits(
+                "jedis",
+                List.of(Mocks.pluginLimitsWithIncludesExcludes(
+                        List.of(sampling),
+                        Collections.emptyList())),
+                null,
+                createConfigurations(LocalDateTime.now()),
+                new EventCounts());
+        Event event = new Event(Event.Type.ACTION, "luke", Map.of("jedi", "yoda"));
+        // when
+        List<Event> reserved = limits.tryReserveAll(List.of(event));
+        // then
+        assertThat(reserved).hasSize(1);
+        assertThat(reserved.get(0).getProperties())
+                .containsEntry("jedi", "yoda")
+                .containsEntry(Sampler.PROP_SAMPLE_RATE, "0.5");
+        assertThat(event.getProperties()).doesNotContainKey(Sampler.PROP_SAMPLE_RATE);
+    }
+
+    @Test
+    public void tryReserve_does_NOT_exceed_dailyLimit_when_called_concurrently() throws Exception {
+        // given
+        int dailyLimit = 100;
+        EventCounts eventCounts = new EventCounts();
+        EventLimits limits = new EventLimits(
+                "jedis",
+                List.of(Mocks.pluginLimitsWithIncludesExcludes(
+                        List.of(Mocks.eventNameWithDailyLimit(dailyLimit)),
+                        Collections.emptyList())),
+                null,
+                createConfigurations(LocalDateTime.now()),
+                eventCounts);
+        Event event = new Event(Event.Type.USER, "luke");
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // when
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 1_000; j++) {
+                        if (limits.tryReserve(event)) {
+                            reserved.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // then
+        assertThat(reserved.get()).isEqualTo(dailyLimit);
+        assertThat(eventCounts.getDailyTotal(event)).isEqualTo(dailyLimit);
+    }
+
+    @Test
+    public void canSend_does_NOT_access_local_file() {
+        // given
+        LimitsConfigurations configurations = createConfigurations(LocalDateTime.now());
+        EventLimits limits = new EventLimits(
+                "jedis",
+                List.of(createDefaultPluginLimits(true)),
+                null,
+                configurations,
+                mock(EventCounts.class));
+        // when
+        limits.canSend(new Event(Event.Type.USER, "luke"));
+        limits.canSend(new Event(Event.Type.USER, "leia"));
+        // then
+        verify(configurations, never()).getLocalLastModified();
+        verify(configurations, never()).readLocal();
+    }
+
+    @Test
+    public void canSend_reads_local_config_and_schedules_refresh_instead_of_downloading_remote() throws IOException {
+        // given
+        PluginLimitsFactory factory = mock(PluginLimitsFactory.class);
+        LimitsConfigurations configurations = createConfigurations(LocalDateTime.now().minusDays(1)); // outdated
+        doReturn(LOCAL)
+                .when(configurations).readLocal();
+        doReturn(localLimits)
+                .when(factory).create(LOCAL);
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        EventLimits limits = new EventLimits("jedis", null, factory, configurations, mock(EventCounts.class), scheduler, null);
+        // when
+        limits.canSend(new Event(Event.Type.USER, "luke"));
+        // then
+        verify(configurations).readLocal();
+        verify(configurations, never()).downloadRemote();
+        verify(scheduler).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void refresh_downloads_remote_if_outdated_and_reschedules() throws IOException {
+        // given
+        PluginLimitsFactory factory = mock(PluginLimitsFactory.class);
+        LimitsConfigurations configurations = createConfigurations(LocalDateTime.now().minusDays(1)); // outdated
+        doReturn(REMOTE)
+                .when(configurations).downloadRemote();
+        doReturn(remoteLimits)
+                .when(factory).create(REMOTE);
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        EventLimits limits = new EventLimits("jedis", localLimits, factory, configurations, mock(EventCounts.class), scheduler, null);
+        // when
+        limits.refresh();
+        // then
+        verify(configurations).downloadRemote();
+        verify(scheduler).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+        assertThat(limits.getMetrics().getRefreshes()).isEqualTo(1);
+        assertThat(limits.getMetrics().getFailures()).isZero();
+    }
+
+    @Test
+    public void refresh_counts_failure_if_remote_cannot_be_downloaded() {
+        // given
+        LimitsConfigurations configurations = createConfigurations(LocalDateTime.now().minusDays(1)); // outdated
+        doReturn(null)
+                .when(configurations).downloadRemote();
+        EventLimits limits = new EventLimits("jedis", localLimits, mock(PluginLimitsFactory.class), configurations, mock(EventCounts.class), mock(ScheduledExecutorService.class), null);
+        // when
+        limits.refresh();
+        // then
+        assertThat(limits.getMetrics().getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    public void refresh_schedules_retry_if_remote_cannot_be_downloaded() {
+        // given
+        LimitsConfigurations configurations = createConfigurations(LocalDateTime.now().minusDays(1)); // outdated
+        doReturn(null)
+                .when(configurations).downloadRemote();
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        EventLimits limits = new EventLimits("jedis", localLimits, mock(PluginLimitsFactory.class), configurations, mock(EventCounts.class), scheduler, null);
+        // when
+        limits.refresh();
+        // then
+        verify(scheduler).schedule(any(Runnable.class), eq(LimitsRefresher.RETRY_PERIOD.toMillis()), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void refresh_does_NOT_block_dispose_while_downloading() throws IOException {
+        // given
+        PluginLimitsFactory factory = mock(PluginLimitsFactory.class);
+        LimitsConfigurations configurations = createConfigurations(LocalDateTime.now().minusDays(1)); // outdated
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        EventLimits limits = new EventLimits("jedis", localLimits, factory, configurations, mock(EventCounts.class), scheduler, null);
+        doAnswer(invocation -> {
+            Thread dispose = new Thread(limits::dispose);
+            dispose.start();
+            dispose.join(TimeUnit.SECONDS.toMillis(5));
+            assertThat(dispose.isAlive()).isFalse();
+            return REMOTE;
+        }).when(configurations).downloadRemote();
+        doReturn(remoteLimits)
+                .when(factory).create(REMOTE);
+        // when
+        limits.refresh();
+        // then
+        verify(configurations).downloadRemote();
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void reloadLocal_swaps_limits_if_local_file_was_modified() throws IOException {
+        // given
+        PluginLimitsFactory factory = mock(PluginLimitsFactory.class);
+        LimitsConfigurations configurations = mock(LimitsConfigurations.class);
+        doReturn(createFileTime(2))
+                .when(configurations).getLocalLastModified();
+        doReturn(LOCAL)
+                .when(configurations).readLocal();
+        doReturn(List.of(createDefaultPluginLimits(true)))
+                .when(factory).create(LOCAL);
+        EventLimits limits = new EventLimits("jedis", null, factory, configurations, mock(EventCounts.class), mock(ScheduledExecutorService.class), null);
+        assertThat(limits.canSend(new Event(Event.Type.USER, "luke"))).isTrue();
+        doReturn(createFileTime(0)) // file modified
+                .when(configurations).getLocalLastModified();
+        doReturn(List.of(createDefaultPluginLimits(false)))
+                .when(factory).create(LOCAL);
+        // when
+        limits.reloadLocal();
+        // then
+        assertThat(limits.canSend(new Event(Event.Type.USER, "luke"))).isFalse();
+    }
+
+    @Test
+    public void reloadLocal_does_NOT_read_local_file_if_it_was_NOT_modified() throws IOException {
+        // given
+        PluginLimitsFactory factory = mock(PluginLimitsFactory.class);
+        LimitsConfigurations configurations = createConfigurations(LocalDateTime.now());
+        doReturn(LOCAL)
+                .when(configurations).readLocal();
+        doReturn(localLimits)
+                .when(factory).create(LOCAL);
+        EventLimits limits = new EventLimits("jedis", null, factory, configurations, mock(EventCounts.class), mock(ScheduledExecutorService.class), null);
+        limits.canSend(new Event(Event.Type.USER, "luke"));
+        // when
+        limits.reloadLocal();
+        // then
+        verify(configurations, times(1)).readLocal();
+    }
+
+    @Test
+    public void dispose_cancels_scheduled_refresh() {
+        // given
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> future = mock(ScheduledFuture.class);
+        doReturn(future)
+                .when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        EventLimits limits = new EventLimits("jedis", null, mock(PluginLimitsFactory.class), createConfigurations(LocalDateTime.now()), mock(EventCounts.class), scheduler, null);
+        limits.canSend(new Event(Event.Type.USER, "luke"));
+        // when
+        limits.dispose();
+        limits.refresh();
+        // then
+        verify(future).cancel(false);
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
     private static FileTime createFileTime(int createdHoursAgo) {
         return FileTime.from(
                 Instant.now().minus(createdHoursAgo, ChronoUnit.HOURS));
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import com.redhat.devtools.intellij.telemetry.core.configuration.limits.Filter.EventNameFilter;
+import com.redhat.devtools.intellij.telemetry.core.configuration.limits.Filter.EventPropertyFilter;
+import com.redhat.devtools.intellij.telemetry.core.service.Event;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.redhat.devtools.intellij.telemetry.core.configuration.limits.Mocks.eventProperty;
+import static com.redhat.devtools.intellij.telemetry.core.service.Event.Type.ACTION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterIndexTest {
+
+    @Test
+    void getMatching_should_return_null_if_there_are_no_filters() {
+        // given
+        FilterIndex index = new FilterIndex(Collections.emptyList());
+        // when
+        Filter matching = index.getMatching(event("yoda"));
+        // then
+        assertThat(matching).isNull();
+    }
+
+    @Test
+    void getMatching_should_return_null_if_no_filter_matches() {
+        // given
+        FilterIndex index = new FilterIndex(List.of(nameFilter("yoda"), nameFilter("obiwan*"), nameFilter("luke?")));
+        // when
+        Filter matching = index.getMatching(event("darth vader"));
+        // then
+        assertThat(matching).isNull();
+    }
+
+    @Test
+    void getMatching_should_return_literal_name_filter() {
+        // given
+        EventNameFilter yoda = nameFilter("yoda");
+        FilterIndex index = new FilterIndex(List.of(nameFilter("obiwan"), yoda));
+        // when
+        Filter matching = index.getMatching(event("yoda"));
+        // then
+        assertThat(matching).isSameAs(yoda);
+    }
+
+    @Test
+    void getMatching_should_return_prefix_name_filter() {
+        // given
+        EventNameFilter jedi = nameFilter("jedi*");
+        FilterIndex index = new FilterIndex(List.of(nameFilter("sith*"), jedi));
+        // when
+        Filter matching = index.getMatching(event("jedi master yoda"));
+        // then
+        assertThat(matching).isSameAs(jedi);
+    }
+
+    @Test
+    void getMatching_should_NOT_match_wildcard_across_separator() {
+        // given
+        FilterIndex index = new FilterIndex(List.of(nameFilter("jedi*")));
+        // when
+        Filter matching = index.getMatching(event("jedi/yoda"));
+        // then
+        assertThat(matching).isNull();
+    }
+
+    @Test
+    void getMatching_should_match_double_wildcard_across_separator() {
+        // given
+        EventNameFilter jedi = nameFilter("jedi**");
+        FilterIndex index = new FilterIndex(List.of(jedi));
+        // when
+        Filter matching = index.getMatching(event("jedi/yoda"));
+        // then
+        assertThat(matching).isSameAs(jedi);
+    }
+
+    @Test
+    void getMatching_should_return_glob_name_filter() {
+        // given
+        EventNameFilter master = nameFilter("*master {yoda,obiwan}");
+        FilterIndex index = new FilterIndex(List.of(nameFilter("luke"), master));
+        // when
+        Filter matching = index.getMatching(event("jedi master obiwan"));
+        // then
+        assertThat(matching).isSameAs(master);
+    }
+
+    @Test
+    void getMatching_should_return_first_matching_filter_in_configuration_order() {
+        // given
+        EventNameFilter glob = nameFilter("*yoda");
+        EventNameFilter prefix = nameFilter("master*");
+        EventNameFilter literal = nameFilter("master yoda");
+        FilterIndex index = new FilterIndex(List.of(glob, prefix, literal));
+        FilterIndex reversed = new FilterIndex(List.of(literal, prefix, glob));
+        // when
+        Filter matching = index.getMatching(event("master yoda"));
+        Filter reversedMatching = reversed.getMatching(event("master yoda"));
+        // then
+        assertThat(matching).isSameAs(glob);
+        assertThat(reversedMatching).isSameAs(literal);
+    }
+
+    @Test
+    void getMatching_should_return_property_filter_that_precedes_matching_name_filter() {
+        // given
+        EventPropertyFilter property = new EventPropertyFilter("side", "dark");
+        EventNameFilter name = nameFilter("anakin");
+        FilterIndex index = new FilterIndex(List.of(property, name));
+        // when
+        Filter matching = index.getMatching(new Event(ACTION, "anakin", Map.of("side", "dark")));
+        Filter notMatching = index.getMatching(new Event(ACTION, "anakin", Map.of("side", "light")));
+        // then
+        assertThat(matching).isSameAs(property);
+        assertThat(notMatching).isSameAs(name);
+    }
+
+    @Test
+    void getMatching_should_NOT_return_property_filter_that_follows_matching_name_filter() {
+        // given
+        EventNameFilter name = nameFilter("anakin");
+        FilterIndex index = new FilterIndex(List.of(name, eventProperty()));
+        // when
+        Filter matching = index.getMatching(event("anakin"));
+        // then
+        assertThat(matching).isSameAs(name);
+    }
+
+    @Test
+    void getMatching_should_NOT_match_empty_event_name() {
+        // given
+        FilterIndex index = new FilterIndex(List.of(nameFilter("*")));
+        // when
+        Filter matching = index.getMatching(event(""));
+        // then
+        assertThat(matching).isNull();
+    }
+
+    @Test
+    void getMatching_should_return_same_result_once_memoized_names_were_evicted() {
+        // given
+        EventNameFilter jedi = nameFilter("jedi*");
+        FilterIndex index = new FilterIndex(List.of(jedi));
+        index.getMatching(event("jedi yoda"));
+        for (int i = 0; i <= FilterIndex.MAX_MEMOIZED_NAMES; i++) {
+            index.getMatching(event("sith " + i));
+        }
+        // when
+        Filter matching = index.getMatching(event("jedi yoda"));
+        // then
+        assertThat(matching).isSameAs(jedi);
+    }
+
+    private static EventNameFilter nameFilter(String name) {
+        return new EventNameFilter(name, 1, EventNameFilter.DAILY_LIMIT_UNSPECIFIED);
+    }
+
+    private static Event event(String name) {
+        return new Event(ACTION, name);
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import com.redhat.devtools.intellij.telemetry.core.service.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static com.redhat.devtools.intellij.telemetry.core.configuration.limits.EventLimits.PluginLimitsFactory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LimitsRefresherTest {
+
+    private static final String LOCAL = "local";
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> future;
+    private LimitsConfigurations configurations;
+    private LimitsRefresher refresher;
+
+    @BeforeEach
+    void before() throws IOException {
+        this.scheduler = mock(ScheduledExecutorService.class);
+        this.future = mock(ScheduledFuture.class);
+        doReturn(future)
+                .when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        this.configurations = mock(LimitsConfigurations.class);
+        doReturn(FileTime.fromMillis(System.currentTimeMillis()))
+                .when(configurations).getLocalLastModified();
+        doReturn(LOCAL)
+                .when(configurations).readLocal();
+        PluginLimitsFactory factory = mock(PluginLimitsFactory.class);
+        doReturn(List.of())
+                .when(factory).create(LOCAL);
+        this.refresher = new LimitsRefresher(null, factory, configurations, scheduler, null);
+    }
+
+    @Test
+    void get_should_load_limits_once_for_all_plugins() throws IOException {
+        // given
+        refresher.acquire();
+        refresher.acquire();
+        EventLimits jedis = new EventLimits("jedis", mock(EventCounts.class), refresher);
+        EventLimits siths = new EventLimits("siths", mock(EventCounts.class), refresher);
+        // when
+        jedis.canSend(new Event(Event.Type.USER, "luke"));
+        siths.canSend(new Event(Event.Type.USER, "vader"));
+        // then
+        verify(configurations, times(1)).readLocal();
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    void release_should_NOT_cancel_refresh_while_other_users_remain() {
+        // given
+        refresher.acquire();
+        refresher.acquire();
+        refresher.get("jedis");
+        // when
+        refresher.release();
+        // then
+        verify(future, never()).cancel(false);
+    }
+
+    @Test
+    void release_should_cancel_refresh_once_all_users_released() {
+        // given
+        refresher.acquire();
+        refresher.acquire();
+        refresher.get("jedis");
+        // when
+        refresher.release();
+        refresher.release();
+        // then
+        verify(future).cancel(false);
+    }
+
+    @Test
+    void acquire_should_return_false_once_all_users_released() {
+        // given
+        refresher.acquire();
+        refresher.release();
+        // when
+        boolean acquired = refresher.acquire();
+        // then
+        assertThat(acquired).isFalse();
+    }
+
+    @Test
+    void dispose_should_release_refresher_only_once() {
+        // given
+        refresher.acquire();
+        refresher.acquire();
+        EventLimits jedis = new EventLimits("jedis", mock(EventCounts.class), refresher);
+        refresher.get("jedis");
+        // when
+        jedis.dispose();
+        jedis.dispose();
+        // then
+        verify(future, never()).cancel(false);
+    }
+}
@@ -349,6 +349,73 @@ public class PluginLimitsDeserializationTest {
         assertThat(dailyLimit).isEqualTo(42);
     }
 
+    @Test
+    public void getIncludes_should_return_event_name_filter_with_probabilistic_sampler_if_sample_rate_is_specified() throws JsonProcessingException {
+        // given
+        String config =
+                "{\n" +
+                        "    \"*\": {\n" +
+                        "        \"includes\": [\n" +
+                        "            {\n" +
+                        "                \"name\" : \"completion\",\n" +
+                        "                \"sampleRate\" : \"0.01\"\n" +
+                        "            }\n" +
+                        "        ]\n" +
+                        "    }" +
+                        "}";
+        List<PluginLimits> limits = PluginLimitsDeserialization.create(config);
+        Filter.EventNameFilter filter = (Filter.EventNameFilter) limits.get(0).getIncludes().get(0);
+        // when
+        Sampler sampler = filter.getSampler();
+        // then
+        assertThat(sampler).isNotSameAs(Sampler.NONE);
+        assertThat(sampler.getClass().getSimpleName()).isEqualTo("Probabilistic");
+    }
+
+    @Test
+    public void getIncludes_should_return_event_name_filter_with_reservoir_sampler_if_reservoir_is_specified() throws JsonProcessingException {
+        // given
+        String config =
+                "{\n" +
+                        "    \"*\": {\n" +
+                        "        \"includes\": [\n" +
+                        "            {\n" +
+                        "                \"name\" : \"editor-*\",\n" +
+                        "                \"sampleRate\" : \"0.01\",\n" +
+                        "                \"reservoir\" : 100\n" +
+                        "            }\n" +
+                        "        ]\n" +
+                        "    }" +
+                        "}";
+        List<PluginLimits> limits = PluginLimitsDeserialization.create(config);
+        Filter.EventNameFilter filter = (Filter.EventNameFilter) limits.get(0).getIncludes().get(0);
+        // when
+        Sampler sampler = filter.getSampler();
+        // then
+        assertThat(sampler.getClass().getSimpleName()).isEqualTo("Reservoir");
+    }
+
+    @Test
+    public void getIncludes_should_return_event_name_filter_without_sampler_if_no_sampling_is_specified() throws JsonProcessingException {
+        // given
+        String config =
+                "{\n" +
+                        "    \"*\": {\n" +
+                        "        \"includes\": [\n" +
+                        "            {\n" +
+                        "                \"name\" : \"yoda\"\n" +
+                        "            }\n" +
+                        "        ]\n" +
+                        "    }" +
+                        "}";
+        List<PluginLimits> limits = PluginLimitsDeserialization.create(config);
+        Filter.EventNameFilter filter = (Filter.EventNameFilter) limits.get(0).getIncludes().get(0);
+        // when
+        Sampler sampler = filter.getSampler();
+        // then
+        assertThat(sampler).isSameAs(Sampler.NONE);
+    }
+
     @Test
     public void getIncludes_should_return_1_event_property_filter() throws JsonProcessingException {
         // given
@@ -10,6 +10,7 @@
  ******************************************************************************/
 package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
 
+import com.redhat.devtools.intellij.telemetry.core.configuration.limits.Filter.EventNameFilter;
 import com.redhat.devtools.intellij.telemetry.core.service.Event;
 import com.redhat.devtools.intellij.telemetry.core.service.UserId;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.redhat.devtools.intellij.telemetry.core.configuration.limits.Mocks.event;
 import static com.redhat.devtools.intellij.telemetry.core.configuration.limits.Mocks.eventNameFilter;
@@ -231,6 +233,106 @@ public class PluginLimitsTest {
         assertThat(canSend).isEqualTo(true);
     }
 
+    @Test
+    public void tryReserve_reserves_with_dailyLimit_of_matching_include() {
+        // given
+        PluginLimits limits = pluginLimitsWithIncludesExcludes(
+                List.of(eventNameWithDailyLimit(1)),
+                Collections.emptyList());
+        Event event = event();
+        // when
+        float sampleRate = limits.tryReserve(event, isWithinDailyLimit ->
+                isWithinDailyLimit.test(0)
+                        && !isWithinDailyLimit.test(1));
+        // then
+        assertThat(sampleRate).isEqualTo(1);
+    }
+
+    @Test
+    public void tryReserve_does_NOT_reserve_if_event_is_excluded() {
+        // given
+        PluginLimits limits = pluginLimitsWithIncludesExcludes(
+                Collections.emptyList(),
+                List.of(eventNameFilter(true, false, true)));
+        Event event = event();
+        AtomicBoolean reservationAttempted = new AtomicBoolean();
+        // when
+        float sampleRate = limits.tryReserve(event, isWithinDailyLimit -> {
+            reservationAttempted.set(true);
+            return true;
+        });
+        // then
+        assertThat(sampleRate).isZero();
+        assertThat(reservationAttempted).isFalse();
+    }
+
+    @Test
+    public void tryReserve_does_NOT_reserve_if_event_is_not_sampled() {
+        // given
+        PluginLimits limits = pluginLimitsWithIncludesExcludes(
+                List.of(eventNameWithSampler(Sampler.probabilistic(0))),
+                Collections.emptyList());
+        Event event = event();
+        AtomicBoolean reservationAttempted = new AtomicBoolean();
+        // when
+        float sampleRate = limits.tryReserve(event, isWithinDailyLimit -> {
+            reservationAttempted.set(true);
+            return true;
+        });
+        // then
+        assertThat(sampleRate).isZero();
+        assertThat(reservationAttempted).isFalse();
+    }
+
+    @Test
+    public void tryReserve_returns_sample_rate_of_sampled_event_without_changing_it() {
+        // given
+        PluginLimits limits = pluginLimitsWithIncludesExcludes(
+                List.of(eventNameWithSampler(sampler(0.25f))),
+                Collections.emptyList());
+        Event event = event(Map.of("jedi", "yoda"));
+        // when
+        float sampleRate = limits.tryReserve(event, isWithinDailyLimit -> true);
+        // then
+        assertThat(sampleRate).isEqualTo(0.25f);
+        assertThat(event.getProperties()).doesNotContainKey(Sampler.PROP_SAMPLE_RATE);
+    }
+
+    @Test
+    public void tryReserve_returns_1_if_event_is_not_sampled() {
+        // given
+        PluginLimits limits = pluginLimitsWithIncludesExcludes(
+                List.of(eventNameWithDailyLimit(EventNameFilter.DAILY_LIMIT_UNSPECIFIED)),
+                Collections.emptyList());
+        Event event = event();
+        // when
+        float sampleRate = limits.tryReserve(event, isWithinDailyLimit -> true);
+        // then
+        assertThat(sampleRate).isEqualTo(1);
+    }
+
+    @Test
+    public void canSend_does_NOT_sample_event() {
+        // given
+        AtomicBoolean sampled = new AtomicBoolean();
+        PluginLimits limits = pluginLimitsWithIncludesExcludes(
+                List.of(eventNameWithSampler(new Sampler() {
+                    @Override
+                    float sample(Event event) {
+                        sampled.set(true);
+                        return 0;
+                    }
+                })),
+                Collections.emptyList());
+        Event event = event();
+        // when
+        boolean canSend = limits.canSend(event, 0);
+        // then
+        assertThat(canSend).isTrue();
+        assertThat(sampled).isFalse();
+        assertThat(event.getProperties()).isEmpty();
+    }
+
     @Test
     public void isIncluded_should_return_true_if_there_is_no_include_filter() {
         // given
@@ -395,4 +497,21 @@ public class PluginLimitsTest {
         assertThat(isExcluded).isFalse();
     }
 
+    private static EventNameFilter eventNameWithSampler(Sampler sampler) {
+        return new EventNameFilter(null, 1, EventNameFilter.DAILY_LIMIT_UNSPECIFIED, sampler) {
+            @Override
+            public boolean isMatching(Event event) {
+                return true;
+            }
+        };
+    }
+
+    private static Sampler sampler(float rate) {
+        return new Sampler() {
+            @Override
+            float sample(Event event) {
+                return rate;
+            }
+        };
+    }
 }
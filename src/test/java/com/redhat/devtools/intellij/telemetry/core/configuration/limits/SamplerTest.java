@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.configuration.limits;
+
+import com.redhat.devtools.intellij.telemetry.core.service.Event;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SamplerTest {
+
+    private static final Event COMPLETION = new Event(Event.Type.ACTION, "completion");
+    private static final Event EDITOR_ACTION = new Event(Event.Type.ACTION, "editor-action");
+
+    @Test
+    void none_should_keep_all_occurrences() {
+        // given
+        Sampler sampler = Sampler.NONE;
+        // when
+        float rate = sampler.sample(COMPLETION);
+        // then
+        assertThat(rate).isEqualTo(1f);
+    }
+
+    @Test
+    void probabilistic_should_return_NONE_if_rate_is_1_or_more() {
+        // given
+        // when
+        Sampler sampler = Sampler.probabilistic(1f);
+        // then
+        assertThat(sampler).isSameAs(Sampler.NONE);
+    }
+
+    @Test
+    void probabilistic_should_keep_share_of_occurrences_at_given_rate() {
+        // given
+        Sampler sampler = Sampler.probabilistic(0.1f);
+        int kept = 0;
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            float rate = sampler.sample(COMPLETION);
+            if (rate > 0) {
+                assertThat(rate).isEqualTo(0.1f);
+                kept++;
+            }
+        }
+        // then
+        assertThat(kept / 100_000d).isCloseTo(0.1, within(0.01));
+    }
+
+    @Test
+    void probabilistic_should_drop_all_occurrences_if_rate_is_0() {
+        // given
+        Sampler sampler = Sampler.probabilistic(0f);
+        // when
+        float rate = sampler.sample(COMPLETION);
+        // then
+        assertThat(rate).isZero();
+    }
+
+    @Test
+    void reservoir_should_return_NONE_if_size_is_0() {
+        // given
+        // when
+        Sampler sampler = Sampler.reservoir(0);
+        // then
+        assertThat(sampler).isSameAs(Sampler.NONE);
+    }
+
+    @Test
+    void reservoir_should_keep_first_occurrences_of_each_event_up_to_size() {
+        // given
+        Sampler sampler = Sampler.reservoir(3);
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertThat(sampler.sample(COMPLETION)).isEqualTo(1f);
+        }
+        // then
+        assertThat(sampler.sample(EDITOR_ACTION)).isEqualTo(1f);
+    }
+
+    @Test
+    void reservoir_should_keep_later_occurrences_at_decreasing_rate() {
+        // given
+        Sampler sampler = Sampler.reservoir(10);
+        int kept = 0;
+        // when
+        for (int occurrence = 1; occurrence <= 10_000; occurrence++) {
+            float rate = sampler.sample(COMPLETION);
+            if (rate > 0) {
+                assertThat(rate).isCloseTo(Math.min(1f, 10f / occurrence), within(0.0001f));
+                kept++;
+            }
+        }
+        // then 10 + 10 * (H(10000) - H(10)) ~ 10 + 10 * 6.9 = 79
+        assertThat(kept).isBetween(40, 130);
+    }
+}
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service;
+
+import com.redhat.devtools.intellij.telemetry.core.service.Event.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.redhat.devtools.intellij.telemetry.core.service.EventAggregator.PROP_COUNT;
+import static com.redhat.devtools.intellij.telemetry.core.service.EventAggregator.PROP_FIRST_OCCURRENCE;
+import static com.redhat.devtools.intellij.telemetry.core.service.EventAggregator.PROP_LAST_OCCURRENCE;
+import static com.redhat.devtools.intellij.telemetry.core.service.Message.PROP_ERROR;
+import static com.redhat.devtools.intellij.telemetry.core.service.TelemetryMessageBuilder.ActionMessage.PROP_DURATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EventAggregatorTest {
+
+    private static final long WINDOW = 10_000;
+    private static final long START = 1_700_000_000_000L;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> timer;
+    private final AtomicLong now = new AtomicLong(START);
+    private final List<Event> expired = new ArrayList<>();
+    private EventAggregator aggregator;
+
+    @BeforeEach
+    void before() {
+        this.scheduler = mock(ScheduledExecutorService.class);
+        this.timer = mock(ScheduledFuture.class);
+        doReturn(timer)
+                .when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        this.aggregator = new EventAggregator(WINDOW, 2, () -> scheduler, now::get, expired::addAll);
+    }
+
+    @Test
+    void fold_should_pass_through_events_without_error() {
+        // given
+        Event success = action("open-project", Map.of("result", "success"));
+        // when
+        List<Event> toSend = aggregator.fold(List.of(success, success));
+        // then
+        assertThat(toSend).containsExactly(success, success);
+        assertThat(aggregator.size()).isZero();
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    void fold_should_send_first_occurrence_of_error_right_away_and_start_window() {
+        // given
+        Event error = error("connect", "connection refused");
+        // when
+        List<Event> toSend = aggregator.fold(List.of(error));
+        // then
+        assertThat(toSend).containsExactly(error);
+        assertThat(aggregator.size()).isEqualTo(1);
+        verify(scheduler).schedule(any(Runnable.class), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void fold_should_hold_repeated_error_until_window_is_over() {
+        // given
+        Event error = error("connect", "connection refused");
+        aggregator.fold(List.of(error));
+        // when
+        List<Event> toSend = aggregator.fold(List.of(error));
+        // then
+        assertThat(toSend).isEmpty();
+        assertThat(aggregator.size()).isEqualTo(1);
+    }
+
+    @Test
+    void fold_should_fold_repeats_of_identical_errors_with_different_durations() {
+        // given
+        aggregator.fold(List.of(error("connect", "connection refused", "1s")));
+        now.addAndGet(2000);
+        aggregator.fold(List.of(error("connect", "connection refused", "2s")));
+        now.addAndGet(3000);
+        aggregator.fold(List.of(error("connect", "connection refused", "3s")));
+        // when
+        List<Event> drained = aggregator.drain();
+        // then
+        assertThat(drained).hasSize(1);
+        Map<String, String> properties = drained.get(0).getProperties();
+        assertThat(properties)
+                .containsEntry(PROP_ERROR, "connection refused")
+                .containsEntry(PROP_DURATION, "2s")
+                .containsEntry(PROP_COUNT, "2")
+                .containsEntry(PROP_FIRST_OCCURRENCE, Instant.ofEpochMilli(START + 2000).toString())
+                .containsEntry(PROP_LAST_OCCURRENCE, Instant.ofEpochMilli(START + 5000).toString());
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    void fold_should_NOT_fold_different_errors() {
+        // given
+        Event refused = error("connect", "connection refused");
+        Event unreachable = error("connect", "host unreachable");
+        // when
+        List<Event> toSend = aggregator.fold(List.of(refused, unreachable, refused, unreachable));
+        // then
+        assertThat(toSend).containsExactly(refused, unreachable);
+        assertThat(aggregator.drain()).containsExactly(refused, unreachable);
+    }
+
+    @Test
+    void drain_should_NOT_return_errors_that_did_not_repeat() {
+        // given
+        aggregator.fold(List.of(error("connect", "connection refused")));
+        // when
+        List<Event> drained = aggregator.drain();
+        // then
+        assertThat(drained).isEmpty();
+        assertThat(aggregator.size()).isZero();
+    }
+
+    @Test
+    void fold_should_pass_through_error_if_max_pending_is_reached() {
+        // given
+        aggregator.fold(List.of(
+                error("connect", "connection refused"),
+                error("connect", "host unreachable")));
+        Event third = error("connect", "timed out");
+        // when
+        List<Event> toSend = aggregator.fold(List.of(third));
+        // then
+        assertThat(toSend).containsExactly(third);
+        assertThat(aggregator.size()).isEqualTo(2);
+    }
+
+    @Test
+    void fold_should_send_pending_repeats_ahead_of_shutdown() {
+        // given
+        Event error = error("connect", "connection refused");
+        aggregator.fold(List.of(error, error));
+        Event shutdown = new Event(Type.SHUTDOWN, "shutdown");
+        // when
+        List<Event> toSend = aggregator.fold(List.of(shutdown));
+        // then
+        assertThat(toSend).containsExactly(error, shutdown);
+        assertThat(aggregator.size()).isZero();
+        verify(timer).cancel(false);
+    }
+
+    @Test
+    void fold_should_pass_through_all_events_if_window_is_0() {
+        // given
+        EventAggregator aggregator = new EventAggregator(0, 2, () -> scheduler, now::get, expired::addAll);
+        Event error = error("connect", "connection refused");
+        // when
+        List<Event> toSend = aggregator.fold(List.of(error, error));
+        // then
+        assertThat(toSend).containsExactly(error, error);
+    }
+
+    @Test
+    void window_end_should_hand_expired_repeats_to_consumer_and_reschedule_for_pending_ones() {
+        // given
+        Event refused = error("connect", "connection refused");
+        aggregator.fold(List.of(refused));
+        now.addAndGet(1000);
+        aggregator.fold(List.of(refused));
+        now.addAndGet(3000);
+        aggregator.fold(List.of(error("connect", "host unreachable")));
+        ArgumentCaptor<Runnable> windowEnd = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(windowEnd.capture(), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+        now.set(START + WINDOW);
+        // when
+        windowEnd.getValue().run();
+        // then
+        assertThat(expired).containsExactly(refused);
+        assertThat(aggregator.size()).isEqualTo(1);
+        verify(scheduler).schedule(any(Runnable.class), eq(4000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void window_end_should_NOT_hand_error_to_consumer_if_it_did_not_repeat() {
+        // given
+        aggregator.fold(List.of(error("connect", "connection refused")));
+        ArgumentCaptor<Runnable> windowEnd = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(windowEnd.capture(), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+        now.set(START + WINDOW);
+        // when
+        windowEnd.getValue().run();
+        // then
+        assertThat(expired).isEmpty();
+        assertThat(aggregator.size()).isZero();
+    }
+
+    @Test
+    void dispose_should_cancel_timer() {
+        // given
+        aggregator.fold(List.of(error("connect", "connection refused")));
+        // when
+        aggregator.dispose();
+        // then
+        verify(timer).cancel(false);
+        assertThat(aggregator.size()).isZero();
+    }
+
+    private static Event action(String name, Map<String, String> properties) {
+        return new Event(Type.ACTION, name, properties);
+    }
+
+    private static Event error(String name, String error) {
+        return error(name, error, "1s");
+    }
+
+    private static Event error(String name, String error, String duration) {
+        return action(name, Map.of(PROP_ERROR, error, PROP_DURATION, duration));
+    }
+}
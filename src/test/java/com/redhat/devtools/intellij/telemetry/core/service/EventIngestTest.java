@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service;
+
+import com.redhat.devtools.intellij.telemetry.core.service.EventIngest.Overflow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.redhat.devtools.intellij.telemetry.core.service.Event.Type.ACTION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventIngestTest {
+
+    private final Event luke = new Event(ACTION, "luke");
+    private final Event leia = new Event(ACTION, "leia");
+    private final Event han = new Event(ACTION, "han");
+
+    @Test
+    void offer_should_hand_event_to_processor() {
+        // given
+        List<Event> processed = new ArrayList<>();
+        EventIngest ingest = new EventIngest(2, Overflow.DROP_NEWEST, 0, Runnable::run, processed::add);
+        // when
+        ingest.offer(luke);
+        // then
+        assertThat(processed).containsExactly(luke);
+        assertThat(ingest.size()).isZero();
+    }
+
+    @Test
+    void offer_should_NOT_process_in_calling_thread() {
+        // given
+        List<Event> processed = new ArrayList<>();
+        EventIngest ingest = new EventIngest(2, Overflow.DROP_NEWEST, 0, runnable -> {}, processed::add);
+        // when
+        boolean offered = ingest.offer(luke);
+        // then
+        assertThat(offered).isTrue();
+        assertThat(processed).isEmpty();
+        assertThat(ingest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void offer_should_drop_newest_if_full_and_policy_is_DROP_NEWEST() {
+        // given
+        List<Event> processed = new ArrayList<>();
+        EventIngest ingest = new EventIngest(2, Overflow.DROP_NEWEST, 0, runnable -> {}, processed::add);
+        ingest.offer(luke);
+        ingest.offer(leia);
+        // when
+        boolean offered = ingest.offer(han);
+        ingest.drain();
+        // then
+        assertThat(offered).isFalse();
+        assertThat(processed).containsExactly(luke, leia);
+        assertThat(ingest.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void offer_should_drop_oldest_if_full_and_policy_is_DROP_OLDEST() {
+        // given
+        List<Event> processed = new ArrayList<>();
+        EventIngest ingest = new EventIngest(2, Overflow.DROP_OLDEST, 0, runnable -> {}, processed::add);
+        ingest.offer(luke);
+        ingest.offer(leia);
+        // when
+        boolean offered = ingest.offer(han);
+        ingest.drain();
+        // then
+        assertThat(offered).isTrue();
+        assertThat(processed).containsExactly(leia, han);
+        assertThat(ingest.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void offer_should_drop_newest_once_timeout_is_reached_if_full_and_policy_is_BLOCK() {
+        // given
+        List<Event> processed = new ArrayList<>();
+        EventIngest ingest = new EventIngest(1, Overflow.BLOCK, 10, runnable -> {}, processed::add);
+        ingest.offer(luke);
+        // when
+        boolean offered = ingest.offer(leia);
+        // then
+        assertThat(offered).isFalse();
+        assertThat(ingest.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void offer_should_enqueue_once_consumer_made_room_if_full_and_policy_is_BLOCK() throws InterruptedException {
+        // given
+        List<Event> processed = Collections.synchronizedList(new ArrayList<>());
+        EventIngest ingest = new EventIngest(1, Overflow.BLOCK, 5000, runnable -> {}, processed::add);
+        ingest.offer(luke);
+        Thread consumer = new Thread(() -> {
+            sleep(50);
+            ingest.drain();
+        });
+        consumer.start();
+        // when
+        boolean offered = ingest.offer(leia);
+        consumer.join();
+        ingest.drain();
+        // then
+        assertThat(offered).isTrue();
+        assertThat(processed).containsExactly(luke, leia);
+        assertThat(ingest.getDropped()).isZero();
+    }
+
+    @Test
+    void offer_should_process_all_events_of_concurrent_producers() throws InterruptedException {
+        // given
+        int producers = 8;
+        int eventsPerProducer = 1000;
+        List<Event> processed = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService consumer = Executors.newSingleThreadExecutor();
+        EventIngest ingest = new EventIngest(producers * eventsPerProducer, Overflow.DROP_NEWEST, 0, consumer, processed::add);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            Thread thread = new Thread(() -> {
+                await(start);
+                for (int j = 0; j < eventsPerProducer; j++) {
+                    ingest.offer(new Event(ACTION, "event"));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        // when
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        consumer.shutdown();
+        consumer.awaitTermination(10, TimeUnit.SECONDS);
+        ingest.drain();
+        // then
+        assertThat(processed).hasSize(producers * eventsPerProducer);
+        assertThat(ingest.getDropped()).isZero();
+    }
+
+    @Test
+    void drain_should_process_queued_events_in_order() {
+        // given
+        List<Event> processed = new ArrayList<>();
+        EventIngest ingest = new EventIngest(3, Overflow.DROP_NEWEST, 0, runnable -> {}, processed::add);
+        ingest.offer(luke);
+        ingest.offer(leia);
+        ingest.offer(han);
+        // when
+        ingest.drain();
+        // then
+        assertThat(processed).containsExactly(luke, leia, han);
+        assertThat(ingest.size()).isZero();
+    }
+
+    @Test
+    void drain_should_process_queued_events_in_batches_of_given_size() {
+        // given
+        List<List<Event>> processed = new ArrayList<>();
+        EventIngest ingest = new EventIngest(3, Overflow.DROP_NEWEST, 0, 2, runnable -> {}, processed::add);
+        ingest.offer(luke);
+        ingest.offer(leia);
+        ingest.offer(han);
+        // when
+        ingest.drain();
+        // then
+        assertThat(processed).containsExactly(List.of(luke, leia), List.of(han));
+    }
+
+    @Test
+    void drain_should_continue_if_processor_throws() {
+        // given
+        List<Event> processed = new ArrayList<>();
+        EventIngest ingest = new EventIngest(2, Overflow.DROP_NEWEST, 0, runnable -> {}, event -> {
+            if (event == luke) {
+                throw new IllegalStateException("It's a trap!");
+            }
+            processed.add(event);
+        });
+        ingest.offer(luke);
+        ingest.offer(leia);
+        // when
+        ingest.drain();
+        // then
+        assertThat(processed).containsExactly(leia);
+    }
+
+    @Test
+    void safeValueOf_should_return_default_for_unknown_value() {
+        // given
+        // when
+        Overflow overflow = Overflow.safeValueOf("bogus");
+        // then
+        assertThat(overflow).isEqualTo(EventIngest.DEFAULT_OVERFLOW);
+    }
+
+    @Test
+    void safeValueOf_should_ignore_case() {
+        // given
+        // when
+        Overflow overflow = Overflow.safeValueOf("drop_oldest");
+        // then
+        assertThat(overflow).isEqualTo(Overflow.DROP_OLDEST);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service;
+
+import com.redhat.devtools.intellij.telemetry.core.service.Event.Type;
+import com.redhat.devtools.intellij.telemetry.core.util.RecordSpool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HoldQueueTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void decode_should_return_event_that_was_encoded() throws IOException {
+        // given
+        Map<String, String> properties = new HashMap<>();
+        properties.put("jedi", "yoda");
+        properties.put("sith", null);
+        Event event = new Event(Type.ACTION, "use the force", properties);
+        // when
+        Event decoded = HoldQueue.decode(HoldQueue.encode(event));
+        // then
+        assertThat(decoded).isNotNull();
+        assertThat(decoded.getType()).isEqualTo(Type.ACTION);
+        assertThat(decoded.getName()).isEqualTo("use the force");
+        assertThat(decoded.getProperties()).isEqualTo(properties);
+    }
+
+    @Test
+    void decode_should_return_event_without_type_nor_properties() throws IOException {
+        // given
+        Event event = new Event(null, "use the force", null);
+        // when
+        Event decoded = HoldQueue.decode(HoldQueue.encode(event));
+        // then
+        assertThat(decoded).isNotNull();
+        assertThat(decoded.getType()).isNull();
+        assertThat(decoded.getProperties()).isEmpty();
+    }
+
+    @Test
+    void decode_should_return_event_with_property_larger_than_64kB() throws IOException {
+        // given
+        String stacktrace = "at com.redhat.devtools.Yoda.useTheForce(Yoda.java:42)\n".repeat(2 * 1024);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("error", stacktrace);
+        Event event = new Event(Type.ACTION, "use the force", properties);
+        // when
+        Event decoded = HoldQueue.decode(HoldQueue.encode(event));
+        // then
+        assertThat(stacktrace.length()).isGreaterThan(64 * 1024);
+        assertThat(decoded).isNotNull();
+        assertThat(decoded.getProperties()).containsEntry("error", stacktrace);
+    }
+
+    @Test
+    void drainTo_should_return_event_with_property_larger_than_64kB_that_was_held_in_previous_session() throws IOException {
+        // given
+        String stacktrace = "at com.redhat.devtools.Yoda.useTheForce(Yoda.java:42)\n".repeat(2 * 1024);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("error", stacktrace);
+        HoldQueue previous = open(1024 * 1024);
+        previous.offer(new Event(Type.ACTION, "yoda", properties));
+        previous.close();
+        HoldQueue onHold = open(1024 * 1024);
+        List<Event> drained = new ArrayList<>();
+        // when
+        onHold.drainTo(drained::add, Integer.MAX_VALUE);
+        // then
+        assertThat(drained).hasSize(1);
+        assertThat(drained.get(0).getProperties()).containsEntry("error", stacktrace);
+        onHold.close();
+    }
+
+    @Test
+    void decode_should_return_null_for_unknown_version() {
+        // given
+        byte[] record = new byte[] { 42 };
+        // when
+        Event decoded = HoldQueue.decode(record);
+        // then
+        assertThat(decoded).isNull();
+    }
+
+    @Test
+    void drainTo_should_return_events_that_were_held_in_previous_session() throws IOException {
+        // given
+        HoldQueue previous = open();
+        previous.offer(new Event(Type.ACTION, "yoda"));
+        previous.offer(new Event(Type.ACTION, "obiwan"));
+        previous.close();
+        HoldQueue onHold = open();
+        List<Event> drained = new ArrayList<>();
+        // when
+        int count = onHold.drainTo(drained::add, Integer.MAX_VALUE).size();
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(names(drained)).containsExactly("yoda", "obiwan");
+        assertThat(onHold.isEmpty()).isTrue();
+        onHold.close();
+    }
+
+    @Test
+    void drainTo_should_return_previous_and_current_events_oldest_first() throws IOException {
+        // given
+        HoldQueue previous = open();
+        previous.offer(new Event(Type.ACTION, "yoda"));
+        previous.close();
+        HoldQueue onHold = open();
+        onHold.offer(new Event(Type.ACTION, "obiwan"));
+        List<Event> drained = new ArrayList<>();
+        // when
+        onHold.drainTo(drained::add, Integer.MAX_VALUE);
+        // then
+        assertThat(names(drained)).containsExactly("yoda", "obiwan");
+        onHold.close();
+    }
+
+    @Test
+    void drainTo_should_remove_at_most_given_number_of_events() throws IOException {
+        // given
+        HoldQueue onHold = open();
+        onHold.offer(new Event(Type.ACTION, "yoda"));
+        onHold.offer(new Event(Type.ACTION, "obiwan"));
+        onHold.offer(new Event(Type.ACTION, "luke"));
+        List<Event> drained = new ArrayList<>();
+        // when
+        int first = onHold.drainTo(drained::add, 2).size();
+        int second = onHold.drainTo(drained::add, 2).size();
+        // then
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isEqualTo(1);
+        assertThat(names(drained)).containsExactly("yoda", "obiwan", "luke");
+        onHold.close();
+    }
+
+    @Test
+    void ack_should_delete_spool_files_that_were_drained() throws IOException {
+        // given
+        HoldQueue onHold = open();
+        onHold.offer(new Event(Type.ACTION, "yoda"));
+        HoldQueue.Drained batch = onHold.drainTo(event -> {}, Integer.MAX_VALUE);
+        // when
+        onHold.ack(batch);
+        // then
+        assertThat(spoolFiles()).isEmpty();
+        onHold.close();
+    }
+
+    @Test
+    void ack_should_NOT_delete_spool_file_that_was_drained_by_other_batch() throws IOException {
+        // given
+        HoldQueue onHold = open();
+        onHold.offer(new Event(Type.ACTION, "yoda"));
+        HoldQueue.Drained first = onHold.drainTo(event -> {}, Integer.MAX_VALUE);
+        onHold.offer(new Event(Type.ACTION, "obiwan"));
+        onHold.drainTo(event -> {}, Integer.MAX_VALUE);
+        // when
+        onHold.ack(first);
+        // then
+        assertThat(spoolFiles()).hasSize(1);
+        onHold.close();
+    }
+
+    @Test
+    void ack_should_delete_spool_file_once_all_batches_that_drained_it_were_acked() throws IOException {
+        // given
+        HoldQueue onHold = open();
+        onHold.offer(new Event(Type.ACTION, "yoda"));
+        onHold.offer(new Event(Type.ACTION, "obiwan"));
+        HoldQueue.Drained first = onHold.drainTo(event -> {}, 1);
+        HoldQueue.Drained second = onHold.drainTo(event -> {}, 1);
+        // when
+        onHold.ack(second);
+        // then
+        assertThat(spoolFiles()).isNotEmpty();
+        // when
+        onHold.ack(first);
+        // then
+        assertThat(spoolFiles()).isEmpty();
+        onHold.close();
+    }
+
+    @Test
+    void ack_should_NOT_delete_spool_file_that_was_partially_drained() throws IOException {
+        // given
+        HoldQueue onHold = open();
+        onHold.offer(new Event(Type.ACTION, "yoda"));
+        onHold.offer(new Event(Type.ACTION, "obiwan"));
+        HoldQueue.Drained batch = onHold.drainTo(event -> {}, 1);
+        // when
+        onHold.ack(batch);
+        // then
+        assertThat(spoolFiles()).isNotEmpty();
+        onHold.close();
+    }
+
+    @Test
+    void drainTo_should_NOT_delete_spool_files_that_were_drained_but_not_acked() throws IOException {
+        // given
+        HoldQueue onHold = open();
+        onHold.offer(new Event(Type.ACTION, "yoda"));
+        // when
+        onHold.drainTo(event -> {}, Integer.MAX_VALUE);
+        // then
+        assertThat(spoolFiles()).isNotEmpty();
+        onHold.close();
+    }
+
+    @Test
+    void drainTo_should_NOT_return_events_that_were_drained_but_not_acked_again() throws IOException {
+        // given
+        HoldQueue onHold = open();
+        onHold.offer(new Event(Type.ACTION, "yoda"));
+        onHold.drainTo(event -> {}, Integer.MAX_VALUE);
+        onHold.offer(new Event(Type.ACTION, "obiwan"));
+        List<Event> drained = new ArrayList<>();
+        // when
+        onHold.drainTo(drained::add, Integer.MAX_VALUE);
+        // then
+        assertThat(names(drained)).containsExactly("obiwan");
+        onHold.close();
+    }
+
+    @Test
+    void drainTo_should_return_events_that_were_drained_but_not_acked_in_previous_session() throws IOException {
+        // given
+        HoldQueue previous = open();
+        previous.offer(new Event(Type.ACTION, "yoda"));
+        previous.drainTo(event -> {}, Integer.MAX_VALUE);
+        previous.close();
+        HoldQueue onHold = open();
+        List<Event> drained = new ArrayList<>();
+        // when
+        onHold.drainTo(drained::add, Integer.MAX_VALUE);
+        // then
+        assertThat(names(drained)).containsExactly("yoda");
+        onHold.close();
+    }
+
+    @Test
+    void clear_should_discard_current_and_previous_events() throws IOException {
+        // given
+        HoldQueue previous = open();
+        previous.offer(new Event(Type.ACTION, "yoda"));
+        previous.close();
+        HoldQueue onHold = open();
+        onHold.offer(new Event(Type.ACTION, "obiwan"));
+        // when
+        onHold.clear();
+        // then
+        assertThat(onHold.isEmpty()).isTrue();
+        assertThat(onHold.drainTo(event -> {}, Integer.MAX_VALUE).size()).isZero();
+        assertThat(spoolFiles()).isEmpty();
+        onHold.close();
+    }
+
+    @Test
+    void drainTo_should_return_events_held_in_memory() {
+        // given
+        HoldQueue onHold = new HoldQueue();
+        onHold.offer(new Event(Type.ACTION, "yoda"));
+        List<Event> drained = new ArrayList<>();
+        // when
+        onHold.drainTo(drained::add, Integer.MAX_VALUE);
+        // then
+        assertThat(names(drained)).containsExactly("yoda");
+        assertThat(onHold.isEmpty()).isTrue();
+    }
+
+    private HoldQueue open() throws IOException {
+        return open(10 * 1024);
+    }
+
+    private HoldQueue open(long maxTotalSize) throws IOException {
+        return new HoldQueue(RecordSpool.open(directory, 1024, TimeUnit.DAYS.toMillis(1), maxTotalSize, TimeUnit.DAYS.toMillis(1)));
+    }
+
+    private List<Path> spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.toString().endsWith(".spool"))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> names(List<Event> events) {
+        return events.stream()
+                .map(Event::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -86,7 +86,8 @@ class TelemetryMessageBuilderIntegrationTest {
                 limits,
                 broker,
                 mock(MessageBusConnection.class),
-                mock(TelemetryNotifications.class));
+                mock(TelemetryNotifications.class),
+                Runnable::run);
         IService telemetryServiceFacade = new TelemetryServiceFacade(() -> telemetryService, mock(MessageBusConnection.class));
 
         FeedbackService feedbackService = new FeedbackService(broker);
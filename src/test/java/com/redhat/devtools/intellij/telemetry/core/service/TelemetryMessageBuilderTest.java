@@ -13,6 +13,7 @@ package com.redhat.devtools.intellij.telemetry.core.service;
 import com.intellij.ide.AppLifecycleListener;
 import com.intellij.util.messages.MessageBusConnection;
 import com.redhat.devtools.intellij.telemetry.core.service.TelemetryMessageBuilder.FeedbackServiceFacade;
+import com.redhat.devtools.intellij.telemetry.core.util.AnonymizationRule;
 import com.redhat.devtools.intellij.telemetry.core.util.AnonymizeUtils;
 import com.redhat.devtools.intellij.telemetry.core.util.TimeUtils;
 import org.junit.jupiter.api.Test;
@@ -392,6 +393,44 @@ class TelemetryMessageBuilderTest {
                 .doesNotContain(IP);
     }
 
+    @Test
+    void error_should_anonymize_with_registered_and_builtin_rules() {
+        // given
+        builder.anonymize(
+                AnonymizationRule.literal("smurf village", "<PROJECT>"),
+                AnonymizationRule.prefix("https://", "<URL>"));
+        ActionMessage message = builder.action("the smurfs");
+        // when
+        message.error("could not reach https://smurf.village:6443/api for smurf village at 192.168.1.42");
+        // then
+        assertThat(message.getError())
+                .isEqualTo("could not reach <URL> for <PROJECT> at " + AnonymizeUtils.ANONYMOUS_IP);
+    }
+
+    @Test
+    void property_should_anonymize_with_registered_rules() {
+        // given
+        builder.anonymize(AnonymizationRule.pattern("[A-Z]:\\\\[^\\s]+", "<PATH>"));
+        ActionMessage message = builder.action("the smurfs");
+        // when
+        message.property("file", "C:\\smurfs\\village.txt at 192.168.1.42");
+        // then
+        assertThat(message.getProperty("file"))
+                .isEqualTo("<PATH> at 192.168.1.42");
+    }
+
+    @Test
+    void property_should_NOT_anonymize_if_no_rules_registered() {
+        // given
+        ActionMessage message = builder.action("the smurfs");
+        String value = "192.168.1.42";
+        // when
+        message.property("ip", value);
+        // then
+        assertThat(message.getProperty("ip"))
+                .isSameAs(value);
+    }
+
     @Test
     void serviceFacade_send_should_lazy_create_service() {
         // given
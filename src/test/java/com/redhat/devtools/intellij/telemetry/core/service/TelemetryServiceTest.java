@@ -12,24 +12,44 @@ package com.redhat.devtools.intellij.telemetry.core.service;
 
 import com.intellij.util.messages.MessageBusConnection;
 import com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration;
+import com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.ConfigurationChangedListener;
+import com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.Mode;
 import com.redhat.devtools.intellij.telemetry.core.configuration.limits.IEventLimits;
+import com.redhat.devtools.intellij.telemetry.core.service.Event.Type;
 import com.redhat.devtools.intellij.telemetry.core.service.segment.SegmentBroker;
 import com.redhat.devtools.intellij.telemetry.ui.TelemetryNotifications;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.internal.verification.VerificationModeFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import static com.redhat.devtools.intellij.telemetry.core.configuration.TelemetryConfiguration.KEY_MODE;
 import static com.redhat.devtools.intellij.telemetry.core.service.Event.Type.USER;
+import static com.redhat.devtools.intellij.telemetry.core.service.Message.PROP_ERROR;
 import static com.redhat.devtools.intellij.telemetry.core.service.Fakes.telemetryConfiguration;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 class TelemetryServiceTest {
@@ -49,7 +69,7 @@ class TelemetryServiceTest {
         this.bus = createMessageBusConnection();
         this.notifications = createTelemetryNotifications();
         this.configuration = telemetryConfiguration(true, true);
-        this.service = new TelemetryService(configuration, limits, broker, bus, notifications);
+        this.service = new TelemetryService(configuration, limits, broker, bus, notifications, Runnable::run);
         this.event = new Event(null, "Testing Telemetry", null);
     }
 
@@ -66,7 +86,7 @@ class TelemetryServiceTest {
     void send_should_NOT_send_if_is_enabled_but_limits_DONT_allow_it() {
         // given
         doReturn(false)
-                .when(limits).canSend(any());
+                .when(limits).tryReserve(any());
         // when
         service.send(event);
         // then
@@ -79,7 +99,7 @@ class TelemetryServiceTest {
         doReturn(false)
                 .when(configuration).isEnabled();
         doReturn(true)
-                .when(limits).canSend(any());
+                .when(limits).tryReserve(any());
         // when
         service.send(event);
         // then
@@ -90,7 +110,7 @@ class TelemetryServiceTest {
     void send_should_NOT_send_if_is_NOT_configured() {
         // given
         TelemetryConfiguration configuration = telemetryConfiguration(false, false);
-        TelemetryService service = new TelemetryService(configuration, limits, broker, bus, notifications);
+        TelemetryService service = new TelemetryService(configuration, limits, broker, bus, notifications, Runnable::run);
         // when
         service.send(event);
         // then
@@ -101,7 +121,7 @@ class TelemetryServiceTest {
     void send_should_send_all_events_once_it_gets_enabled() {
         // given
         TelemetryConfiguration configuration = telemetryConfiguration(false, false);
-        TelemetryService service = new TelemetryService(configuration, limits, broker, bus, notifications);
+        TelemetryService service = new TelemetryService(configuration, limits, broker, bus, notifications, Runnable::run);
         // when config is disabled
         service.send(event);
         service.send(event);
@@ -128,11 +148,42 @@ class TelemetryServiceTest {
         assertThat(allArguments.get(0).getType()).isEqualTo(USER);
     }
 
+    @Test
+    void send_should_send_userinfo_only_once() {
+        // given
+        ArgumentCaptor<Event> eventArgument = ArgumentCaptor.forClass(Event.class);
+        // when
+        service.send(event);
+        service.send(event);
+        service.send(event);
+        // then
+        verify(broker, atLeastOnce()).send(eventArgument.capture());
+        assertThat(countUserEvents(eventArgument.getAllValues())).isEqualTo(1);
+    }
+
+    @Test
+    void send_should_send_userinfo_once_telemetry_gets_enabled() {
+        // given
+        ArgumentCaptor<Event> eventArgument = ArgumentCaptor.forClass(Event.class);
+        TelemetryConfiguration configuration = telemetryConfiguration(false, true);
+        TelemetryService service = new TelemetryService(configuration, limits, broker, bus, notifications, Runnable::run);
+        service.send(event);
+        // when
+        doReturn(true)
+                .when(configuration).isEnabled();
+        service.send(event);
+        // then
+        verify(broker, atLeastOnce()).send(eventArgument.capture());
+        List<Event> allArguments = eventArgument.getAllValues();
+        assertThat(countUserEvents(allArguments)).isEqualTo(1);
+        assertThat(allArguments.get(0).getType()).isEqualTo(USER);
+    }
+
     @Test
     void send_should_query_user_consent_once() {
         // given
         TelemetryConfiguration configuration = telemetryConfiguration(true, false);
-        TelemetryService service = new TelemetryService(configuration, limits, broker, bus, notifications);
+        TelemetryService service = new TelemetryService(configuration, limits, broker, bus, notifications, Runnable::run);
         // when
         service.send(event);
         service.send(event);
@@ -154,7 +205,7 @@ class TelemetryServiceTest {
     void send_should_send_if_limits_allow_it() {
         // given
         doReturn(true)
-                .when(limits).canSend(event);
+                .when(limits).tryReserve(event);
         // when
         service.send(event);
         // then
@@ -162,36 +213,223 @@ class TelemetryServiceTest {
     }
 
     @Test
-    void send_should_notify_limits_that_event_was_sent() {
+    void send_should_reserve_event_in_limits() {
         // given
         doReturn(true)
-                .when(limits).canSend(event);
+                .when(limits).tryReserve(event);
         // when
         service.send(event);
         // then
-        verify(limits).wasSent(event);
+        verify(limits).tryReserve(event);
     }
 
     @Test
     void send_should_NOT_send_if_limits_DONT_allow_it() {
         // given
         doReturn(false)
-                .when(limits).canSend(event);
+                .when(limits).tryReserve(event);
         // when
         service.send(event);
         // then
         verify(broker, never()).send(event);
     }
 
+    @Test
+    void constructor_should_send_events_held_in_previous_session_if_enabled() {
+        // given
+        HoldQueue onHold = new HoldQueue();
+        onHold.offer(event);
+        // when
+        new TelemetryService(configuration, limits, broker, onHold, bus, notifications, Runnable::run);
+        // then
+        verify(broker).send(event);
+        assertThat(onHold.isEmpty()).isTrue();
+    }
+
+    @Test
+    void constructor_should_discard_events_held_in_previous_session_if_disabled() {
+        // given
+        TelemetryConfiguration configuration = telemetryConfiguration(false, true);
+        HoldQueue onHold = new HoldQueue();
+        onHold.offer(event);
+        // when
+        new TelemetryService(configuration, limits, broker, onHold, bus, notifications, Runnable::run);
+        // then
+        verify(broker, never()).send(any(Event.class));
+        assertThat(onHold.isEmpty()).isTrue();
+    }
+
+    @Test
+    void configurationChanged_should_send_held_events_if_telemetry_gets_enabled() {
+        // given
+        TelemetryConfiguration configuration = telemetryConfiguration(false, false);
+        HoldQueue onHold = new HoldQueue();
+        new TelemetryService(configuration, limits, broker, onHold, bus, notifications, Runnable::run).send(event);
+        // when
+        getConfigurationChangedListener().configurationChanged(KEY_MODE, Mode.NORMAL.name());
+        // then
+        verify(broker).send(event);
+        assertThat(onHold.isEmpty()).isTrue();
+    }
+
+    @Test
+    void configurationChanged_should_discard_held_events_if_telemetry_gets_disabled() {
+        // given
+        TelemetryConfiguration configuration = telemetryConfiguration(false, false);
+        HoldQueue onHold = new HoldQueue();
+        new TelemetryService(configuration, limits, broker, onHold, bus, notifications, Runnable::run).send(event);
+        // when
+        getConfigurationChangedListener().configurationChanged(KEY_MODE, Mode.DISABLED.name());
+        // then
+        verify(broker, never()).send(any(Event.class));
+        assertThat(onHold.isEmpty()).isTrue();
+    }
+
+    @Test
+    void send_should_send_queued_events_as_one_batch() {
+        // given
+        List<Runnable> consumers = new ArrayList<>();
+        TelemetryService service = new TelemetryService(configuration, limits, broker, bus, notifications, consumers::add);
+        Event other = new Event(null, "Testing Telemetry again", null);
+        service.send(event);
+        service.send(other);
+        // when
+        consumers.forEach(Runnable::run);
+        // then
+        verify(limits).tryReserveAll(List.of(event, other));
+        verify(broker).sendAll(List.of(event, other));
+    }
+
+    @Test
+    void constructor_should_send_held_events_as_one_batch() {
+        // given
+        Event other = new Event(null, "Testing Telemetry again", null);
+        HoldQueue onHold = new HoldQueue();
+        onHold.offer(event);
+        onHold.offer(other);
+        // when
+        new TelemetryService(configuration, limits, broker, onHold, bus, notifications, Runnable::run);
+        // then
+        verify(limits).tryReserveAll(List.of(event, other));
+        verify(broker).sendAll(List.of(event, other));
+    }
+
+    @Test
+    void constructor_should_ack_held_events_once_they_were_handed_to_broker() {
+        // given
+        HoldQueue onHold = spy(new HoldQueue());
+        onHold.offer(event);
+        // when
+        new TelemetryService(configuration, limits, broker, onHold, bus, notifications, Runnable::run);
+        // then
+        InOrder inOrder = inOrder(broker, onHold);
+        inOrder.verify(broker).sendAll(List.of(event));
+        inOrder.verify(onHold).ack(any());
+    }
+
+    @Test
+    void constructor_should_send_held_userinfo_only_once() {
+        // given
+        ArgumentCaptor<Event> eventArgument = ArgumentCaptor.forClass(Event.class);
+        HoldQueue onHold = new HoldQueue();
+        onHold.offer(new Event(USER, "previous session"));
+        onHold.offer(event);
+        onHold.offer(new Event(USER, "current session"));
+        // when
+        new TelemetryService(configuration, limits, broker, onHold, bus, notifications, Runnable::run);
+        // then
+        verify(broker, atLeastOnce()).send(eventArgument.capture());
+        assertThat(countUserEvents(eventArgument.getAllValues())).isEqualTo(1);
+    }
+
+    @Test
+    void constructor_should_send_held_userinfo_if_previous_one_was_NOT_allowed_by_limits() {
+        // given
+        Event previous = new Event(USER, "previous session");
+        Event current = new Event(USER, "current session");
+        doReturn(false)
+                .when(limits).tryReserve(previous);
+        HoldQueue onHold = new HoldQueue();
+        onHold.offer(previous);
+        onHold.offer(current);
+        // when
+        new TelemetryService(configuration, limits, broker, onHold, bus, notifications, Runnable::run);
+        // then
+        verify(broker, never()).send(previous);
+        verify(broker).send(current);
+    }
+
+    @Test
+    void send_should_reserve_each_error_and_send_first_error_but_fold_repeats_until_window_is_over() {
+        // given
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        TelemetryService service = new TelemetryService(configuration, limits, broker, new HoldQueue(), bus, notifications, Runnable::run, () -> scheduler);
+        Event error = new Event(Type.ACTION, "connect", Map.of(PROP_ERROR, "connection refused"));
+        // when
+        service.send(error);
+        service.send(error);
+        service.send(error);
+        // then
+        verify(limits, times(3)).tryReserve(error);
+        verify(broker, times(1)).send(error);
+        ArgumentCaptor<Runnable> windowEnd = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(windowEnd.capture(), eq(EventAggregator.DEFAULT_WINDOW), eq(TimeUnit.MILLISECONDS));
+        // when window is over
+        windowEnd.getValue().run();
+        // then
+        ArgumentCaptor<Event> sent = ArgumentCaptor.forClass(Event.class);
+        verify(broker, atLeastOnce()).send(sent.capture());
+        List<Event> errors = sent.getAllValues().stream()
+                .filter(Event::hasError)
+                .collect(Collectors.toList());
+        assertThat(errors.size()).isEqualTo(2);
+        assertThat(errors.get(1).getProperties().get(EventAggregator.PROP_COUNT)).isEqualTo("2");
+    }
+
+    @Test
+    void dispose_should_send_pending_repeats_of_errors() {
+        // given
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        TelemetryService service = new TelemetryService(configuration, limits, broker, new HoldQueue(), bus, notifications, Runnable::run, () -> scheduler);
+        Event error = new Event(Type.ACTION, "connect", Map.of(PROP_ERROR, "connection refused"));
+        service.send(error);
+        service.send(error);
+        verify(broker, times(1)).send(error);
+        // when
+        service.dispose();
+        // then
+        verify(broker, times(2)).send(error);
+    }
+
+    private ConfigurationChangedListener getConfigurationChangedListener() {
+        ArgumentCaptor<ConfigurationChangedListener> listener = ArgumentCaptor.forClass(ConfigurationChangedListener.class);
+        verify(bus, atLeastOnce()).subscribe(eq(ConfigurationChangedListener.CONFIGURATION_CHANGED), listener.capture());
+        return listener.getValue();
+    }
+
+    private static long countUserEvents(List<Event> events) {
+        return events.stream()
+                .filter(event -> event.getType() == USER)
+                .count();
+    }
+
     private IEventLimits createEventLimits() {
         IEventLimits mock = mock(IEventLimits.class);
         doReturn(true)
-                .when(mock).canSend(any());
+                .when(mock).tryReserve(any());
+        doCallRealMethod()
+                .when(mock).tryReserveAll(anyList());
         return mock;
     }
 
     private SegmentBroker createSegmentBroker() {
-        return mock(SegmentBroker.class);
+        SegmentBroker mock = mock(SegmentBroker.class);
+        doAnswer(invocation -> {
+            Collection<Event> events = invocation.getArgument(0);
+            events.forEach(mock::send);
+            return null;
+        }).when(mock).sendAll(anyCollection());
+        return mock;
     }
 
     private MessageBusConnection createMessageBusConnection() {
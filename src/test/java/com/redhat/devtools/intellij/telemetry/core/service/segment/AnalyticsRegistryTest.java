@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.redhat.devtools.intellij.telemetry.core.service.Environment;
+import com.redhat.devtools.intellij.telemetry.core.service.Event;
+import com.segment.analytics.Analytics;
+import com.segment.analytics.messages.MessageBuilder;
+import com.segment.analytics.messages.TrackMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.redhat.devtools.intellij.telemetry.core.service.Event.Type.ACTION;
+import static com.redhat.devtools.intellij.telemetry.core.service.Fakes.environment;
+import static com.redhat.devtools.intellij.telemetry.core.service.Fakes.segmentConfiguration;
+import static com.redhat.devtools.intellij.telemetry.core.service.segment.SegmentBroker.PROP_EXTENSION_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AnalyticsRegistryTest {
+
+    private static final String WRITE_KEY = "jedi";
+    private static final String OTHER_WRITE_KEY = "sith";
+
+    private Function<String, Analytics> factory;
+    private AnalyticsRegistry registry;
+
+    @BeforeEach
+    void before() {
+        // lambda cannot be spied on, function instance can
+        this.factory = spy(new Function<String, Analytics>() {
+            @Override
+            public Analytics apply(String key) {
+                return mock(Analytics.class);
+            }
+        });
+        this.registry = new AnalyticsRegistry(factory);
+    }
+
+    @Test
+    void acquire_should_return_same_instance_for_same_writeKey() {
+        // given
+        // when
+        Analytics first = registry.acquire(WRITE_KEY);
+        Analytics second = registry.acquire(WRITE_KEY);
+        // then
+        assertThat(first).isSameAs(second);
+        verify(factory, times(1)).apply(WRITE_KEY);
+        assertThat(registry.getReferences(WRITE_KEY)).isEqualTo(2);
+    }
+
+    @Test
+    void acquire_should_return_different_instances_for_different_writeKeys() {
+        // given
+        // when
+        Analytics jedi = registry.acquire(WRITE_KEY);
+        Analytics sith = registry.acquire(OTHER_WRITE_KEY);
+        // then
+        assertThat(jedi).isNotSameAs(sith);
+    }
+
+    @Test
+    void acquire_should_return_null_if_writeKey_is_null() {
+        // given
+        // when
+        Analytics analytics = registry.acquire(null);
+        // then
+        assertThat(analytics).isNull();
+        verify(factory, never()).apply(any());
+    }
+
+    @Test
+    void release_should_NOT_shutdown_if_still_referenced() {
+        // given
+        Analytics analytics = registry.acquire(WRITE_KEY);
+        registry.acquire(WRITE_KEY);
+        // when
+        registry.release(analytics);
+        // then
+        verify(analytics, never()).shutdown();
+        assertThat(registry.getReferences(WRITE_KEY)).isEqualTo(1);
+    }
+
+    @Test
+    void release_should_flush_and_shutdown_once_released_by_all() {
+        // given
+        Analytics analytics = registry.acquire(WRITE_KEY);
+        registry.acquire(WRITE_KEY);
+        // when
+        registry.release(analytics);
+        registry.release(analytics);
+        // then
+        verify(analytics).flush();
+        verify(analytics).shutdown();
+        assertThat(registry.getReferences(WRITE_KEY)).isZero();
+    }
+
+    @Test
+    void acquire_should_create_new_instance_once_previous_was_released_by_all() {
+        // given
+        Analytics previous = registry.acquire(WRITE_KEY);
+        registry.release(previous);
+        // when
+        Analytics analytics = registry.acquire(WRITE_KEY);
+        // then
+        assertThat(analytics).isNotSameAs(previous);
+    }
+
+    @Test
+    void acquire_should_replay_spool_when_creating_instance() {
+        // given
+        SegmentSpool spool = mock(SegmentSpool.class);
+        Analytics analytics = mock(Analytics.class);
+        AnalyticsRegistry registry = new AnalyticsRegistry(writeKey -> spool, (writeKey, s) -> analytics);
+        // when
+        registry.acquire(WRITE_KEY);
+        registry.acquire(WRITE_KEY);
+        // then
+        verify(spool, times(1)).replay(analytics);
+    }
+
+    @Test
+    void release_should_close_spool_once_released_by_all() {
+        // given
+        SegmentSpool spool = mock(SegmentSpool.class);
+        AnalyticsRegistry registry = new AnalyticsRegistry(writeKey -> spool, (writeKey, s) -> mock(Analytics.class));
+        Analytics analytics = registry.acquire(WRITE_KEY);
+        registry.acquire(WRITE_KEY);
+        // when
+        registry.release(analytics);
+        verify(spool, never()).close();
+        registry.release(analytics);
+        // then
+        verify(spool).close();
+    }
+
+    @Test
+    void acquire_should_start_flush_controller_with_created_instance() {
+        // given
+        FlushController controller = mock(FlushController.class);
+        Analytics analytics = mock(Analytics.class);
+        AnalyticsRegistry registry = new AnalyticsRegistry(writeKey -> null, () -> controller, (writeKey, spool, c) -> analytics);
+        // when
+        registry.acquire(WRITE_KEY);
+        // then
+        verify(controller).start(analytics);
+    }
+
+    @Test
+    void flush_should_flush_through_flush_controller() {
+        // given
+        FlushController controller = mock(FlushController.class);
+        AnalyticsRegistry registry = new AnalyticsRegistry(writeKey -> null, () -> controller, (writeKey, spool, c) -> mock(Analytics.class));
+        Analytics analytics = registry.acquire(WRITE_KEY);
+        // when
+        registry.flush(analytics);
+        // then
+        verify(controller).flush();
+        verify(analytics, never()).flush();
+    }
+
+    @Test
+    void flush_should_flush_instance_if_it_has_no_flush_controller() {
+        // given
+        Analytics analytics = registry.acquire(WRITE_KEY);
+        // when
+        registry.flush(analytics);
+        // then
+        verify(analytics).flush();
+    }
+
+    @Test
+    void release_should_stop_flush_controller_once_released_by_all() {
+        // given
+        FlushController controller = mock(FlushController.class);
+        AnalyticsRegistry registry = new AnalyticsRegistry(writeKey -> null, () -> controller, (writeKey, spool, c) -> mock(Analytics.class));
+        Analytics analytics = registry.acquire(WRITE_KEY);
+        registry.acquire(WRITE_KEY);
+        // when
+        registry.release(analytics);
+        verify(controller, never()).stop();
+        registry.release(analytics);
+        // then
+        verify(controller).stop();
+    }
+
+    @Test
+    void brokers_of_different_plugins_should_send_to_same_analytics_with_their_own_environment() {
+        // given
+        ISegmentConfiguration configuration = segmentConfiguration(WRITE_KEY, WRITE_KEY);
+        Environment yodaEnvironment = environment("yoda", "1.0", "IntelliJ", "2024.3", "Linux", null, "6.0", "en-US", "Europe/Bern", "CH");
+        Environment lukeEnvironment = environment("luke", "2.0", "IntelliJ", "2024.3", "Linux", null, "6.0", "en-US", "Europe/Bern", "CH");
+        SegmentBroker yoda = new SegmentBroker(false, "42", mock(IdentifyTraitsPersistence.class), yodaEnvironment, configuration, registry);
+        SegmentBroker luke = new SegmentBroker(false, "42", mock(IdentifyTraitsPersistence.class), lukeEnvironment, configuration, registry);
+        ArgumentCaptor<MessageBuilder<?, ?>> builder = ArgumentCaptor.forClass(MessageBuilder.class);
+        // when
+        yoda.send(new Event(ACTION, "lift x-wing"));
+        luke.send(new Event(ACTION, "lift x-wing"));
+        // then
+        verify(factory, times(1)).apply(WRITE_KEY);
+        Analytics analytics = registry.acquire(WRITE_KEY);
+        verify(analytics, times(2)).enqueue(builder.capture());
+        List<MessageBuilder<?, ?>> builders = builder.getAllValues();
+        assertThat(extensionName(builders.get(0))).isEqualTo("yoda");
+        assertThat(extensionName(builders.get(1))).isEqualTo("luke");
+    }
+
+    @Test
+    void dispose_should_release_once_if_broker_is_disposed_by_telemetry_and_feedback_service() {
+        // given
+        ISegmentConfiguration configuration = segmentConfiguration(WRITE_KEY, WRITE_KEY);
+        Environment yodaEnvironment = environment("yoda", "1.0", "IntelliJ", "2024.3", "Linux", null, "6.0", "en-US", "Europe/Bern", "CH");
+        Environment lukeEnvironment = environment("luke", "2.0", "IntelliJ", "2024.3", "Linux", null, "6.0", "en-US", "Europe/Bern", "CH");
+        // the telemetry and the feedback service of a plugin share its broker
+        SegmentBroker yoda = new SegmentBroker(false, "42", mock(IdentifyTraitsPersistence.class), yodaEnvironment, configuration, registry);
+        SegmentBroker luke = new SegmentBroker(false, "42", mock(IdentifyTraitsPersistence.class), lukeEnvironment, configuration, registry);
+        yoda.send(new Event(ACTION, "lift x-wing"));
+        luke.send(new Event(ACTION, "lift x-wing"));
+        // when
+        yoda.dispose(); // telemetry service
+        yoda.dispose(); // feedback service
+        // then
+        assertThat(registry.getReferences(WRITE_KEY)).isEqualTo(1);
+        Analytics analytics = registry.acquire(WRITE_KEY);
+        verify(analytics, never()).shutdown();
+    }
+
+    private static Object extensionName(MessageBuilder<?, ?> builder) {
+        Map<String, ?> properties = ((TrackMessage) builder.build()).properties();
+        return properties.get(PROP_EXTENSION_NAME);
+    }
+}
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.google.gson.GsonBuilder;
+import com.segment.analytics.Analytics;
+import com.segment.analytics.gson.AutoValueAdapterFactory;
+import com.segment.analytics.gson.ISO8601DateAdapter;
+import com.segment.analytics.messages.Message;
+import com.segment.analytics.messages.TrackMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class FlushControllerTest {
+
+    private static final int MIN_SIZE = 2;
+    private static final int MAX_SIZE = 8;
+    private static final long MIN_INTERVAL = 1000;
+    private static final long MAX_INTERVAL = 4000;
+    private static final long MAX_BYTES = 32 * 1024;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> timer;
+    private Runnable onInterval;
+    private Analytics analytics;
+    private FlushController controller;
+
+    @BeforeEach
+    void before() {
+        this.scheduler = mock(ScheduledExecutorService.class);
+        this.timer = mock(ScheduledFuture.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(scheduler).execute(any());
+        doAnswer(invocation -> {
+            this.onInterval = invocation.getArgument(0);
+            return timer;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        this.analytics = mock(Analytics.class);
+        this.controller = new FlushController(MIN_SIZE, MAX_SIZE, MIN_INTERVAL, MAX_INTERVAL, MAX_BYTES, scheduler);
+        controller.start(analytics);
+    }
+
+    @Test
+    void constructor_should_not_allow_intervals_below_1s_nor_bytes_below_32kb_nor_max_below_min() {
+        // given
+        // when
+        FlushController controller = new FlushController(4, 2, 10, 5, 1024, scheduler);
+        // then
+        assertThat(controller.getMaxSize()).isEqualTo(4);
+        assertThat(controller.getMaxInterval()).isEqualTo(1000);
+        assertThat(controller.getMaxBytes()).isEqualTo(32 * 1024);
+        assertThat(controller.getMetrics().getSize()).isEqualTo(4);
+        assertThat(controller.getMetrics().getInterval()).isEqualTo(1000);
+    }
+
+    @Test
+    void start_should_schedule_min_interval() {
+        // given
+        // when
+        // then
+        verify(scheduler).schedule(any(Runnable.class), eq(MIN_INTERVAL), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void intercept_should_NOT_flush_before_batch_size_is_reached() {
+        // given
+        // when
+        intercept(MIN_SIZE - 1);
+        // then
+        verify(analytics, never()).flush();
+    }
+
+    @Test
+    void intercept_should_flush_once_batch_size_is_reached() {
+        // given
+        // when
+        intercept(MIN_SIZE);
+        // then
+        verify(analytics).flush();
+        assertThat(controller.getMetrics().getSizeFlushes()).isEqualTo(1);
+    }
+
+    @Test
+    void intercept_should_flush_once_max_bytes_are_reached() {
+        // given
+        Message message = track("x".repeat((int) MAX_BYTES));
+        // when
+        controller.intercept(message);
+        // then
+        verify(analytics).flush();
+        assertThat(controller.getMetrics().getSizeFlushes()).isEqualTo(1);
+    }
+
+    @Test
+    void enqueued_should_flush_once_max_bytes_are_reached() {
+        // given
+        // when
+        controller.enqueued(MAX_BYTES);
+        // then
+        verify(analytics).flush();
+        assertThat(controller.getMetrics().getSizeFlushes()).isEqualTo(1);
+    }
+
+    @Test
+    void sizeOf_should_return_number_of_bytes_of_serialized_message() {
+        // given
+        Message message = track("Grüezi, 你好 \uD83D\uDE00");
+        int expected = new GsonBuilder()
+                .registerTypeAdapterFactory(new AutoValueAdapterFactory())
+                .registerTypeAdapter(Date.class, new ISO8601DateAdapter())
+                .create()
+                .toJson(message)
+                .getBytes(StandardCharsets.UTF_8)
+                .length;
+        // when
+        long size = FlushController.sizeOf(message);
+        // then
+        assertThat(size).isEqualTo(expected);
+    }
+
+    @Test
+    void intercept_should_return_message_that_was_intercepted() {
+        // given
+        Message message = mock(Message.class);
+        // when
+        Message intercepted = controller.intercept(message);
+        // then
+        assertThat(intercepted).isSameAs(message);
+    }
+
+    @Test
+    void intercept_should_double_batch_size_up_to_max_if_reached_within_min_interval() {
+        // given
+        // when
+        intercept(MIN_SIZE); // 2 -> 4
+        intercept(MIN_SIZE * 2); // 4 -> 8
+        intercept(MAX_SIZE); // 8 -> 8
+        // then
+        assertThat(controller.getMetrics().getSize()).isEqualTo(MAX_SIZE);
+        verify(analytics, times(3)).flush();
+    }
+
+    @Test
+    void interval_should_flush_queued_messages() {
+        // given
+        intercept(1);
+        // when
+        onInterval.run();
+        // then
+        verify(analytics).flush();
+        assertThat(controller.getMetrics().getIntervalFlushes()).isEqualTo(1);
+    }
+
+    @Test
+    void interval_should_double_interval_up_to_max_and_halve_batch_size_if_idle() {
+        // given
+        intercept(MIN_SIZE); // size 2 -> 4
+        // when
+        onInterval.run(); // interval 1000 -> 2000, size 4 -> 2
+        onInterval.run(); // interval 2000 -> 4000
+        onInterval.run(); // interval 4000 -> 4000
+        // then
+        assertThat(controller.getMetrics().getInterval()).isEqualTo(MAX_INTERVAL);
+        assertThat(controller.getMetrics().getSize()).isEqualTo(MIN_SIZE);
+        assertThat(controller.getMetrics().getIdleIntervals()).isEqualTo(3);
+        verify(scheduler).schedule(any(Runnable.class), eq(2000L), eq(TimeUnit.MILLISECONDS));
+        verify(scheduler, times(2)).schedule(any(Runnable.class), eq(MAX_INTERVAL), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void intercept_should_reset_interval_to_min_once_message_is_queued_after_being_idle() {
+        // given
+        onInterval.run(); // interval 1000 -> 2000
+        // when
+        intercept(1);
+        // then
+        assertThat(controller.getMetrics().getInterval()).isEqualTo(MIN_INTERVAL);
+        verify(timer, times(2)).cancel(false);
+        verify(scheduler, times(2)).schedule(any(Runnable.class), eq(MIN_INTERVAL), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void flush_should_flush_right_away() {
+        // given
+        intercept(1);
+        // when
+        controller.flush();
+        // then
+        verify(analytics).flush();
+        assertThat(controller.getMetrics().getImmediateFlushes()).isEqualTo(1);
+    }
+
+    @Test
+    void stop_should_cancel_timer_and_stop_flushing() {
+        // given
+        // when
+        controller.stop();
+        intercept(MIN_SIZE);
+        controller.flush();
+        // then
+        verify(timer).cancel(false);
+        verify(analytics, never()).flush();
+    }
+
+    private static Message track(String value) {
+        return TrackMessage.builder("use the force")
+                .userId("42")
+                .properties(Map.of("jedi", value))
+                .build();
+    }
+
+    private void intercept(int messages) {
+        for (int i = 0; i < messages; i++) {
+            controller.intercept(mock(Message.class));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.redhat.devtools.intellij.telemetry.core.service.segment.AnalyticsRegistry.SegmentAnalyticsFactory;
+import com.redhat.devtools.intellij.telemetry.core.service.segment.SegmentStandIn.Upload;
+import com.segment.analytics.Analytics;
+import com.segment.analytics.messages.TrackMessage;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipRequestInterceptorTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private SegmentStandIn segment;
+    private OkHttpClient client;
+
+    @BeforeEach
+    void before() throws IOException {
+        this.segment = SegmentStandIn.start();
+        this.client = new OkHttpClient.Builder()
+                .addInterceptor(new GzipRequestInterceptor())
+                .build();
+    }
+
+    @AfterEach
+    void after() {
+        segment.close();
+    }
+
+    @Test
+    void intercept_should_post_gzip_compressed_payload() throws Exception {
+        // given
+        String json = batch(200);
+        // when
+        post(RequestBody.create(json, JSON));
+        // then
+        Upload upload = segment.next(5, TimeUnit.SECONDS);
+        assertThat(upload).isNotNull();
+        assertThat(upload.encoding).isEqualTo("gzip");
+        assertThat(upload.payload).isEqualTo(json);
+        assertThat(upload.wireBytes).isLessThan(json.getBytes(StandardCharsets.UTF_8).length / 4);
+    }
+
+    @Test
+    void intercept_should_NOT_compress_payload_that_is_encoded_already() throws Exception {
+        // given
+        String json = batch(1);
+        Request request = new Request.Builder()
+                .url(segment.getEndpoint() + "/v1/import")
+                .header(GzipRequestInterceptor.HEADER_CONTENT_ENCODING, "identity")
+                .post(RequestBody.create(json, JSON))
+                .build();
+        // when
+        try (Response response = client.newCall(request).execute()) {
+            assertThat(response.isSuccessful()).isTrue();
+        }
+        // then
+        Upload upload = segment.next(5, TimeUnit.SECONDS);
+        assertThat(upload).isNotNull();
+        assertThat(upload.encoding).isEqualTo("identity");
+        assertThat(upload.payload).isEqualTo(json);
+        assertThat(upload.wireBytes).isEqualTo(json.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void analytics_should_upload_gzip_compressed_batch() throws Exception {
+        // given
+        Analytics analytics = new SegmentAnalyticsFactory(segment.getEndpoint()).create("jedi", null, null);
+        try {
+            for (int i = 0; i < 5; i++) {
+                analytics.enqueue(TrackMessage.builder("use the force")
+                        .userId("42")
+                        .properties(Map.of("jedi", "yoda " + i)));
+            }
+            // when
+            analytics.flush();
+            // then
+            Upload upload = segment.next(10, TimeUnit.SECONDS);
+            assertThat(upload).isNotNull();
+            assertThat(upload.path).isEqualTo("/v1/import");
+            assertThat(upload.encoding).isEqualTo("gzip");
+            assertThat(upload.wireBytes).isLessThan(upload.payload.getBytes(StandardCharsets.UTF_8).length);
+            JsonObject batch = JsonParser.parseString(upload.payload).getAsJsonObject();
+            assertThat(batch.getAsJsonArray("batch")).hasSize(5);
+        } finally {
+            analytics.shutdown();
+        }
+    }
+
+    private void post(RequestBody body) throws IOException {
+        Request request = new Request.Builder()
+                .url(segment.getEndpoint() + "/v1/import")
+                .post(body)
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            assertThat(response.isSuccessful()).isTrue();
+        }
+    }
+
+    private static String batch(int messages) {
+        StringBuilder builder = new StringBuilder("{\"batch\":[");
+        for (int i = 0; i < messages; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"type\":\"track\",\"event\":\"use the force\",\"userId\":\"42\",\"properties\":{\"jedi\":\"yoda ")
+                    .append(i)
+                    .append("\"}}");
+        }
+        return builder.append("]}").toString();
+    }
+}
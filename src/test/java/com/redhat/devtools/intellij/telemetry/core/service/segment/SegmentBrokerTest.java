@@ -22,6 +22,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -51,6 +52,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 class SegmentBrokerTest {
@@ -173,6 +175,24 @@ class SegmentBrokerTest {
         verify(analytics, never()).enqueue(any());
     }
 
+    @Test
+    void sendAll_should_enqueue_message_for_each_event() {
+        // given
+        // when
+        broker.sendAll(List.of(actionEvent, startupEvent, shutdownEvent));
+        // then
+        verify(analytics, times(3)).enqueue(isA(TrackMessage.Builder.class));
+    }
+
+    @Test
+    void sendAll_should_enqueue_identify_message_once() {
+        // given
+        // when
+        broker.sendAll(List.of(userEvent, actionEvent, new Event(USER, "Another user event")));
+        // then
+        verify(analytics, times(1)).enqueue(isA(IdentifyMessage.Builder.class));
+    }
+
     @Test
     void send_should_enqueue_message_with_context() {
         // given
@@ -210,6 +230,34 @@ class SegmentBrokerTest {
         verify(analytics).enqueue(isA(TrackMessage.Builder.class));
     }
 
+    @Test
+    void send_should_flush_analytics_for_shutdown_event() {
+        // given
+        // when
+        broker.send(shutdownEvent);
+        // then
+        verify(analytics).flush();
+    }
+
+    @Test
+    void send_should_NOT_flush_analytics_for_action_event() {
+        // given
+        // when
+        broker.send(actionEvent);
+        // then
+        verify(analytics, never()).flush();
+    }
+
+    @Test
+    void sendAll_should_flush_analytics_once_if_batch_contains_shutdown_event() {
+        // given
+        // when
+        broker.sendAll(List.of(actionEvent, shutdownEvent));
+        // then
+        verify(analytics, times(2)).enqueue(isA(TrackMessage.Builder.class));
+        verify(analytics, times(1)).flush();
+    }
+
     @Test
     void send_should_enqueue_identify_message_for_user_event() {
         // given
@@ -235,6 +283,18 @@ class SegmentBrokerTest {
         verify(analytics, never()).enqueue(isA(IdentifyMessage.Builder.class));
     }
 
+    @Test
+    void send_should_NOT_enqueue_identify_message_nor_read_persistence_again_once_traits_were_sent() {
+        // given
+        // when
+        broker.send(userEvent);
+        broker.send(new Event(USER, "User event"));
+        broker.send(new Event(USER, "User event"));
+        // then
+        verify(analytics, times(1)).enqueue(isA(IdentifyMessage.Builder.class));
+        verify(identifyTraitsPersistence, times(1)).get();
+    }
+
     @Test
     void send_should_enqueue_identify_message_if_traits_were_sent_but_are_changed() {
         // given
@@ -369,9 +429,40 @@ class SegmentBrokerTest {
                 builder.getValue().build().context());
     }
 
+    @Test
+    void send_should_enqueue_messages_with_equal_context() {
+        // given
+        ArgumentCaptor<TrackMessage.Builder> builder = ArgumentCaptor.forClass(TrackMessage.Builder.class);
+        // when
+        broker.send(actionEvent);
+        broker.send(startupEvent);
+        // then
+        verify(analytics, times(2)).enqueue(builder.capture());
+        List<TrackMessage.Builder> builders = builder.getAllValues();
+        assertThat(builders.get(0).build().context())
+                .isEqualTo(builders.get(1).build().context());
+    }
+
+    @Test
+    void send_should_enqueue_message_with_application_property_that_was_added_after_previous_message() {
+        // given
+        ArgumentCaptor<TrackMessage.Builder> builder = ArgumentCaptor.forClass(TrackMessage.Builder.class);
+        broker.send(actionEvent);
+        // when
+        environment.getIde().property("jedi", "yoda");
+        broker.send(startupEvent);
+        // then
+        verify(analytics, times(2)).enqueue(builder.capture());
+        TrackMessage message = builder.getAllValues().get(1).build();
+        assertThat(message.properties().get("jedi")).isEqualTo("yoda");
+        Map<String, ?> appProperties = (Map<String, ?>) message.context().get(PROP_APP);
+        assertThat(appProperties.get("jedi")).isEqualTo("yoda");
+    }
+
     @Test
     void dispose_should_flush_and_shutdown_analytics() {
         // given
+        broker.send(actionEvent);
         // when
         broker.dispose();
         // then
@@ -379,6 +470,24 @@ class SegmentBrokerTest {
         verify(analytics).shutdown();
     }
 
+    @Test
+    void dispose_should_NOT_create_analytics_if_nothing_was_sent() {
+        // given
+        // lambda cannot be spied on, function instance can
+        Function<String, Analytics> analyticsFactory = spy(new Function<String, Analytics>() {
+            @Override
+            public Analytics apply(String key) {
+                return analytics;
+            }
+        });
+        SegmentBroker broker = new SegmentBroker(false, USER_ID, identifyTraitsPersistence, environment, configuration, analyticsFactory);
+        // when
+        broker.dispose();
+        // then
+        verify(analyticsFactory, never()).apply(any());
+        verify(analytics, never()).shutdown();
+    }
+
     private void assertContext(String appName, String appVersion, String osName, String osVersion, Map<String, ?> context) {
         Map<String, ?> appProperties = (Map<String, ?>) context.get(PROP_APP);
         assertThat(appProperties.get(PROP_NAME)).isEqualTo(appName);
@@ -10,10 +10,12 @@
  ******************************************************************************/
 package com.redhat.devtools.intellij.telemetry.core.service.segment;
 
+import com.redhat.devtools.intellij.telemetry.core.configuration.IConfiguration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -55,4 +57,13 @@ class SegmentConfigurationTest {
         assertThat(writeKey).isEqualTo(syspropWriteKey);
     }
 
+    @Test
+    void getConfigurations_should_return_same_configurations() {
+        // given
+        // when
+        List<IConfiguration> configurations = config.getConfigurations();
+        // then
+        assertThat(configurations).isSameAs(config.getConfigurations());
+    }
+
 }
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.redhat.devtools.intellij.telemetry.core.util.RecordSpool;
+import com.segment.analytics.Analytics;
+import com.segment.analytics.messages.IdentifyMessage;
+import com.segment.analytics.messages.Message;
+import com.segment.analytics.messages.MessageBuilder;
+import com.segment.analytics.messages.TrackMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SegmentSpoolTest {
+
+    @TempDir
+    private Path directory;
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void before() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void after() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void replay_should_enqueue_messages_that_were_NOT_delivered_in_previous_session() throws IOException {
+        // given
+        SegmentSpool previous = open();
+        Message delivered = track("lift x-wing");
+        Message undelivered = track("use the force");
+        previous.intercept(delivered);
+        previous.intercept(undelivered);
+        previous.success(delivered);
+        previous.close();
+        SegmentSpool spool = open();
+        Analytics analytics = mock(Analytics.class);
+        ArgumentCaptor<MessageBuilder<?, ?>> builder = ArgumentCaptor.forClass(MessageBuilder.class);
+        // when
+        spool.replay(analytics);
+        // then
+        verify(analytics, times(2)).enqueue(builder.capture());
+        List<MessageBuilder<?, ?>> builders = builder.getAllValues();
+        // file was not fully acknowledged, all its messages are replayed. Segment deduplicates by message id
+        assertThat(builders.get(1).build().messageId()).isEqualTo(undelivered.messageId());
+        spool.close();
+    }
+
+    @Test
+    void replay_should_preserve_message_content() throws IOException {
+        // given
+        SegmentSpool previous = open();
+        TrackMessage message = track("lift x-wing");
+        previous.intercept(message);
+        previous.close();
+        SegmentSpool spool = open();
+        Analytics analytics = mock(Analytics.class);
+        ArgumentCaptor<MessageBuilder<?, ?>> builder = ArgumentCaptor.forClass(MessageBuilder.class);
+        // when
+        spool.replay(analytics);
+        // then
+        verify(analytics).enqueue(builder.capture());
+        TrackMessage replayed = (TrackMessage) builder.getValue().build();
+        assertThat(replayed.messageId()).isEqualTo(message.messageId());
+        assertThat(replayed.timestamp()).isEqualTo(message.timestamp());
+        assertThat(replayed.event()).isEqualTo(message.event());
+        assertThat(replayed.userId()).isEqualTo(message.userId());
+        assertThat(replayed.properties()).isEqualTo(message.properties());
+        spool.close();
+    }
+
+    @Test
+    void replay_should_delete_replayed_files() throws IOException {
+        // given
+        SegmentSpool previous = open();
+        previous.intercept(track("lift x-wing"));
+        previous.close();
+        SegmentSpool spool = open();
+        // when
+        spool.replay(mock(Analytics.class));
+        // then
+        spool.close();
+        // replayed message was not spooled again since analytics is a mock
+        assertThat(spoolFiles()).isEmpty();
+    }
+
+    @Test
+    void close_should_delete_spool_files_if_all_messages_were_delivered() throws IOException {
+        // given
+        SegmentSpool spool = open();
+        Message message = track("lift x-wing");
+        spool.intercept(message);
+        spool.success(message);
+        // when
+        spool.close();
+        // then
+        assertThat(spoolFiles()).isEmpty();
+    }
+
+    @Test
+    void close_should_keep_spool_files_if_message_delivery_failed() throws IOException {
+        // given
+        SegmentSpool spool = open();
+        Message message = track("lift x-wing");
+        spool.intercept(message);
+        spool.failure(message, new IOException("offline"));
+        // when
+        spool.close();
+        // then
+        assertThat(spoolFiles()).hasSize(1);
+    }
+
+    @Test
+    void countingIn_should_spool_message_and_count_it_with_size_of_its_record() throws IOException {
+        // given
+        SegmentSpool spool = open();
+        FlushController controller = mock(FlushController.class);
+        Message message = track("lift x-wing");
+        // when
+        Message intercepted = spool.countingIn(controller).intercept(message);
+        // then
+        assertThat(intercepted).isSameAs(message);
+        verify(controller).enqueued(FlushController.sizeOf(message));
+        verify(controller, never()).intercept(any());
+        spool.close();
+        assertThat(spoolFiles()).hasSize(1);
+    }
+
+    @Test
+    void replay_should_restore_identify_message() throws IOException {
+        // given
+        SegmentSpool previous = open();
+        IdentifyMessage message = IdentifyMessage.builder()
+                .userId("42")
+                .traits(Map.of("locale", "en-US"))
+                .build();
+        previous.intercept(message);
+        previous.close();
+        SegmentSpool spool = open();
+        Analytics analytics = mock(Analytics.class);
+        ArgumentCaptor<MessageBuilder<?, ?>> builder = ArgumentCaptor.forClass(MessageBuilder.class);
+        // when
+        spool.replay(analytics);
+        // then
+        verify(analytics).enqueue(builder.capture());
+        IdentifyMessage replayed = (IdentifyMessage) builder.getValue().build();
+        assertThat(replayed.messageId()).isEqualTo(message.messageId());
+        assertThat(replayed.traits()).isEqualTo(message.traits());
+        spool.close();
+    }
+
+    @Test
+    void failure_should_enqueue_message_again_in_this_session() throws IOException {
+        // given
+        ScheduledExecutorService scheduler = mockScheduler();
+        SegmentSpool spool = open(scheduler);
+        Analytics analytics = mock(Analytics.class);
+        spool.replay(analytics);
+        Message message = track("lift x-wing");
+        spool.intercept(message);
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<MessageBuilder<?, ?>> builder = ArgumentCaptor.forClass(MessageBuilder.class);
+        // when
+        spool.failure(message, new IOException("offline"));
+        // then
+        verify(scheduler).schedule(retry.capture(), eq(SegmentSpool.RETRY_DELAY), eq(TimeUnit.MILLISECONDS));
+        retry.getValue().run();
+        verify(analytics).enqueue(builder.capture());
+        assertThat(builder.getValue().build().messageId()).isEqualTo(message.messageId());
+        spool.close();
+    }
+
+    @Test
+    void success_should_ack_retried_message_without_spooling_it_again() throws IOException {
+        // given
+        ScheduledExecutorService scheduler = mockScheduler();
+        SegmentSpool spool = open(scheduler);
+        spool.replay(mock(Analytics.class));
+        Message message = track("lift x-wing");
+        spool.intercept(message);
+        spool.failure(message, new IOException("offline"));
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(retry.capture(), anyLong(), any());
+        retry.getValue().run();
+        // when
+        spool.intercept(message);
+        spool.success(message);
+        // then
+        spool.close();
+        assertThat(spoolFiles()).isEmpty();
+    }
+
+    @Test
+    void failure_should_NOT_retry_message_more_than_max_retries() throws IOException {
+        // given
+        ScheduledExecutorService scheduler = mockScheduler();
+        SegmentSpool spool = open(scheduler);
+        spool.replay(mock(Analytics.class));
+        Message message = track("lift x-wing");
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        spool.intercept(message);
+        for (int i = 0; i < SegmentSpool.MAX_RETRIES; i++) {
+            spool.failure(message, new IOException("offline"));
+            verify(scheduler, times(i + 1)).schedule(retry.capture(), anyLong(), any());
+            retry.getValue().run();
+            spool.intercept(message);
+        }
+        // when
+        spool.failure(message, new IOException("offline"));
+        // then
+        verify(scheduler, times(SegmentSpool.MAX_RETRIES)).schedule(any(Runnable.class), anyLong(), any());
+        spool.close();
+        // kept for the next session
+        assertThat(spoolFiles()).hasSize(1);
+    }
+
+    @Test
+    void toBuilder_should_return_null_for_invalid_record() {
+        // given
+        byte[] record = "It's a trap!".getBytes();
+        // when
+        MessageBuilder<?, ?> builder = SegmentSpool.toBuilder(record);
+        // then
+        assertThat(builder).isNull();
+    }
+
+    private SegmentSpool open() throws IOException {
+        return open(scheduler);
+    }
+
+    private SegmentSpool open(ScheduledExecutorService scheduler) throws IOException {
+        RecordSpool spool = RecordSpool.open(directory, 1024 * 1024, TimeUnit.HOURS.toMillis(1), 10 * 1024 * 1024, TimeUnit.DAYS.toMillis(7));
+        return new SegmentSpool(spool, scheduler, Runnable::run);
+    }
+
+    private static ScheduledExecutorService mockScheduler() {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class))
+                .when(scheduler).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any());
+        doReturn(mock(ScheduledFuture.class))
+                .when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        return scheduler;
+    }
+
+    private List<Path> spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.toString().endsWith(".spool"))
+                    .toList();
+        }
+    }
+
+    private static TrackMessage track(String name) {
+        return TrackMessage.builder(name)
+                .userId("42")
+                .properties(Map.of("extension_name", "yoda"))
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.service.segment;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A local http server that stands in for segment. It accepts all uploads, decompresses gzip-compressed
+ * payloads and records them along with the number of bytes that were received on the wire.
+ */
+class SegmentStandIn implements AutoCloseable {
+
+    private static final byte[] RESPONSE = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final BlockingQueue<Upload> uploads = new LinkedBlockingQueue<>();
+
+    static SegmentStandIn start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        SegmentStandIn standIn = new SegmentStandIn(server);
+        server.start();
+        return standIn;
+    }
+
+    private SegmentStandIn(HttpServer server) {
+        this.server = server;
+        server.createContext("/", this::handle);
+    }
+
+    String getEndpoint() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    /**
+     * Returns the next upload, waiting for it for the given time.
+     * Returns {@code null} if no upload was received in time.
+     */
+    Upload next(long timeout, TimeUnit unit) throws InterruptedException {
+        return uploads.poll(timeout, unit);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] received;
+            try (InputStream in = exchange.getRequestBody()) {
+                received = in.readAllBytes();
+            }
+            String encoding = exchange.getRequestHeaders().getFirst(GzipRequestInterceptor.HEADER_CONTENT_ENCODING);
+            byte[] payload = received;
+            if (GzipRequestInterceptor.GZIP.equals(encoding)) {
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(received))) {
+                    payload = in.readAllBytes();
+                }
+            }
+            uploads.add(new Upload(
+                    exchange.getRequestURI().getPath(),
+                    encoding,
+                    received.length,
+                    new String(payload, StandardCharsets.UTF_8)));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            exchange.getResponseBody().write(RESPONSE);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    static class Upload {
+        final String path;
+        final String encoding;
+        /* the bytes that were received on the wire, without http headers */
+        final int wireBytes;
+        /* the decompressed payload */
+        final String payload;
+
+        private Upload(String path, String encoding, int wireBytes, String payload) {
+            this.path = path;
+            this.encoding = encoding;
+            this.wireBytes = wireBytes;
+            this.payload = payload;
+        }
+    }
+}
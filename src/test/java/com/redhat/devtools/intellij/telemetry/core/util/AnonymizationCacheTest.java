@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnonymizationCacheTest {
+
+    private UnaryOperator<String> anonymization;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void before() {
+        this.anonymization = mock(UnaryOperator.class);
+        when(anonymization.apply(any())).thenAnswer(invocation ->
+                ((String) invocation.getArgument(0)).replace("yoda", "<JEDI>"));
+    }
+
+    @Test
+    void anonymize_should_anonymize_repeated_string_once() {
+        // given
+        AnonymizationCache cache = new AnonymizationCache(anonymization);
+        // when
+        String first = cache.anonymize("yoda: connection refused");
+        String second = cache.anonymize("yoda: connection refused");
+        // then
+        assertThat(first).isEqualTo("<JEDI>: connection refused");
+        assertThat(second).isSameAs(first);
+        verify(anonymization, times(1)).apply("yoda: connection refused");
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void anonymize_should_return_given_instance_if_cached_string_was_not_changed() {
+        // given
+        AnonymizationCache cache = new AnonymizationCache(anonymization);
+        cache.anonymize(new String("luke: connection refused"));
+        String string = new String("luke: connection refused");
+        // when
+        String anonymized = cache.anonymize(string);
+        // then
+        assertThat(anonymized).isSameAs(string);
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void anonymize_should_NOT_anonymize_null_nor_empty() {
+        // given
+        AnonymizationCache cache = new AnonymizationCache(anonymization);
+        // when
+        String nullString = cache.anonymize(null);
+        String empty = cache.anonymize("");
+        // then
+        assertThat(nullString).isNull();
+        assertThat(empty).isEmpty();
+        verify(anonymization, never()).apply(any());
+        assertThat(cache.getMisses()).isZero();
+    }
+
+    @Test
+    void anonymize_should_evict_least_recently_used_if_max_entries_exceeded() {
+        // given
+        AnonymizationCache cache = new AnonymizationCache(anonymization, 2, 1024);
+        cache.anonymize("luke");
+        cache.anonymize("leia");
+        cache.anonymize("luke"); // leia is least recently used
+        // when
+        cache.anonymize("han");
+        // then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        cache.anonymize("luke");
+        verify(anonymization, times(1)).apply("luke");
+        cache.anonymize("leia");
+        verify(anonymization, times(2)).apply("leia");
+    }
+
+    @Test
+    void anonymize_should_evict_least_recently_used_if_max_weight_exceeded() {
+        // given
+        AnonymizationCache cache = new AnonymizationCache(anonymization, 100, 320);
+        cache.anonymize("0123456789-luke");
+        cache.anonymize("0123456789-leia");
+        // when
+        for (int i = 0; i < 30; i++) {
+            cache.anonymize("0123456789-han-" + i);
+        }
+        // then
+        assertThat(cache.getWeight()).isLessThanOrEqualTo(320);
+        assertThat(cache.getEvictions()).isPositive();
+        cache.anonymize("0123456789-luke");
+        verify(anonymization, times(2)).apply("0123456789-luke");
+    }
+
+    @Test
+    void anonymize_should_weigh_unchanged_string_once() {
+        // given
+        AnonymizationCache cache = new AnonymizationCache(anonymization);
+        // when
+        cache.anonymize("luke");
+        cache.anonymize("yoda");
+        // then
+        assertThat(cache.getWeight()).isEqualTo("luke".length() + "yoda".length() + "<JEDI>".length());
+    }
+
+    @Test
+    void anonymize_should_NOT_cache_heavy_string() {
+        // given
+        AnonymizationCache cache = new AnonymizationCache(anonymization, 100, 320);
+        String heavy = "yoda".repeat(10);
+        // when
+        String first = cache.anonymize(heavy);
+        String second = cache.anonymize(heavy);
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(cache.size()).isZero();
+        verify(anonymization, times(2)).apply(heavy);
+    }
+}
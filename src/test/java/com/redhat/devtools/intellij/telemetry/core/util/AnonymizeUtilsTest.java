@@ -129,4 +129,63 @@ public class AnonymizeUtilsTest {
                 .contains(AnonymizeUtils.ANONYMOUS_NAMESPACE);
     }
 
+    @Test
+    void anonymize_should_replace_tmpDir_homeDir_username_ip_and_email() {
+        // given
+        String message = "User " + AnonymizeUtils.USER_NAME + " (jedi@redhat.com) could not read "
+                + AnonymizeUtils.HOME_DIR + "/.kube/config nor " + AnonymizeUtils.TMP_DIR + "/kubeconfig"
+                + " when connecting to 192.168.0.42";
+        // when
+        String anonymized = AnonymizeUtils.anonymize(message);
+        // then
+        assertThat(anonymized)
+                .doesNotContain("jedi@redhat.com")
+                .doesNotContain("192.168.0.42")
+                .contains(AnonymizeUtils.ANONYMOUS_USER_NAME)
+                .contains(AnonymizeUtils.ANONYMOUS_EMAIL)
+                .contains(AnonymizeUtils.ANONYMOUS_HOMEDIR)
+                .contains(AnonymizeUtils.ANONYMOUS_TMPDIR)
+                .contains(AnonymizeUtils.ANONYMOUS_IP);
+    }
+
+    @Test
+    void anonymize_should_return_same_instance_if_there_is_nothing_to_anonymize() {
+        // given
+        String message = "Could not connect to cluster: connection refused (after 3 retries)";
+        // when
+        String anonymized = AnonymizeUtils.anonymize(message);
+        // then
+        assertThat(anonymized).isSameAs(message);
+    }
+
+    @Test
+    void anonymize_should_replace_registered_resource_and_namespace() {
+        // given
+        String resource = "death star";
+        String namespace = "galactic empire";
+        String message = resource + " is operated by " + namespace;
+        assertThat(AnonymizeUtils.anonymize(message)).isSameAs(message);
+        // when
+        AnonymizeUtils.registerResource(resource, namespace);
+        String anonymized = AnonymizeUtils.anonymize(message);
+        // then
+        assertThat(anonymized).isEqualTo(AnonymizeUtils.ANONYMOUS_RESOURCENAME + " is operated by " + AnonymizeUtils.ANONYMOUS_NAMESPACE);
+    }
+
+    @Test
+    void anonymize_should_memoize_repeated_message() {
+        // given
+        String message = "Could not connect to 10.0.0.42: connection refused";
+        String anonymized = AnonymizeUtils.anonymize(message);
+        AnonymizationCache cache = AnonymizeUtils.getCache();
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        // when
+        String repeated = AnonymizeUtils.anonymize(message);
+        // then
+        assertThat(repeated).isSameAs(anonymized);
+        assertThat(cache.getHits()).isEqualTo(hits + 1);
+        assertThat(cache.getMisses()).isEqualTo(misses);
+    }
+
 }
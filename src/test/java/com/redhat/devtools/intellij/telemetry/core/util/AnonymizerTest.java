@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static com.redhat.devtools.intellij.telemetry.core.util.AnonymizeUtils.ANONYMOUS_IP;
+import static com.redhat.devtools.intellij.telemetry.core.util.AnonymizeUtils.ANONYMOUS_NAMESPACE;
+import static com.redhat.devtools.intellij.telemetry.core.util.AnonymizeUtils.ANONYMOUS_RESOURCENAME;
+import static com.redhat.devtools.intellij.telemetry.core.util.AnonymizeUtils.ANONYMOUS_USER_NAME;
+import static com.redhat.devtools.intellij.telemetry.core.util.AnonymizeUtils.USER_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnonymizerTest {
+
+    @Test
+    void anonymizeProperty_should_return_same_value_if_no_rules_registered() {
+        // given
+        Anonymizer anonymizer = new Anonymizer();
+        String value = "smurf village at 192.168.0.1";
+        // when
+        String anonymized = anonymizer.anonymizeProperty(value);
+        // then
+        assertThat(anonymized).isSameAs(value);
+    }
+
+    @Test
+    void anonymizeProperty_should_apply_registered_rules_only() {
+        // given
+        Anonymizer anonymizer = new Anonymizer()
+                .register(
+                        AnonymizationRule.literal("smurf village", "<PROJECT>"),
+                        AnonymizationRule.pattern("[A-Z]:\\\\\\S+", "<PATH>"));
+        // when
+        String anonymized = anonymizer.anonymizeProperty("smurf village in C:\\smurfs\\village 1.2.3");
+        // then
+        assertThat(anonymized).isEqualTo("<PROJECT> in <PATH> 1.2.3");
+    }
+
+    @Test
+    void anonymizeError_should_apply_builtin_and_registered_rules() {
+        // given
+        Anonymizer anonymizer = new Anonymizer()
+                .register(AnonymizationRule.prefix("https://", "<URL>"));
+        // when
+        String anonymized = anonymizer.anonymizeError(
+                USER_NAME + " could not reach https://smurf.village:6443/api at 10.0.0.1");
+        // then
+        assertThat(anonymized).isEqualTo(
+                ANONYMOUS_USER_NAME + " could not reach <URL> at " + ANONYMOUS_IP);
+    }
+
+    @Test
+    void anonymizeError_should_apply_rules_registered_after_first_use() {
+        // given
+        Anonymizer anonymizer = new Anonymizer()
+                .register(AnonymizationRule.literal("gargamel", "<WIZARD>"));
+        assertThat(anonymizer.anonymizeError("gargamel and azrael")).isEqualTo("<WIZARD> and azrael");
+        // when
+        anonymizer.register(AnonymizationRule.literal("azrael", "<CAT>"));
+        // then
+        assertThat(anonymizer.anonymizeError("gargamel and azrael")).isEqualTo("<WIZARD> and <CAT>");
+    }
+
+    @Test
+    void anonymizeError_should_apply_resources_registered_after_first_use() {
+        // given
+        Anonymizer anonymizer = new Anonymizer()
+                .register(AnonymizationRule.literal("gargamel", "<WIZARD>"));
+        String error = "gargamel deployed papasmurf-pod to smurfs-ns";
+        assertThat(anonymizer.anonymizeError(error)).isEqualTo("<WIZARD> deployed papasmurf-pod to smurfs-ns");
+        // when
+        AnonymizeUtils.registerResource("papasmurf-pod", "smurfs-ns");
+        // then
+        assertThat(anonymizer.anonymizeError(error)).isEqualTo(
+                "<WIZARD> deployed " + ANONYMOUS_RESOURCENAME + " to " + ANONYMOUS_NAMESPACE);
+    }
+}
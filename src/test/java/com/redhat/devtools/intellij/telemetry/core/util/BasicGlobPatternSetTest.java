@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BasicGlobPatternSetTest {
+
+    @Test
+    public void compile_should_throw_when_a_pattern_is_invalid() {
+        // given, when, then
+        assertThrows(PatternSyntaxException.class, () -> BasicGlobPatternSet.compile(List.of("yoda", "{yoda,obiwan")));
+    }
+
+    @Test
+    public void getFirstMatch_should_return_index_of_first_matching_pattern() {
+        // given
+        BasicGlobPatternSet globs = BasicGlobPatternSet.compile(List.of("obiwan*", "*yoda*", "y?da", "{luke,yoda}"));
+        // when, then
+        assertThat(globs.getFirstMatch("yoda")).isEqualTo(1);
+        assertThat(globs.getFirstMatch("obiwan kenobi")).isZero();
+        assertThat(globs.getFirstMatch("luke")).isEqualTo(3);
+    }
+
+    @Test
+    public void getFirstMatch_should_return_NO_MATCH_if_no_pattern_matches() {
+        // given
+        BasicGlobPatternSet globs = BasicGlobPatternSet.compile(List.of("obiwan*", "*yoda*"));
+        // when, then
+        assertThat(globs.getFirstMatch("darth vader")).isEqualTo(BasicGlobPatternSet.NO_MATCH);
+        assertThat(globs.getFirstMatch("")).isEqualTo(BasicGlobPatternSet.NO_MATCH);
+        assertThat(globs.getFirstMatch(null)).isEqualTo(BasicGlobPatternSet.NO_MATCH);
+    }
+
+    @Test
+    public void getFirstMatch_should_match_more_than_64_states() {
+        // given
+        BasicGlobPatternSet globs = BasicGlobPatternSet.compile(List.of(
+                "yoda ? obiwan ? skywalker *",
+                "windu ? kenobi ? jinn *",
+                "ahsoka ? plo koon ? kit fisto *",
+                "aayla ? secura ?"));
+        // when, then
+        assertThat(globs.getFirstMatch("aayla - secura !")).isEqualTo(3);
+        assertThat(globs.getFirstMatch("windu - kenobi - jinn the jedi")).isEqualTo(1);
+        assertThat(globs.getFirstMatch("windu - kenobi - jinn/the jedi")).isEqualTo(BasicGlobPatternSet.NO_MATCH);
+    }
+}
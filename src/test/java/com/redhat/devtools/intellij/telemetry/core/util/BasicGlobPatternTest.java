@@ -137,4 +137,66 @@ public class BasicGlobPatternTest {
         assertThat(glob.matches("jedi(s|42)")).isTrue();
         assertThat(glob.matches("jedi(s)")).isFalse();
     }
+
+    @Test
+    public void machtes_should_NOT_match_name_separator_with_wildcard() {
+        // given
+        BasicGlobPattern prefix = BasicGlobPattern.compile("jedi/*");
+        BasicGlobPattern suffix = BasicGlobPattern.compile("*/yoda");
+        // when, then
+        assertThat(prefix.matches("jedi/yoda")).isTrue();
+        assertThat(prefix.matches("jedi/master/yoda")).isFalse();
+        assertThat(suffix.matches("jedi/yoda")).isTrue();
+        assertThat(suffix.matches("jedi/master/yoda")).isFalse();
+    }
+
+    @Test
+    public void machtes_should_match_name_separator_with_double_wildcard() {
+        // given
+        BasicGlobPattern glob = BasicGlobPattern.compile("jedi/**/yoda");
+        // when, then
+        assertThat(glob.matches("jedi/master/yoda")).isTrue();
+        assertThat(glob.matches("jedi/grand/master/yoda")).isTrue();
+        assertThat(glob.matches("sith/master/yoda")).isFalse();
+    }
+
+    @Test
+    public void machtes_should_match_expression_with_negated_alternatives() {
+        // given
+        BasicGlobPattern glob = BasicGlobPattern.compile("jedi [!abc]");
+        // when, then
+        assertThat(glob.matches("jedi d")).isTrue();
+        assertThat(glob.matches("jedi a")).isFalse();
+        assertThat(glob.matches("jedi /")).isFalse();
+    }
+
+    @Test
+    public void machtes_should_match_escaped_characters_as_normal_characters() {
+        // given
+        BasicGlobPattern glob = BasicGlobPattern.compile("yoda\\*");
+        // when, then
+        assertThat(glob.matches("yoda*")).isTrue();
+        assertThat(glob.matches("yoda the jedi")).isFalse();
+    }
+
+    @Test
+    public void machtes_should_match_brace_expansions_with_wildcards() {
+        // given
+        BasicGlobPattern glob = BasicGlobPattern.compile("{yoda,obiwan}*{master,knight}");
+        // when, then
+        assertThat(glob.matches("yoda the jedi master")).isTrue();
+        assertThat(glob.matches("obiwan the jedi knight")).isTrue();
+        assertThat(glob.matches("obiwan the jedi")).isFalse();
+        assertThat(glob.matches("darth the sith master")).isFalse();
+    }
+
+    @Test
+    public void machtes_should_match_expression_with_more_than_64_elements() {
+        // given
+        String jedi = "yoda obiwan skywalker windu kenobi jinn ahsoka plo koon kit fisto aayla secura ";
+        BasicGlobPattern glob = BasicGlobPattern.compile(jedi + "?*");
+        // when, then
+        assertThat(glob.matches(jedi + "!")).isTrue();
+        assertThat(glob.matches(jedi)).isFalse();
+    }
 }
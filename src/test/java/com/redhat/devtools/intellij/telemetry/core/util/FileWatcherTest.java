@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileWatcherTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void watch_should_notify_listener_when_file_is_created() throws IOException, InterruptedException {
+        // given
+        FileWatcher watcher = new FileWatcher();
+        Path file = directory.resolve("yoda.json");
+        CountDownLatch notified = new CountDownLatch(1);
+        watcher.watch(file, notified::countDown);
+        // when
+        Files.writeString(file, "{}");
+        // then
+        assertThat(notified.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void watch_should_NOT_notify_listener_when_other_file_is_changed() throws IOException, InterruptedException {
+        // given
+        FileWatcher watcher = new FileWatcher();
+        AtomicInteger yodaNotifications = new AtomicInteger();
+        CountDownLatch obiwanNotified = new CountDownLatch(1);
+        watcher.watch(directory.resolve("yoda.json"), yodaNotifications::incrementAndGet);
+        watcher.watch(directory.resolve("obiwan.json"), obiwanNotified::countDown);
+        // when
+        Files.writeString(directory.resolve("obiwan.json"), "{}");
+        // then
+        assertThat(obiwanNotified.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(yodaNotifications.get()).isZero();
+    }
+
+    @Test
+    void cancel_should_stop_notifying_listener() throws IOException, InterruptedException {
+        // given
+        FileWatcher watcher = new FileWatcher();
+        Path file = directory.resolve("yoda.json");
+        AtomicInteger notifications = new AtomicInteger();
+        FileWatcher.Watch watch = watcher.watch(file, notifications::incrementAndGet);
+        CountDownLatch otherNotified = new CountDownLatch(1);
+        watcher.watch(directory.resolve("obiwan.json"), otherNotified::countDown);
+        // when
+        watch.cancel();
+        Files.writeString(file, "{}");
+        Files.writeString(directory.resolve("obiwan.json"), "{}");
+        // then
+        assertThat(otherNotified.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(notifications.get()).isZero();
+    }
+
+    @Test
+    void watch_should_watch_directory_again_once_it_was_deleted() throws IOException, InterruptedException {
+        // given
+        FileWatcher watcher = new FileWatcher();
+        Path jedis = directory.resolve("jedis");
+        Path file = jedis.resolve("yoda.json");
+        Semaphore notified = new Semaphore(0);
+        watcher.watch(file, notified::release);
+        // when
+        Files.delete(jedis);
+        // then
+        assertThat(notified.tryAcquire(10, TimeUnit.SECONDS)).isTrue(); // watched again
+        assertThat(jedis).isDirectory();
+        Files.writeString(file, "{}");
+        assertThat(notified.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+    }
+}
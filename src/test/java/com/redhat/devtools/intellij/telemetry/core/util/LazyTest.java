@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    void get_should_create_value_once() {
+        // given
+        AtomicInteger created = new AtomicInteger();
+        Lazy<String> lazy = new Lazy<>(() -> "yoda " + created.incrementAndGet());
+        // when
+        lazy.get();
+        String value = lazy.get();
+        // then
+        assertThat(value).isEqualTo("yoda 1");
+        assertThat(created.get()).isEqualTo(1);
+    }
+
+    @Test
+    void get_should_create_value_and_notify_once_when_called_concurrently() throws Exception {
+        // given
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger notified = new AtomicInteger();
+        Lazy<Object> lazy = new Lazy<>(() -> {
+            created.incrementAndGet();
+            return new Object();
+        }) {
+            @Override
+            protected void onCreated(Object value) {
+                notified.incrementAndGet();
+            }
+        };
+        // when
+        List<Object> values = getConcurrently(lazy);
+        // then
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(notified.get()).isEqualTo(1);
+        assertThat(values).allMatch(value -> value == values.get(0));
+    }
+
+    @Test
+    void get_should_return_value_when_requested_in_onCreated() {
+        // given
+        List<String> requested = new ArrayList<>();
+        Lazy<String> lazy = new Lazy<>(() -> "obiwan") {
+            @Override
+            protected void onCreated(String value) {
+                requested.add(get());
+            }
+        };
+        // when
+        lazy.get();
+        // then
+        assertThat(requested).containsExactly("obiwan");
+    }
+
+    @Test
+    void get_should_create_null_value_again() {
+        // given
+        AtomicInteger created = new AtomicInteger();
+        Lazy<String> lazy = new Lazy<>(() -> {
+            created.incrementAndGet();
+            return null;
+        });
+        // when
+        lazy.get();
+        String value = lazy.get();
+        // then
+        assertThat(value).isNull();
+        assertThat(created.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_should_NOT_create_null_value_again_if_nullable() {
+        // given
+        AtomicInteger created = new AtomicInteger();
+        Lazy<String> lazy = Lazy.ofNullable(() -> {
+            created.incrementAndGet();
+            return null;
+        });
+        // when
+        lazy.get();
+        String value = lazy.get();
+        // then
+        assertThat(value).isNull();
+        assertThat(created.get()).isEqualTo(1);
+    }
+
+    @Test
+    void getIfCreated_should_return_null_and_NOT_create_value_if_it_was_NOT_created() {
+        // given
+        AtomicInteger created = new AtomicInteger();
+        Lazy<String> lazy = new Lazy<>(() -> "leia " + created.incrementAndGet());
+        // when
+        String value = lazy.getIfCreated();
+        // then
+        assertThat(value).isNull();
+        assertThat(created.get()).isZero();
+    }
+
+    @Test
+    void getIfCreated_should_return_value_if_it_was_created() {
+        // given
+        Lazy<String> lazy = new Lazy<>(() -> "leia");
+        lazy.get();
+        // when
+        String value = lazy.getIfCreated();
+        // then
+        assertThat(value).isEqualTo("leia");
+    }
+
+    @Test
+    void reset_should_create_value_again() {
+        // given
+        AtomicInteger created = new AtomicInteger();
+        Lazy<String> lazy = new Lazy<>(() -> "luke " + created.incrementAndGet());
+        lazy.get();
+        // when
+        lazy.reset();
+        String value = lazy.get();
+        // then
+        assertThat(value).isEqualTo("luke 2");
+    }
+
+    private static <T> List<T> getConcurrently(Supplier<T> supplier) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return supplier.get();
+                }));
+            }
+            start.countDown();
+            List<T> values = new ArrayList<>();
+            for (Future<T> future : futures) {
+                values.add(future.get(1, TimeUnit.MINUTES));
+            }
+            return values;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordSpoolTest {
+
+    private static final long MAX_FILE_SIZE = 1024;
+    private static final long MAX_FILE_AGE = TimeUnit.HOURS.toMillis(1);
+    private static final long MAX_TOTAL_SIZE = 10 * 1024;
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(7);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void open_should_recover_files_of_previous_session() throws IOException {
+        // given
+        RecordSpool previous = open();
+        previous.append(bytes("yoda"));
+        previous.append(bytes("obiwan"));
+        previous.close();
+        // when
+        RecordSpool spool = open();
+        // then
+        List<Path> recovered = spool.getRecovered();
+        assertThat(recovered).hasSize(1);
+        assertThat(strings(RecordSpool.read(recovered.get(0)))).containsExactly("yoda", "obiwan");
+    }
+
+    @Test
+    void open_should_throw_if_directory_is_used_by_other_spool() throws IOException {
+        // given
+        RecordSpool spool = open();
+        // when, then
+        assertThrows(IOException.class, this::open);
+        spool.close();
+    }
+
+    @Test
+    void close_should_delete_file_if_all_records_were_acked() throws IOException {
+        // given
+        RecordSpool spool = open();
+        long id = spool.append(bytes("yoda"));
+        spool.append(bytes("obiwan"));
+        spool.ack(id);
+        spool.ack(id);
+        // when
+        spool.close();
+        // then
+        assertThat(spoolFiles()).isEmpty();
+    }
+
+    @Test
+    void close_should_keep_file_if_records_were_NOT_acked() throws IOException {
+        // given
+        RecordSpool spool = open();
+        long id = spool.append(bytes("yoda"));
+        spool.append(bytes("obiwan"));
+        spool.ack(id);
+        // when
+        spool.close();
+        // then
+        assertThat(spoolFiles()).hasSize(1);
+    }
+
+    @Test
+    void append_should_rotate_file_once_it_exceeds_max_size() throws IOException {
+        // given
+        RecordSpool spool = open();
+        byte[] record = new byte[600];
+        // when
+        long first = spool.append(record);
+        long second = spool.append(record);
+        // then
+        assertThat(first).isNotEqualTo(second);
+        assertThat(spoolFiles()).hasSize(2);
+        spool.close();
+    }
+
+    @Test
+    void ack_should_delete_rotated_file_once_all_its_records_were_acked() throws IOException {
+        // given
+        RecordSpool spool = open();
+        byte[] record = new byte[600];
+        long first = spool.append(record);
+        spool.append(record);
+        // when
+        spool.ack(first);
+        // then
+        assertThat(spoolFiles()).hasSize(1);
+        spool.close();
+    }
+
+    @Test
+    void append_should_discard_oldest_files_if_spool_exceeds_max_total_size() throws IOException {
+        // given
+        RecordSpool spool = RecordSpool.open(directory, MAX_FILE_SIZE, MAX_FILE_AGE, 2 * MAX_FILE_SIZE, MAX_AGE);
+        byte[] record = new byte[600];
+        long first = spool.append(record);
+        // when
+        for (int i = 0; i < 4; i++) {
+            spool.append(record);
+        }
+        // then
+        assertThat(spool.size()).isLessThanOrEqualTo(2 * MAX_FILE_SIZE);
+        assertThat(spoolFiles()).doesNotContain(directory.resolve(first + ".spool"));
+        spool.close();
+    }
+
+    @Test
+    void read_should_stop_at_truncated_record() throws IOException {
+        // given
+        RecordSpool spool = open();
+        spool.append(bytes("yoda"));
+        spool.close();
+        Path file = spoolFiles().get(0);
+        // torn write: frame header announces 42 bytes that were never written
+        Files.write(file, new byte[]{ 0, 0, 0, 42, 0, 0, 0, 0, 1 }, StandardOpenOption.APPEND);
+        // when
+        List<byte[]> records = RecordSpool.read(file);
+        // then
+        assertThat(strings(records)).containsExactly("yoda");
+    }
+
+    @Test
+    void read_should_stop_at_corrupted_record() throws IOException {
+        // given
+        RecordSpool spool = open();
+        spool.append(bytes("yoda"));
+        spool.append(bytes("obiwan"));
+        spool.close();
+        Path file = spoolFiles().get(0);
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 1] ^= 1; // flip a bit in the last record
+        Files.write(file, content);
+        // when
+        List<byte[]> records = RecordSpool.read(file);
+        // then
+        assertThat(strings(records)).containsExactly("yoda");
+    }
+
+    @Test
+    void delete_should_remove_recovered_file() throws IOException {
+        // given
+        RecordSpool previous = open();
+        previous.append(bytes("yoda"));
+        previous.close();
+        RecordSpool spool = open();
+        Path recovered = spool.getRecovered().get(0);
+        // when
+        spool.delete(recovered);
+        // then
+        assertThat(spool.getRecovered()).isEmpty();
+        assertThat(recovered).doesNotExist();
+        spool.close();
+    }
+
+    @Test
+    void rotate_should_seal_current_file() throws IOException {
+        // given
+        RecordSpool spool = open();
+        spool.append(bytes("yoda"));
+        // when
+        spool.rotate();
+        // then
+        List<Path> sealed = spool.getSealed();
+        assertThat(sealed).hasSize(1);
+        assertThat(strings(RecordSpool.read(sealed.get(0)))).containsExactly("yoda");
+        spool.close();
+    }
+
+    @Test
+    void getSealed_should_NOT_return_current_file() throws IOException {
+        // given
+        RecordSpool spool = open();
+        // when
+        spool.append(bytes("yoda"));
+        // then
+        assertThat(spool.getSealed()).isEmpty();
+        spool.close();
+    }
+
+    @Test
+    void delete_should_remove_rotated_file() throws IOException {
+        // given
+        RecordSpool spool = open();
+        spool.append(bytes("yoda"));
+        spool.rotate();
+        Path rotated = spool.getSealed().get(0);
+        // when
+        spool.delete(rotated);
+        // then
+        assertThat(spool.getSealed()).isEmpty();
+        assertThat(rotated).doesNotExist();
+        spool.close();
+    }
+
+    @Test
+    void clear_should_delete_all_files() throws IOException {
+        // given
+        RecordSpool previous = open();
+        previous.append(bytes("yoda"));
+        previous.close();
+        RecordSpool spool = open();
+        spool.append(bytes("obiwan"));
+        // when
+        spool.clear();
+        // then
+        assertThat(spool.getSealed()).isEmpty();
+        assertThat(spoolFiles()).isEmpty();
+        spool.close();
+    }
+
+    @Test
+    void append_should_throw_if_spool_is_closed() throws IOException {
+        // given
+        RecordSpool spool = open();
+        spool.close();
+        // when, then
+        assertThrows(IOException.class, () -> spool.append(bytes("yoda")));
+    }
+
+    private RecordSpool open() throws IOException {
+        return RecordSpool.open(directory, MAX_FILE_SIZE, MAX_FILE_AGE, MAX_TOTAL_SIZE, MAX_AGE);
+    }
+
+    private List<Path> spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.toString().endsWith(".spool"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(List<byte[]> records) {
+        return records.stream()
+                .map(record -> new String(record, StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import com.redhat.devtools.intellij.telemetry.core.util.RingBuffer.Overflow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int CONSUMERS = 4;
+    private static final int ELEMENTS_PER_PRODUCER = 100_000;
+
+    @Test
+    void constructor_should_round_capacity_up_to_power_of_two() {
+        // given
+        // when
+        RingBuffer<String> buffer = new RingBuffer<>(35);
+        // then
+        assertThat(buffer.capacity()).isEqualTo(64);
+    }
+
+    @Test
+    void constructor_should_keep_capacity_that_is_power_of_two() {
+        // given
+        // when
+        RingBuffer<String> buffer = new RingBuffer<>(32);
+        // then
+        assertThat(buffer.capacity()).isEqualTo(32);
+    }
+
+    @Test
+    void poll_should_return_elements_in_order_they_were_offered() {
+        // given
+        RingBuffer<String> buffer = new RingBuffer<>(4);
+        buffer.offer("yoda");
+        buffer.offer("obiwan");
+        // when
+        String first = buffer.poll();
+        String second = buffer.poll();
+        // then
+        assertThat(first).isEqualTo("yoda");
+        assertThat(second).isEqualTo("obiwan");
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void offer_should_reject_newest_element_if_full() {
+        // given
+        RingBuffer<String> buffer = new RingBuffer<>(2);
+        buffer.offer("yoda");
+        buffer.offer("obiwan");
+        // when
+        boolean offered = buffer.offer("luke");
+        // then
+        assertThat(offered).isFalse();
+        assertThat(buffer.isFull()).isTrue();
+        assertThat(buffer.pollAll()).containsExactly("yoda", "obiwan");
+    }
+
+    @Test
+    void offer_should_overwrite_oldest_element_if_full_and_overwriting() {
+        // given
+        RingBuffer<String> buffer = new RingBuffer<>(2, Overflow.OVERWRITE_OLDEST);
+        buffer.offer("yoda");
+        buffer.offer("obiwan");
+        // when
+        boolean offered = buffer.offer("luke");
+        // then
+        assertThat(offered).isTrue();
+        assertThat(buffer.pollAll()).containsExactly("obiwan", "luke");
+    }
+
+    @Test
+    void offer_should_reuse_slots_after_wrapping_around() {
+        // given
+        RingBuffer<Integer> buffer = new RingBuffer<>(2);
+        List<Integer> polled = new ArrayList<>();
+        // when
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+            polled.add(buffer.poll());
+        }
+        // then
+        assertThat(polled).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void drainTo_should_remove_at_most_given_number_of_elements() {
+        // given
+        RingBuffer<String> buffer = new RingBuffer<>(4);
+        buffer.offer("yoda");
+        buffer.offer("obiwan");
+        buffer.offer("luke");
+        List<String> drained = new ArrayList<>();
+        // when
+        int count = buffer.drainTo(drained::add, 2);
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(drained).containsExactly("yoda", "obiwan");
+        assertThat(buffer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void clear_should_remove_all_elements() {
+        // given
+        RingBuffer<String> buffer = new RingBuffer<>(4);
+        buffer.offer("yoda");
+        buffer.offer("obiwan");
+        // when
+        buffer.clear();
+        // then
+        assertThat(buffer.isEmpty()).isTrue();
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void poll_should_return_each_element_exactly_once_when_producers_and_consumers_contend() throws Exception {
+        // given
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        Set<Integer> consumed = ConcurrentHashMap.newKeySet();
+        List<Integer> duplicates = new ArrayList<>();
+        AtomicBoolean producing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + CONSUMERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                int offset = p * ELEMENTS_PER_PRODUCER;
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ELEMENTS_PER_PRODUCER; i++) {
+                        while (!buffer.offer(offset + i)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> consumers = new ArrayList<>();
+            for (int c = 0; c < CONSUMERS; c++) {
+                consumers.add(executor.submit(() -> {
+                    start.await();
+                    while (producing.get()
+                            || !buffer.isEmpty()) {
+                        int drained = buffer.drainTo(element -> {
+                            if (!consumed.add(element)) {
+                                synchronized (duplicates) {
+                                    duplicates.add(element);
+                                }
+                            }
+                        });
+                        if (drained == 0) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // when
+            start.countDown();
+            for (Future<?> producer : producers) {
+                producer.get(1, TimeUnit.MINUTES);
+            }
+            producing.set(false);
+            for (Future<?> consumer : consumers) {
+                consumer.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // then
+        assertThat(duplicates).isEmpty();
+        assertThat(consumed).hasSize(PRODUCERS * ELEMENTS_PER_PRODUCER);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void offer_should_never_exceed_capacity_when_overwriting_concurrently() throws Exception {
+        // given
+        RingBuffer<Integer> buffer = new RingBuffer<>(8, Overflow.OVERWRITE_OLDEST);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ELEMENTS_PER_PRODUCER; i++) {
+                        buffer.offer(i);
+                    }
+                    return null;
+                }));
+            }
+            // when
+            start.countDown();
+            for (Future<?> producer : producers) {
+                producer.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // then
+        assertThat(buffer.pollAll()).hasSizeLessThanOrEqualTo(8);
+    }
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.telemetry.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScrubberTest {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+            "[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern IP_PATTERN = Pattern.compile(
+            "(([01]?\\d\\d?|2[0-4]\\d|25[0-5])\\.){3}([01]?\\d\\d?|2[0-4]\\d|25[0-5])");
+
+    @Test
+    void scrub_should_return_same_instance_if_nothing_matched() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .literal("yoda", "<JEDI>")
+                .ips("<IP>")
+                .emails("<EMAIL>")
+                .build();
+        String string = "Could not connect to cluster 10.0.12: connection refused @ startup";
+        // when
+        String scrubbed = scrubber.scrub(string);
+        // then
+        assertThat(scrubbed).isSameAs(string);
+    }
+
+    @Test
+    void scrub_should_replace_all_literals() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .literal("yoda", "<JEDI>")
+                .literal("vader", "<SITH>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub("yoda fights vader, vader fights yoda");
+        // then
+        assertThat(scrubbed).isEqualTo("<JEDI> fights <SITH>, <SITH> fights <JEDI>");
+    }
+
+    @Test
+    void scrub_should_replace_longest_literal_if_literals_start_at_same_position() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .literal("/home/yoda", "<HOMEDIR>")
+                .literal("/home/yoda/tmp", "<TMPDIR>")
+                .literal("yoda", "<USER>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub("yoda wrote /home/yoda/tmp/force and /home/yoda/saber");
+        // then
+        assertThat(scrubbed).isEqualTo("<USER> wrote <TMPDIR>/force and <HOMEDIR>/saber");
+    }
+
+    @Test
+    void scrub_should_replace_literal_that_starts_first_if_literals_overlap() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .literal("obiwan", "<JEDI>")
+                .literal("wankenobi", "<NAME>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub("obiwankenobi");
+        // then
+        assertThat(scrubbed).isEqualTo("<JEDI>kenobi");
+    }
+
+    @Test
+    void scrub_should_replace_literal_that_follows_partial_match_of_longer_literal() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .literal("ab", "<AB>")
+                .literal("c", "<C>")
+                .literal("abcdx", "<ABCDX>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub("abcdy");
+        // then
+        assertThat(scrubbed).isEqualTo("<AB><C>dy");
+    }
+
+    @Test
+    void scrub_should_replace_email_rather_than_user_name_in_it() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .literal("yoda", "<USER>")
+                .emails("<EMAIL>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub("mail yoda@dagobah.org");
+        // then
+        assertThat(scrubbed).isEqualTo("mail <EMAIL>");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "This is the ip 192.168.0.1 within a message.",
+            "This is the ip 10.0.12 within a message.",
+            "ips 0.0.0.0, 255.255.255.255 and 256.1.1.1",
+            "edge cases 1192.168.0.1 10.0.0.255 10.0.0.2555 10.0.0.256 1.2.3.4.5.6.7.8",
+            "leading zeros 010.001.000.099",
+            "Contact jedi@redhat.com or yoda.master+force@dagobah.co.uk.",
+            "bogus emails jedi@redhat, @redhat.com, jedi@.com and jedi@redhat.c",
+            "long tld jedi@redhat.technology and digits jedi@redhat.com1",
+            "mixed 1.2.3.4@redhat.com and jedi@10.0.0.1.io",
+            "",
+            "no ip nor email at all"
+    })
+    void scrub_should_replace_same_ips_and_emails_as_regex(String string) {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .ips("<IP>")
+                .emails("<EMAIL>")
+                .build();
+        String expected = EMAIL_PATTERN.matcher(
+                IP_PATTERN.matcher(string).replaceAll("<IP>"))
+                .replaceAll("<EMAIL>");
+        // when
+        String ipsOnly = Scrubber.builder().ips("<IP>").build().scrub(string);
+        String emailsOnly = Scrubber.builder().emails("<EMAIL>").build().scrub(string);
+        // then
+        assertThat(ipsOnly).isEqualTo(IP_PATTERN.matcher(string).replaceAll("<IP>"));
+        assertThat(emailsOnly).isEqualTo(EMAIL_PATTERN.matcher(string).replaceAll("<EMAIL>"));
+        if (!string.contains("@")
+                || !IP_PATTERN.matcher(string).find()) {
+            // ips and emails don't overlap
+            assertThat(scrubber.scrub(string)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void scrub_should_replace_prefix_and_rest_of_token() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .prefix("https://", "<URL>")
+                .prefix("Bearer ", "<TOKEN>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub("GET \"https://api.cluster:6443/apis\" with Bearer sha256~abc failed");
+        // then
+        assertThat(scrubbed).isEqualTo("GET \"<URL>\" with <TOKEN> failed");
+    }
+
+    @Test
+    void scrub_should_replace_matches_of_all_patterns() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .pattern(Pattern.compile("(token)=(\\w+)"), "<TOKEN>")
+                .pattern(Pattern.compile("[a-z]:\\\\\\S+", Pattern.CASE_INSENSITIVE), "<PATH>")
+                .pattern(Pattern.compile("x*"), "<EMPTY>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub("token=42 for C:\\Users\\yoda and token=43");
+        // then
+        assertThat(scrubbed).isEqualTo("<TOKEN> for <PATH> and <TOKEN>");
+    }
+
+    @Test
+    void scrub_should_replace_matches_of_custom_matcher() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .matcher((string, start) -> {
+                    int end = start;
+                    while (end < string.length()
+                            && Character.isUpperCase(string.charAt(end))) {
+                        end++;
+                    }
+                    return end - start >= 3 ? end : -1;
+                }, "<ACRONYM>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub("the JEDI order of the OR");
+        // then
+        assertThat(scrubbed).isEqualTo("the <ACRONYM> order of the OR");
+    }
+
+    @Test
+    void scrub_should_replace_match_that_starts_first_of_all_kinds_of_rules() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .literal("yoda", "<USER>")
+                .prefix("https://", "<URL>")
+                .pattern(Pattern.compile("dagobah\\S*"), "<PLANET>")
+                .ips("<IP>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub("yoda lives on dagobah.org at https://dagobah.org/yoda from 10.0.0.1");
+        // then
+        assertThat(scrubbed).isEqualTo("<USER> lives on <PLANET> at <URL> from <IP>");
+    }
+
+    @Test
+    void scrub_should_return_null_for_null() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .literal("yoda", "<JEDI>")
+                .build();
+        // when
+        String scrubbed = scrubber.scrub(null);
+        // then
+        assertThat(scrubbed).isNull();
+    }
+
+    @Test
+    void scrub_should_replace_in_long_string() {
+        // given
+        Scrubber scrubber = Scrubber.builder()
+                .literal("yoda", "<JEDI>")
+                .ips("<IP>")
+                .build();
+        String line = "at com.redhat.Force.use(Force.java:42) by yoda from 10.0.0.1\n";
+        // when
+        String scrubbed = scrubber.scrub(line.repeat(1000));
+        // then
+        assertThat(scrubbed).isEqualTo("at com.redhat.Force.use(Force.java:42) by <JEDI> from <IP>\n".repeat(1000));
+    }
+}